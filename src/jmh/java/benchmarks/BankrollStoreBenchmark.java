@@ -0,0 +1,64 @@
+package benchmarks;
+
+import models.ChipLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import persistence.BankrollStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Settled bets per second through the write-ahead log, each one a bet and its payout. The flusher syncs in the
+ * background the same as in a game, and the threaded run shows how appends hold up with several tables writing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BankrollStoreBenchmark {
+	private static final String PLAYER = "Benchmark";
+	
+	private Path directory;
+	private BankrollStore store;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("bankroll-benchmark");
+		store = new BankrollStore(directory);
+		store.openAccount(PLAYER, 1_000_000);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		store.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+	
+	@Benchmark
+	public long settleBet() {
+		store.append(PLAYER, ChipLedger.EntryType.BET, -10);
+		return store.append(PLAYER, ChipLedger.EntryType.PAYOUT, 20);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public long settleBetFromFourTables() {
+		return settleBet();
+	}
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import analysis.CountingSystem;
+import game.GameEngine;
+import models.Card;
+import models.HandState;
+import models.Shoe;
+import models.ShuffleSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import strategy.BasicStrategy;
+import strategy.BetSpread;
+import strategy.CountingStrategy;
+import strategy.RandomStrategy;
+import strategy.Strategy;
+import strategy.StrategyTableGenerator;
+import strategy.ThresholdStrategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bot decision per strategy, made from a packed hand state against a random upcard, the way BotPlayer asks for
+ * them. The deviations strategy is bound to a shoe partway through, so its index plays see a live count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BotBenchmark {
+	private static final int HANDS = 1024;
+	private static final int BET = 10;
+	
+	@Param({"dealer", "basic", "deviations", "random"})
+	private String strategyName;
+	
+	private Strategy strategy;
+	private final int[] handStates = new int[HANDS];
+	private final int[] upcards = new int[HANDS];
+	
+	@Setup
+	public void setUp() {
+		GameEngine engine = new GameEngine();
+		Shoe shoe = new Shoe(6, 0.75, ShuffleSource.splittable(42));
+		Strategy basic = new BasicStrategy(new StrategyTableGenerator(engine).loadOrGenerate(), BET);
+		Strategy unbound = switch (strategyName) {
+			case "dealer" -> new ThresholdStrategy(17, BET);
+			case "basic" -> basic;
+			case "deviations" -> new CountingStrategy(basic, new BetSpread(CountingSystem.HI_LO, BET, 8, 1), true);
+			default -> new RandomStrategy(42, BET);
+		};
+		strategy = unbound.bindTo(shoe);
+		
+		for (int i = 0; i < shoe.getCardsRemaining() / 2; i++) {
+			shoe.dealCard();
+		}
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < HANDS; i++) {
+			int state = HandState.EMPTY;
+			int cards = 2 + random.nextInt(2);
+			for (int card = 0; card < cards; card++) {
+				state = HandState.addCard(state, random.nextInt(Card.DISTINCT_CARDS));
+			}
+			handStates[i] = state;
+			upcards[i] = 2 + random.nextInt(10);
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(HANDS)
+	public int decide() {
+		int moves = 0;
+		for (int i = 0; i < HANDS; i++) {
+			boolean twoCards = HandState.cardCount(handStates[i]) == 2;
+			moves += strategy.decide(handStates[i], upcards[i], twoCards, false, twoCards).ordinal();
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import models.Card;
+import models.Deck;
+import models.Shoe;
+import models.ShuffleSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dealing runs straight through each deck, so the cost of the reshuffle every 52 (or 6 * 52) cards is spread over
+ * the dealt cards the same way it is in a real game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeckBenchmark {
+	private static final long SEED = 42;
+	
+	private Deck deck;
+	private Shoe shoe;
+	
+	@Setup
+	public void setUp() {
+		deck = new Deck(ShuffleSource.splittable(SEED));
+		shoe = new Shoe(6, 0.75, ShuffleSource.splittable(SEED));
+	}
+	
+	@Benchmark
+	public Card dealFromDeck() {
+		return deck.dealCard();
+	}
+	
+	@Benchmark
+	public int dealFromShoe() {
+		shoe.shuffleIfNeeded();
+		return shoe.dealCardCode();
+	}
+	
+	@Benchmark
+	public Deck constructDeck() {
+		return new Deck(ShuffleSource.splittable(SEED));
+	}
+	
+	@Benchmark
+	public Shoe constructShoe() {
+		return new Shoe(6, 0.75, ShuffleSource.splittable(SEED));
+	}
+}
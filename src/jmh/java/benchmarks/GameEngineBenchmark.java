@@ -0,0 +1,88 @@
+package benchmarks;
+
+import game.GameEngine;
+import game.GameResult;
+import game.RoundBatch;
+import models.Card;
+import models.Hand;
+import models.Rank;
+import models.Shoe;
+import models.ShuffleSource;
+import models.Suit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameEngineBenchmark {
+	private static final int BATCH_SIZE = 1024;
+	
+	private final GameEngine engine = new GameEngine();
+	private final RoundBatch batch = new RoundBatch(BATCH_SIZE);
+	
+	private Hand playerTwenty;
+	private Hand dealerNineteen;
+	private Hand playerBlackjack;
+	private Hand dealerBusted;
+	
+	@Setup
+	public void setUp() {
+		playerTwenty = handOf(Rank.KING, Rank.QUEEN);
+		dealerNineteen = handOf(Rank.NINE, Rank.SEVEN, Rank.THREE);
+		playerBlackjack = handOf(Rank.ACE, Rank.JACK);
+		dealerBusted = handOf(Rank.TEN, Rank.SIX, Rank.EIGHT);
+		
+		// Random two and three card hands so the batch sees a realistic mix of outcomes
+		Shoe shoe = new Shoe(6, 1.0, ShuffleSource.splittable(42));
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			shoe.shuffleIfNeeded();
+			Hand player = new Hand();
+			Hand dealer = new Hand();
+			for (int card = 0; card < 2 + (i % 2); card++) {
+				player.addCardCode(shoe.dealCardCode());
+				dealer.addCardCode(shoe.dealCardCode());
+			}
+			batch.set(i, player, dealer, 10);
+		}
+		batch.setSize(BATCH_SIZE);
+	}
+	
+	@Benchmark
+	public GameResult compareValues() {
+		return engine.determineResult(playerTwenty, dealerNineteen);
+	}
+	
+	@Benchmark
+	public GameResult blackjackAgainstBust() {
+		return engine.determineResult(playerBlackjack, dealerBusted);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public RoundBatch settleBatch() {
+		engine.settleBatch(batch);
+		return batch;
+	}
+	
+	@Benchmark
+	public boolean shouldDealerHit() {
+		return engine.shouldDealerHit(dealerNineteen);
+	}
+	
+	private static Hand handOf(Rank... ranks) {
+		Hand hand = new Hand();
+		for (Rank rank : ranks) {
+			hand.addCard(Card.of(rank, Suit.CLUBS));
+		}
+		return hand;
+	}
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import models.Card;
+import models.Hand;
+import models.Rank;
+import models.Suit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandBenchmark {
+	private Hand blackjack;
+	private Hand softHand;
+	private Hand bustedHand;
+	
+	@Setup
+	public void setUp() {
+		blackjack = handOf(Rank.ACE, Rank.KING);
+		softHand = handOf(Rank.ACE, Rank.TWO, Rank.THREE, Rank.ACE);
+		bustedHand = handOf(Rank.TEN, Rank.SIX, Rank.NINE);
+	}
+	
+	@Benchmark
+	public int handValueSoft() {
+		return softHand.getHandValue();
+	}
+	
+	@Benchmark
+	public int handValueBusted() {
+		return bustedHand.getHandValue();
+	}
+	
+	@Benchmark
+	public boolean isBlackjack() {
+		return blackjack.isBlackjack();
+	}
+	
+	@Benchmark
+	public boolean isBlackjackThreeCards() {
+		return softHand.isBlackjack();
+	}
+	
+	@Benchmark
+	public Hand buildHand() {
+		return handOf(Rank.FIVE, Rank.SIX, Rank.QUEEN);
+	}
+	
+	private static Hand handOf(Rank... ranks) {
+		Hand hand = new Hand();
+		for (Rank rank : ranks) {
+			hand.addCard(Card.of(rank, Suit.SPADES));
+		}
+		return hand;
+	}
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import game.GameState;
+import game.Winner;
+import metrics.MetricsRegistry;
+import metrics.TableMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the metrics cost a table per round: a phase timing, a result and a round count. The threaded run has several
+ * tables recording into the same registry at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+	private final MetricsRegistry registry = new MetricsRegistry();
+	private TableMetrics table;
+	private long nanos;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		table = registry.openTable();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		table.close();
+	}
+	
+	@Benchmark
+	public void recordPhase() {
+		table.recordPhase(GameState.PLAYER_TURN, nanos++ & 0xFFFFF);
+	}
+	
+	@Benchmark
+	public void recordRound() {
+		table.recordResult(Winner.DEALER);
+		table.recordRound();
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public void recordPhaseThreaded() {
+		table.recordPhase(GameState.PLAYER_TURN, System.nanoTime() & 0xFFFFF);
+	}
+}
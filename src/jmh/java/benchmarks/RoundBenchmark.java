@@ -0,0 +1,69 @@
+package benchmarks;
+
+import game.GameEngine;
+import game.GameResult;
+import models.Shoe;
+import models.ShuffleSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import players.DealerNpc;
+import players.SimulatedPlayer;
+import strategy.ThresholdStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full round scripted the same way BlackjackGame plays it (deal, natural check, player turn, dealer turn,
+ * settlement) with the player standing on 17, from a seeded shoe so every run sees the same cards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoundBenchmark {
+	private static final int BET = 10;
+	
+	private final GameEngine engine = new GameEngine();
+	
+	private Shoe shoe;
+	private SimulatedPlayer player;
+	private DealerNpc dealer;
+	
+	@Setup
+	public void setUp() {
+		shoe = new Shoe(6, 0.75, ShuffleSource.splittable(42));
+		player = new SimulatedPlayer("Benchmark", Integer.MAX_VALUE, new ThresholdStrategy(17, BET));
+		dealer = new DealerNpc();
+	}
+	
+	@Benchmark
+	public GameResult playRound() {
+		shoe.shuffleIfNeeded();
+		player.clearHand();
+		dealer.clearHand();
+		
+		for (int i = 0; i < 2; i++) {
+			player.addCard(shoe.dealCard());
+			dealer.addCard(shoe.dealCard());
+		}
+		
+		if (!engine.isBlackjack(player.getHand()) && !engine.isBlackjack(dealer.getHand())) {
+			int dealerVisibleValue = dealer.getVisibleValue();
+			while (!engine.isBust(player.getHand()) && player.wantsToHit(dealerVisibleValue)) {
+				player.addCard(shoe.dealCard());
+			}
+			
+			if (!engine.isBust(player.getHand())) {
+				while (engine.shouldDealerHit(dealer.getHand())) {
+					dealer.addCard(shoe.dealCard());
+				}
+			}
+		}
+		
+		return engine.determineResult(player.getHand(), dealer.getHand());
+	}
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import metrics.MetricsRegistry;
+import models.Shoe;
+import models.ShuffleSource;
+import models.TableStatePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import players.DealerNpc;
+import players.SimulatedPlayer;
+import strategy.ThresholdStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening a table and dealing its first round, as objects and as a pooled slot that's released straight after. The
+ * gc profiler's alloc.rate.norm is the heap each new table costs, TableDensityCheck measures how much of it stays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TableStateBenchmark {
+	private static final int DECKS = 6;
+	private static final double PENETRATION = 0.75;
+	private static final int STARTING_CHIPS = 100;
+	
+	private final ThresholdStrategy strategy = new ThresholdStrategy(17, 10);
+	
+	private TableStatePool pool;
+	private long seed;
+	
+	@Setup
+	public void setUp() {
+		// Its own registry, so the benchmark's shuffles don't land in the global metrics
+		pool = new TableStatePool(1_024, 1, 4, DECKS, PENETRATION, new MetricsRegistry());
+	}
+	
+	@Benchmark
+	public int objectTable() {
+		Shoe shoe = new Shoe(DECKS, PENETRATION, ShuffleSource.splittable(seed++));
+		SimulatedPlayer player = new SimulatedPlayer("Benchmark", STARTING_CHIPS, strategy);
+		DealerNpc dealer = new DealerNpc();
+		for (int i = 0; i < 2; i++) {
+			player.addCard(shoe.dealCard());
+			dealer.addCard(shoe.dealCard());
+		}
+		return player.getHand().getState() + dealer.getHand().getState();
+	}
+	
+	@Benchmark
+	public int pooledTable() {
+		int slot = pool.allocate(seed++, STARTING_CHIPS);
+		for (int i = 0; i < 2; i++) {
+			pool.addCard(slot, 0, 0, pool.dealCardCode(slot));
+			pool.addDealerCard(slot, pool.dealCardCode(slot));
+		}
+		int state = pool.getHandState(slot, 0, 0) + pool.getDealerState(slot);
+		pool.release(slot);
+		return state;
+	}
+}
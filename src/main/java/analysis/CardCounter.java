@@ -0,0 +1,74 @@
+package analysis;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Card;
+import models.DealListener;
+import models.Deck;
+import models.Shoe;
+
+/**
+ * Keeps a running count for every CountingSystem as cards come out of a Deck or Shoe, one table lookup and add per
+ * system per card and no allocation. True counts divide by the decks still to be dealt, worked out from how many
+ * cards the deck or shoe started with and how many have been seen since the last shuffle.
+ */
+public class CardCounter implements DealListener {
+	private static final CountingSystem[] SYSTEMS = CountingSystem.values();
+	private static final double MINIMUM_DECKS_REMAINING = 0.25;
+	
+	private final int totalCards;
+	private final int[] runningCounts = new int[SYSTEMS.length];
+	@Getter
+	private int cardsSeen;
+	
+	public CardCounter(int totalCards) {
+		if (totalCards < 1) {
+			throw new IllegalArgumentException("A counter needs at least one card to count");
+		}
+		this.totalCards = totalCards;
+		shuffled();
+	}
+	
+	public static CardCounter attachTo(@NonNull Shoe shoe) {
+		CardCounter counter = new CardCounter(shoe.getTotalCards());
+		counter.cardsSeen = shoe.getCardsDealt();
+		shoe.addDealListener(counter);
+		return counter;
+	}
+	
+	public static CardCounter attachTo(@NonNull Deck deck) {
+		CardCounter counter = new CardCounter(Card.DISTINCT_CARDS);
+		counter.cardsSeen = Card.DISTINCT_CARDS - deck.getCards().size();
+		deck.addDealListener(counter);
+		return counter;
+	}
+	
+	@Override
+	public void cardDealt(int cardCode) {
+		for (int i = 0; i < SYSTEMS.length; i++) {
+			runningCounts[i] += SYSTEMS[i].tag(cardCode);
+		}
+		cardsSeen++;
+	}
+	
+	@Override
+	public void shuffled() {
+		double decks = (double) totalCards / Card.DISTINCT_CARDS;
+		for (int i = 0; i < SYSTEMS.length; i++) {
+			runningCounts[i] = SYSTEMS[i].initialRunningCount(decks);
+		}
+		cardsSeen = 0;
+	}
+	
+	public int getRunningCount(@NonNull CountingSystem system) {
+		return runningCounts[system.ordinal()];
+	}
+	
+	public double getDecksRemaining() {
+		return Math.max(MINIMUM_DECKS_REMAINING, (double) (totalCards - cardsSeen) / Card.DISTINCT_CARDS);
+	}
+	
+	public double getTrueCount(@NonNull CountingSystem system) {
+		return runningCounts[system.ordinal()] / getDecksRemaining();
+	}
+}
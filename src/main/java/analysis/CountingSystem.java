@@ -0,0 +1,42 @@
+package analysis;
+
+import lombok.Getter;
+import models.Card;
+import models.Rank;
+
+/**
+ * Card counting tag values, looked up by card code. KO is unbalanced, so its running count starts below zero and is
+ * normally bet on directly, the balanced systems are converted to a true count.
+ */
+public enum CountingSystem {
+	// 2 3 4 5 6 7 8 9 10 J Q K A
+	HI_LO(false, 1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1),
+	KO(true, 1, 1, 1, 1, 1, 1, 0, 0, -1, -1, -1, -1, -1),
+	OMEGA_II(false, 1, 1, 2, 2, 2, 1, 0, -1, -2, -2, -2, -2, 0);
+	
+	private static final int KO_INITIAL_COUNT_PER_DECK = -4;
+	
+	@Getter
+	private final boolean unbalanced;
+	private final byte[] tags = new byte[Card.DISTINCT_CARDS];
+	
+	CountingSystem(boolean unbalanced, int... rankTags) {
+		this.unbalanced = unbalanced;
+		for (int code = 0; code < Card.DISTINCT_CARDS; code++) {
+			tags[code] = (byte) rankTags[Card.rankOf(code).ordinal()];
+		}
+		assert rankTags.length == Rank.values().length;
+	}
+	
+	public int tag(int cardCode) {
+		return tags[cardCode];
+	}
+	
+	/**
+	 * Where the running count starts after a shuffle. Balanced systems start at zero, KO starts at 4 - 4 * decks so
+	 * that its key count lines up regardless of how many decks are in play.
+	 */
+	public int initialRunningCount(double decks) {
+		return unbalanced ? (int) Math.round(KO_INITIAL_COUNT_PER_DECK * decks) + 4 : 0;
+	}
+}
@@ -0,0 +1,184 @@
+package analysis;
+
+import game.GameEngine;
+import lombok.NonNull;
+import models.Card;
+import models.Deck;
+import models.Hand;
+import models.HandState;
+import models.Rank;
+import models.Shoe;
+
+/**
+ * Works out the exact probability of each final dealer hand for a given upcard and set of unseen cards, playing the
+ * dealer out with GameEngine.shouldDealerHit. Every draw is weighted by how many of that value are actually left, so
+ * the answer reflects the real composition of the shoe rather than an infinite deck.
+ * <p>
+ * Ranks worth ten are grouped together, which leaves ten counts that are packed into a single long (six bits per
+ * count, eight for the tens, enough for an eight deck shoe). Sub-results are memoized on that long plus the dealer's
+ * hand state, and the cache is kept between calls so neighbouring compositions reuse each other's work. An analyzer
+ * is not thread safe, use one per thread.
+ */
+public class DealerOutcomeAnalyzer {
+	private static final int VALUE_CLASSES = 10;
+	private static final int TEN_CLASS = 8;
+	private static final int ACE_CLASS = 9;
+	private static final int SMALL_COUNT_BITS = 6;
+	private static final int TEN_COUNT_BITS = 8;
+	private static final int MAX_DECKS = Shoe.MAX_DECKS;
+	private static final int INITIAL_CACHE_CAPACITY = 1 << 14;
+	private static final int MAX_CACHE_ENTRIES = 1 << 20;
+	// Set on the state key when the hole card has to be conditioned on the dealer not having blackjack
+	private static final int NO_BLACKJACK_FLAG = 1 << 31;
+	
+	private static final int[] CLASS_OF_RANK = new int[Rank.values().length];
+	private static final int[] CODE_OF_CLASS = new int[VALUE_CLASSES];
+	private static final int[] CLASS_SHIFTS = new int[VALUE_CLASSES];
+	private static final int[] CLASS_LIMITS = new int[VALUE_CLASSES];
+	
+	static {
+		for (Rank rank : Rank.values()) {
+			int valueClass = switch (rank) {
+				case ACE -> ACE_CLASS;
+				case TEN, JACK, QUEEN, KING -> TEN_CLASS;
+				default -> rank.ordinal();
+			};
+			CLASS_OF_RANK[rank.ordinal()] = valueClass;
+		}
+		
+		// Hearts come first, so a rank ordinal doubles as a card code
+		for (int valueClass = 0; valueClass < TEN_CLASS; valueClass++) {
+			CODE_OF_CLASS[valueClass] = valueClass;
+		}
+		CODE_OF_CLASS[TEN_CLASS] = Rank.TEN.ordinal();
+		CODE_OF_CLASS[ACE_CLASS] = Rank.ACE.ordinal();
+		
+		int shift = 0;
+		for (int valueClass = 0; valueClass < VALUE_CLASSES; valueClass++) {
+			CLASS_SHIFTS[valueClass] = shift;
+			shift += valueClass == TEN_CLASS ? TEN_COUNT_BITS : SMALL_COUNT_BITS;
+			CLASS_LIMITS[valueClass] = MAX_DECKS * 4 * (valueClass == TEN_CLASS ? 4 : 1);
+		}
+	}
+	
+	private final GameEngine engine;
+	private final OutcomeCache cache = new OutcomeCache(INITIAL_CACHE_CAPACITY);
+	
+	public DealerOutcomeAnalyzer(@NonNull GameEngine engine) {
+		this.engine = engine;
+	}
+	
+	/**
+	 * Analyses the dealer's hand as the player sees it: the first card is the upcard and every other card the dealer
+	 * holds is unseen, so it goes back in with what is left in the shoe.
+	 */
+	public DealerOutcomes analyze(@NonNull Shoe shoe, @NonNull Hand dealerHand, boolean dealerHasNoBlackjack) {
+		return analyzeDealerHand(shoe.getRemainingRankCounts(), dealerHand, dealerHasNoBlackjack);
+	}
+	
+	public DealerOutcomes analyze(@NonNull Deck deck, @NonNull Hand dealerHand, boolean dealerHasNoBlackjack) {
+		return analyzeDealerHand(deck.getRemainingRankCounts(), dealerHand, dealerHasNoBlackjack);
+	}
+	
+	private DealerOutcomes analyzeDealerHand(int[] unseen, Hand dealerHand, boolean dealerHasNoBlackjack) {
+		for (int i = 1; i < dealerHand.getCardCount(); i++) {
+			unseen[Card.rankOf(dealerHand.getCardCode(i)).ordinal()]++;
+		}
+		return analyze(unseen, dealerHand.getCard(0).rank(), dealerHasNoBlackjack);
+	}
+	
+	/**
+	 * @param unseenRankCounts     how many of each rank (indexed by ordinal) the dealer could still draw
+	 * @param dealerHasNoBlackjack condition the hole card on the dealer not having a natural, which is what the
+	 *                             player knows once the initial deal has been checked for blackjacks
+	 */
+	public DealerOutcomes analyze(@NonNull int[] unseenRankCounts, @NonNull Rank upcard, boolean dealerHasNoBlackjack) {
+		if (unseenRankCounts.length != Rank.values().length) {
+			throw new IllegalArgumentException("Expected a count for each of the " + Rank.values().length + " ranks");
+		}
+		
+		int[] counts = new int[VALUE_CLASSES];
+		int remaining = 0;
+		for (int rank = 0; rank < unseenRankCounts.length; rank++) {
+			counts[CLASS_OF_RANK[rank]] += unseenRankCounts[rank];
+			remaining += unseenRankCounts[rank];
+		}
+		
+		long composition = 0;
+		for (int valueClass = 0; valueClass < VALUE_CLASSES; valueClass++) {
+			if (counts[valueClass] < 0 || counts[valueClass] > CLASS_LIMITS[valueClass]) {
+				throw new IllegalArgumentException("Card counts must fit in a " + MAX_DECKS + " deck shoe");
+			}
+			composition |= (long) counts[valueClass] << CLASS_SHIFTS[valueClass];
+		}
+		if (remaining == 0) {
+			throw new IllegalArgumentException("There are no unseen cards left to draw");
+		}
+		
+		if (cache.size() > MAX_CACHE_ENTRIES) {
+			cache.clear();
+		}
+		
+		int state = HandState.addCard(HandState.EMPTY, upcard.ordinal());
+		return DealerOutcomes.of(outcomes(composition, counts, remaining, state, dealerHasNoBlackjack));
+	}
+	
+	private double[] outcomes(long composition, int[] counts, int remaining, int state, boolean noBlackjack) {
+		boolean holeCard = HandState.cardCount(state) == 1;
+		int stateKey = holeCard && noBlackjack ? state | NO_BLACKJACK_FLAG : state;
+		
+		double[] cached = cache.get(composition, stateKey);
+		if (cached != null) {
+			return cached;
+		}
+		
+		double[] result = new double[DealerOutcomes.OUTCOMES];
+		
+		// Work out how many cards the dealer could draw, leaving out hole cards that would make a natural
+		int drawable = remaining;
+		if (holeCard && noBlackjack) {
+			for (int valueClass = 0; valueClass < VALUE_CLASSES; valueClass++) {
+				if (HandState.isBlackjack(HandState.addCard(state, CODE_OF_CLASS[valueClass]))) {
+					drawable -= counts[valueClass];
+				}
+			}
+		}
+		
+		if (drawable > 0) {
+			for (int valueClass = 0; valueClass < VALUE_CLASSES; valueClass++) {
+				int available = counts[valueClass];
+				int next = HandState.addCard(state, CODE_OF_CLASS[valueClass]);
+				if (available == 0 || (holeCard && noBlackjack && HandState.isBlackjack(next))) {
+					continue;
+				}
+				
+				double probability = (double) available / drawable;
+				if (HandState.isBusted(next)) {
+					result[DealerOutcomes.BUST_INDEX] += probability;
+				} else if (HandState.cardCount(next) >= 2 && !engine.shouldDealerHit(next)) {
+					result[finalIndex(next)] += probability;
+				} else {
+					counts[valueClass]--;
+					double[] drawn = outcomes(composition - (1L << CLASS_SHIFTS[valueClass]), counts, remaining - 1,
+							next, noBlackjack);
+					counts[valueClass]++;
+					
+					for (int outcome = 0; outcome < DealerOutcomes.OUTCOMES; outcome++) {
+						result[outcome] += probability * drawn[outcome];
+					}
+				}
+			}
+		}
+		
+		cache.put(composition, stateKey, result);
+		return result;
+	}
+	
+	private static int finalIndex(int state) {
+		int value = HandState.value(state);
+		if (value < DealerOutcomes.FIRST_VALUE) {
+			throw new IllegalStateException("Dealer stood on " + value + ", only 17 and above are supported");
+		}
+		return value - DealerOutcomes.FIRST_VALUE;
+	}
+}
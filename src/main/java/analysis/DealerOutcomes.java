@@ -0,0 +1,35 @@
+package analysis;
+
+import lombok.NonNull;
+
+/**
+ * Probability of each way the dealer's hand can finish.
+ */
+public record DealerOutcomes(double seventeen, double eighteen, double nineteen, double twenty, double twentyOne,
+							 double bust) {
+	static final int OUTCOMES = 6;
+	static final int FIRST_VALUE = 17;
+	static final int BUST_INDEX = OUTCOMES - 1;
+	
+	static DealerOutcomes of(@NonNull double[] probabilities) {
+		return new DealerOutcomes(probabilities[0], probabilities[1], probabilities[2], probabilities[3],
+				probabilities[4], probabilities[BUST_INDEX]);
+	}
+	
+	public double probabilityOf(int value) {
+		return switch (value) {
+			case 17 -> seventeen;
+			case 18 -> eighteen;
+			case 19 -> nineteen;
+			case 20 -> twenty;
+			case 21 -> twentyOne;
+			default -> 0;
+		};
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("17: %.1f%%, 18: %.1f%%, 19: %.1f%%, 20: %.1f%%, 21: %.1f%%, bust: %.1f%%",
+				seventeen * 100, eighteen * 100, nineteen * 100, twenty * 100, twentyOne * 100, bust * 100);
+	}
+}
@@ -0,0 +1,85 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from (packed composition, dealer hand state) to outcome probabilities. Keys are kept in
+ * primitive arrays so lookups never box, and the table doubles when it gets half full.
+ */
+final class OutcomeCache {
+	private long[] compositions;
+	private int[] states;
+	private double[][] outcomes;
+	private int size;
+	
+	OutcomeCache(int initialCapacity) {
+		allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+	}
+	
+	double[] get(long composition, int state) {
+		int mask = states.length - 1;
+		for (int slot = hash(composition, state) & mask; outcomes[slot] != null; slot = (slot + 1) & mask) {
+			if (compositions[slot] == composition && states[slot] == state) {
+				return outcomes[slot];
+			}
+		}
+		return null;
+	}
+	
+	void put(long composition, int state, double[] value) {
+		if ((size + 1) * 2 > states.length) {
+			grow();
+		}
+		insert(composition, state, value);
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	void clear() {
+		Arrays.fill(outcomes, null);
+		size = 0;
+	}
+	
+	private void insert(long composition, int state, double[] value) {
+		int mask = states.length - 1;
+		int slot = hash(composition, state) & mask;
+		while (outcomes[slot] != null) {
+			if (compositions[slot] == composition && states[slot] == state) {
+				outcomes[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		compositions[slot] = composition;
+		states[slot] = state;
+		outcomes[slot] = value;
+		size++;
+	}
+	
+	private void grow() {
+		long[] oldCompositions = compositions;
+		int[] oldStates = states;
+		double[][] oldOutcomes = outcomes;
+		
+		allocate(oldStates.length * 2);
+		for (int i = 0; i < oldOutcomes.length; i++) {
+			if (oldOutcomes[i] != null) {
+				insert(oldCompositions[i], oldStates[i], oldOutcomes[i]);
+			}
+		}
+	}
+	
+	private void allocate(int capacity) {
+		compositions = new long[capacity];
+		states = new int[capacity];
+		outcomes = new double[capacity][];
+		size = 0;
+	}
+	
+	private static int hash(long composition, int state) {
+		long mixed = (composition + state * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+		return (int) (mixed ^ (mixed >>> 31));
+	}
+}
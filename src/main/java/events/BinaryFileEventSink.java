@@ -0,0 +1,52 @@
+package events;
+
+import lombok.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends each event to a file as a type byte followed by its two longs, big endian.
+ */
+public class BinaryFileEventSink implements EventSink {
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final DataOutputStream output;
+	
+	public BinaryFileEventSink(@NonNull Path file) throws IOException {
+		this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+	}
+	
+	@Override
+	public void onEvent(@NonNull EventType type, long first, long second) {
+		try {
+			output.writeByte(type.ordinal());
+			output.writeLong(first);
+			output.writeLong(second);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public void flush() {
+		try {
+			output.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public void close() {
+		try {
+			output.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package events;
+
+import lombok.NonNull;
+
+/**
+ * Receives events drained from a GameEventStream. Sinks are only ever called from the stream's consumer thread, so
+ * they don't need to be thread safe.
+ */
+public interface EventSink extends AutoCloseable {
+	
+	void onEvent(@NonNull EventType type, long first, long second);
+	
+	default void flush() {
+	}
+	
+	@Override
+	default void close() {
+		flush();
+	}
+}
@@ -0,0 +1,19 @@
+package events;
+
+/**
+ * What each event carries in its two long fields:
+ * DECK_CREATED (cards in the deck, unused), SHUFFLE (cards shuffled, decks), CARD_DEALT (card code, cards remaining),
+ * ROUND_RESULT (winner ordinal << 8 | payout type ordinal, net chips for the player).
+ */
+public enum EventType {
+	DECK_CREATED,
+	SHUFFLE,
+	CARD_DEALT,
+	ROUND_RESULT;
+	
+	private static final EventType[] VALUES = values();
+	
+	public static EventType fromCode(int code) {
+		return VALUES[code];
+	}
+}
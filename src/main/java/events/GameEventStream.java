@@ -0,0 +1,211 @@
+package events;
+
+import game.Winner;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import models.Player;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Typed game events (deals, shuffles, round results) passed through a fixed size ring buffer to whichever sink is
+ * attached. Events are stored as primitives in preallocated arrays, so publishing never allocates. Any number of
+ * threads can publish: each claims a slot with a single atomic increment and marks it published with a release
+ * write, and one consumer thread drains the slots in order into the sink. If the buffer fills up, publishers wait for
+ * the consumer rather than dropping events.
+ * <p>
+ * With no sink attached, publishing is a single volatile read and nothing else, which is the normal state for
+ * simulations.
+ */
+@Slf4j
+public final class GameEventStream {
+	private static final int DEFAULT_CAPACITY = 1 << 16;
+	private static final long IDLE_PARK_NANOS = 100_000;
+	private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final GameEventStream GLOBAL = new GameEventStream(DEFAULT_CAPACITY);
+	// Marks a slot claimed by a publisher that lost the race with detach, the consumer steps over it
+	private static final byte SKIPPED = -1;
+	
+	private final int mask;
+	private final long[] published;
+	private final byte[] types;
+	private final long[] firstValues;
+	private final long[] secondValues;
+	private final AtomicLong nextSequence = new AtomicLong();
+	private final AtomicLong consumedSequence = new AtomicLong();
+	
+	private volatile EventSink sink;
+	// Set by detach, the consumer drains what's left and exits. Not an interrupt, that would close a file channel
+	private volatile boolean stopping;
+	private Thread consumer;
+	
+	public GameEventStream(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two");
+		}
+		this.mask = capacity - 1;
+		this.published = new long[capacity];
+		this.types = new byte[capacity];
+		this.firstValues = new long[capacity];
+		this.secondValues = new long[capacity];
+		Arrays.fill(published, -1);
+	}
+	
+	/**
+	 * The process wide stream that decks, shoes and games publish to.
+	 */
+	public static GameEventStream global() {
+		return GLOBAL;
+	}
+	
+	public boolean isEnabled() {
+		return sink != null;
+	}
+	
+	public synchronized void attach(@NonNull EventSink newSink) {
+		detach();
+		// Cleared first, so a publisher that sees the new sink never sees the old session stopping
+		stopping = false;
+		sink = newSink;
+		consumer = Thread.ofPlatform().daemon().name("game-events").start(() -> consume(newSink));
+	}
+	
+	/**
+	 * Stops the consumer once it has drained everything already published, then closes the sink.
+	 */
+	public synchronized void detach() {
+		EventSink oldSink = sink;
+		if (oldSink == null) {
+			return;
+		}
+		
+		sink = null;
+		stopping = true;
+		boolean interrupted = false;
+		while (true) {
+			try {
+				consumer.join();
+				break;
+			} catch (InterruptedException e) {
+				// Keep waiting, closing the sink under a running consumer would lose events
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		consumer = null;
+		oldSink.close();
+	}
+	
+	public void publishDeckCreated(int cards) {
+		publish(EventType.DECK_CREATED, cards, 0);
+	}
+	
+	public void publishShuffle(int cards, int decks) {
+		publish(EventType.SHUFFLE, cards, decks);
+	}
+	
+	public void publishCardDealt(int cardCode, int cardsRemaining) {
+		publish(EventType.CARD_DEALT, cardCode, cardsRemaining);
+	}
+	
+	public void publishRoundResult(@NonNull Winner winner, @NonNull Player.PayoutType payoutType, int chipsDelta) {
+		publish(EventType.ROUND_RESULT, (long) winner.ordinal() << 8 | payoutType.ordinal(), chipsDelta);
+	}
+	
+	public void publish(@NonNull EventType type, long first, long second) {
+		EventSink target = sink;
+		if (target != null) {
+			publishTo(target, type, first, second);
+		}
+	}
+	
+	/**
+	 * Claims a slot for an event a publisher saw target attached for. A detach (and even a new attach) can come in
+	 * between that check and the claim, and once the old consumer has exited nothing would drain the event before the
+	 * next session's consumer. So if the target is no longer attached the slot is still published, to keep the
+	 * sequence moving, but marked as skipped rather than carrying the event.
+	 */
+	void publishTo(@NonNull EventSink target, @NonNull EventType type, long first, long second) {
+		long sequence = nextSequence.getAndIncrement();
+		while (sequence - consumedSequence.get() > mask) {
+			Thread.onSpinWait();
+		}
+		
+		int slot = (int) sequence & mask;
+		// A claim made before stopping is set is always drained, the consumer only exits once it has caught up
+		if (stopping || sink != target) {
+			types[slot] = SKIPPED;
+		} else {
+			types[slot] = (byte) type.ordinal();
+			firstValues[slot] = first;
+			secondValues[slot] = second;
+		}
+		PUBLISHED.setRelease(published, slot, sequence);
+	}
+	
+	/**
+	 * Takes the sink as an argument rather than reading the field, a quick detach could clear that before the thread
+	 * even starts.
+	 */
+	private void consume(EventSink target) {
+		while (true) {
+			// Read before draining, so everything published before detach set it has been drained once it's seen
+			boolean stop = stopping;
+			int drained = drain(target);
+			if (drained > 0) {
+				flush(target);
+			}
+			
+			if (stop) {
+				if (consumedSequence.get() == nextSequence.get()) {
+					return;
+				}
+				continue;
+			}
+			
+			if (drained == 0) {
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+			}
+		}
+	}
+	
+	private void flush(EventSink target) {
+		try {
+			target.flush();
+		} catch (RuntimeException e) {
+			log.error("Event sink failed to flush", e);
+		}
+	}
+	
+	private int drain(EventSink target) {
+		long sequence = consumedSequence.get();
+		int drained = 0;
+		
+		while (true) {
+			int slot = (int) sequence & mask;
+			if ((long) PUBLISHED.getAcquire(published, slot) != sequence) {
+				break;
+			}
+			
+			byte type = types[slot];
+			if (type != SKIPPED) {
+				try {
+					target.onEvent(EventType.fromCode(type), firstValues[slot], secondValues[slot]);
+				} catch (RuntimeException e) {
+					log.error("Event sink failed on event {}", sequence, e);
+				}
+				drained++;
+			}
+			
+			sequence++;
+			consumedSequence.lazySet(sequence);
+		}
+		return drained;
+	}
+}
@@ -0,0 +1,25 @@
+package events;
+
+import game.Winner;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import models.Card;
+import models.Player;
+
+/**
+ * Writes events through SLF4J/Logback with the same messages Deck used to log directly.
+ */
+@Slf4j
+public class LoggingEventSink implements EventSink {
+	
+	@Override
+	public void onEvent(@NonNull EventType type, long first, long second) {
+		switch (type) {
+			case DECK_CREATED -> log.info("New deck created with {} cards", first);
+			case SHUFFLE -> log.info("Shuffled {} cards ({} decks)", first, second);
+			case CARD_DEALT -> log.info("Dealt card: {}", Card.fromCode((int) first));
+			case ROUND_RESULT -> log.info("Round over, winner: {}, payout: {}, chips delta: {}",
+					Winner.values()[(int) (first >>> 8)], Player.PayoutType.values()[(int) (first & 0xFF)], second);
+		}
+	}
+}
@@ -1,36 +1,124 @@
 package game;
 
+import analysis.DealerOutcomeAnalyzer;
+import events.GameEventStream;
+import events.LoggingEventSink;
+import history.HandHistoryWriter;
 import lombok.NonNull;
+import metrics.MetricsRegistry;
+import metrics.PrometheusEndpoint;
+import metrics.TableMetrics;
 import models.Card;
-import models.Deck;
+import models.Hand;
+import models.Rank;
+import models.SeekableShuffleSource;
+import models.Shoe;
+import persistence.BankrollStore;
 import players.DealerNpc;
 import players.HumanPlayer;
+import players.TablePlayer;
+import replay.TableRecorder;
+import strategy.Decision;
 import ui.ConsoleUi;
 import ui.GameDisplay;
+import ui.PlayerChannel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 public class BlackjackGame {
-	private static final int STARTING_CHIPS = 100;
+	public static final int STARTING_CHIPS = 100;
+	public static final int MAX_SEATS = 7;
+	private static final String ANSI_FLAG = "--ansi";
+	private static final String H17_FLAG = "--h17";
+	private static final String SIX_TO_FIVE_FLAG = "--6to5";
+	private static final String SURRENDER_FLAG = "--surrender";
+	private static final String DECKS_FLAG = "--decks=";
+	private static final String BANKROLL_FLAG = "--bankroll";
+	private static final String HISTORY_FLAG = "--history=";
+	private static final String RECORD_FLAG = "--record=";
+	private static final String METRICS_FLAG = "--metrics";
+	private static final String SEATS_FLAG = "--seats=";
 	private static final int INITIAL_CARDS_COUNT = 2;
-	private static final int MINIMUM_DECK_SIZE = 10;
+	static final double PENETRATION = 0.75;
 	
-	private final Deck deck;
-	private final HumanPlayer player;
+	private final Shoe shoe;
+	private final List<Seat> seats;
 	private final DealerNpc dealer;
-	private final ConsoleUi ui;
+	private final PlayerChannel ui;
 	private final GameDisplay display;
 	private final GameEngine engine;
+	private final DealerOutcomeAnalyzer dealerAnalyzer;
+	private final TableMetrics metrics = MetricsRegistry.global().openTable();
 	
 	private GameState gameState;
-	private int currentBet;
+	// The seats that bet this round, in dealing order, and the arrays the round's results are shown from
+	private final List<Seat> seatsInRound = new ArrayList<>();
+	private final List<TablePlayer> playersInRound = new ArrayList<>();
+	private final GameResult[][] roundResults;
+	private final int[][] roundBets;
+	private final int[][] roundChipsDeltas;
+	private int activeSeat;
+	
+	private HandHistoryWriter history;
+	private RoundListener roundListener;
+	private long roundId;
+	
+	public BlackjackGame(@NonNull TablePlayer player, @NonNull DealerNpc dealer,
+							@NonNull PlayerChannel ui, @NonNull GameEngine engine) {
+		this(player, dealer, ui, engine, true);
+	}
+	
+	/**
+	 * The dealer outlook keeps a memo cache per game, so hosts running many tables at once can leave it off.
+	 */
+	public BlackjackGame(@NonNull TablePlayer player, @NonNull DealerNpc dealer,
+							@NonNull PlayerChannel ui, @NonNull GameEngine engine, boolean showDealerOutlook) {
+		this(player, dealer, ui, engine, showDealerOutlook, new Shoe(engine.getRules().deckCount(), PENETRATION));
+	}
+	
+	/**
+	 * Deals from the given shoe, e.g. one with a SeekableShuffleSource so the game can be recorded and replayed.
+	 */
+	public BlackjackGame(@NonNull TablePlayer player, @NonNull DealerNpc dealer, @NonNull PlayerChannel ui,
+							@NonNull GameEngine engine, boolean showDealerOutlook, @NonNull Shoe shoe) {
+		this(List.of(player), dealer, ui, engine, showDealerOutlook, shoe);
+	}
 	
-	public BlackjackGame(@NonNull HumanPlayer player, @NonNull DealerNpc dealer,
-							@NonNull ConsoleUi ui, @NonNull GameEngine engine) {
-		this.deck = new Deck();
-		this.player = player;
+	/**
+	 * A table of up to MAX_SEATS players, dealt in list order from the one shoe. Human players share the channel, so
+	 * every prompt goes to whoever's turn it is, and bots (BotPlayer) can fill the other seats or the whole table.
+	 * Players leave by betting nothing or not playing on, and the game is over once every seat is empty.
+	 */
+	public BlackjackGame(@NonNull List<? extends TablePlayer> players, @NonNull DealerNpc dealer,
+							@NonNull PlayerChannel ui, @NonNull GameEngine engine, boolean showDealerOutlook,
+							@NonNull Shoe shoe) {
+		if (players.isEmpty() || players.size() > MAX_SEATS) {
+			throw new IllegalArgumentException("A table seats between 1 and " + MAX_SEATS + " players");
+		}
+		if (shoe.getDeckCount() != engine.getRules().deckCount()) {
+			throw new IllegalArgumentException("The shoe doesn't hold the " + engine.getRules().deckCount()
+					+ " decks the rules call for");
+		}
+		int maxSplitHands = engine.getRules().maxSplitHands();
+		this.shoe = shoe;
+		this.seats = new ArrayList<>(players.size());
+		for (TablePlayer player : players) {
+			seats.add(new Seat(player, maxSplitHands));
+		}
 		this.dealer = dealer;
 		this.ui = ui;
 		this.display = ui.getDisplay();
 		this.engine = engine;
+		this.dealerAnalyzer = showDealerOutlook ? new DealerOutcomeAnalyzer(engine) : null;
+		this.roundResults = new GameResult[players.size()][];
+		this.roundBets = new int[players.size()][];
+		this.roundChipsDeltas = new int[players.size()][];
 		this.gameState = GameState.WAITING_FOR_BET;
 	}
 	
@@ -45,7 +133,9 @@ public class BlackjackGame {
 	}
 	
 	private void executeCurrentState() {
-		switch (gameState) {
+		GameState phase = gameState;
+		long start = System.nanoTime();
+		switch (phase) {
 			case WAITING_FOR_BET -> handleBetting();
 			case DEALING_CARDS -> dealInitialCards();
 			case PLAYER_TURN -> handlePlayerTurn();
@@ -53,56 +143,197 @@ public class BlackjackGame {
 			case ROUND_OVER -> handleRoundOver();
 			default -> throw new IllegalStateException("Unknown game state: " + gameState);
 		}
+		metrics.recordPhase(phase, System.nanoTime() - start);
 	}
 	
 	private void handleBetting() {
-		display.showPlayerStatus(player);
+		if (roundListener != null) {
+			roundListener.roundStarting(roundId, shoe, seats.getFirst().player);
+		}
+		
+		seatsInRound.clear();
+		playersInRound.clear();
+		for (Seat seat : seats) {
+			if (!seat.left && takeBet(seat)) {
+				seatsInRound.add(seat);
+				playersInRound.add(seat.player);
+			}
+		}
 		
-		currentBet = player.getBetAmount();
-		if (currentBet == 0) {
+		if (seatsInRound.isEmpty()) {
 			gameState = GameState.GAME_OVER;
 			return;
 		}
-		
-		player.bet(currentBet);
 		gameState = engine.getNextState(gameState, false, false, false);
 	}
 	
+	/**
+	 * Asks until the bet can be taken, which only takes more than once if a shared bankroll was drawn on by another
+	 * table in the meantime. Betting nothing leaves the table.
+	 */
+	private boolean takeBet(Seat seat) {
+		TablePlayer player = seat.player;
+		while (true) {
+			display.showPlayerStatus(player);
+			seat.currentBet = player.getBetAmount();
+			if (seat.currentBet == 0) {
+				seat.left = true;
+				return false;
+			}
+			if (player.tryBet(seat.currentBet)) {
+				return true;
+			}
+			display.showMessage(seatPrefix(seat) + "You no longer have " + seat.currentBet + " chips to bet.");
+		}
+	}
+	
 	private void dealInitialCards() {
-		ensureDeckHasEnoughCards();
-		clearAllHands();
+		shuffleShoeIfNeeded();
+		startRound();
 		dealCardsToPlayers();
 		
-		display.showInitialDeal(player, dealer);
+		display.showInitialDeal(playersInRound, dealer);
+		for (Seat seat : seatsInRound) {
+			offerInsurance(seat);
+		}
 		
-		if (hasImmediateBlackjack()) {
+		if (engine.isBlackjack(dealer.getHand()) || !startSeat(0)) {
 			gameState = GameState.ROUND_OVER;
 		} else {
+			if (dealerAnalyzer != null) {
+				display.showDealerOutlook(dealerAnalyzer.analyze(shoe, dealer.getHand(), true));
+			}
 			gameState = engine.getNextState(gameState, false, false, false);
 		}
 	}
 	
+	/**
+	 * Moves the turn to the first seat from the given one that has something to play, seats dealt a natural are
+	 * already done. False once there are none left.
+	 */
+	private boolean startSeat(int from) {
+		for (activeSeat = from; activeSeat < seatsInRound.size(); activeSeat++) {
+			Seat seat = seatsInRound.get(activeSeat);
+			if (!engine.isBlackjack(seat.player.getHand())) {
+				if (seatsInRound.size() > 1) {
+					display.showMessage(seat.player.getName() + " to play.");
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	private void handlePlayerTurn() {
-		if (engine.isBust(player.getHand())) {
-			display.showBustMessage(player.getName());
-			gameState = engine.getNextState(gameState, false, true, false);
+		Seat seat = seatsInRound.get(activeSeat);
+		TablePlayer player = seat.player;
+		Hand hand = player.getHand(seat.activeHand);
+		boolean splitHand = player.getHandCount() > 1;
+		
+		// A hand that has just been split is down to one card
+		if (hand.getCardCount() == 1) {
+			dealCardTo(hand, handName(seat));
+			display.showPlayerHand(player, false);
+		}
+		
+		int bet = seat.handBets[seat.activeHand];
+		boolean affordable = player.canBet(bet);
+		// Split aces only get the one card, so all that's left is resplitting if they pair up again and the rules allow
+		if (seat.splitAces) {
+			if (affordable && engine.canSplit(hand, player.getHandCount())
+					&& player.wantsToResplitAces(hand, dealer.getVisibleValue())) {
+				split(seat, hand, bet);
+			} else {
+				finishHand(seat);
+			}
 			return;
 		}
 		
-		if (player.wantsToHit()) {
-			dealCardToPlayer(player);
-			display.showPlayerHand(player, false);
-		} else {
-			display.showStandMessage(player.getName());
+		if (engine.isBust(hand)) {
+			display.showBustMessage(handName(seat));
+			finishHand(seat);
+			return;
+		}
+		
+		Decision decision = player.chooseAction(hand, dealer.getVisibleValue(),
+				affordable && engine.canDouble(hand, splitHand),
+				affordable && engine.canSplit(hand, player.getHandCount()),
+				engine.canSurrender(hand, player.getHandCount()));
+		
+		switch (decision) {
+			case HIT -> {
+				dealCardTo(hand, handName(seat));
+				display.showPlayerHand(player, false);
+			}
+			case DOUBLE -> doubleDown(seat, hand, bet);
+			case SPLIT -> split(seat, hand, bet);
+			case SURRENDER -> {
+				seat.surrendered = true;
+				display.showMessage(player.getName() + " surrenders.");
+				finishHand(seat);
+			}
+			default -> {
+				display.showStandMessage(handName(seat));
+				finishHand(seat);
+			}
+		}
+	}
+	
+	private void doubleDown(Seat seat, Hand hand, int bet) {
+		if (!seat.player.tryBet(bet)) {
+			display.showMessage(seatPrefix(seat) + "You no longer have the chips to double down.");
+			return;
+		}
+		seat.handBets[seat.activeHand] = bet * 2;
+		display.showMessage(handName(seat) + " doubles down to " + seat.handBets[seat.activeHand] + " chips.");
+		dealCardTo(hand, handName(seat));
+		display.showPlayerHand(seat.player, false);
+		if (engine.isBust(hand)) {
+			display.showBustMessage(handName(seat));
+		}
+		finishHand(seat);
+	}
+	
+	private void split(Seat seat, Hand hand, int bet) {
+		TablePlayer player = seat.player;
+		if (!player.tryBet(bet)) {
+			display.showMessage(seatPrefix(seat) + "You no longer have the chips to split.");
+			return;
+		}
+		seat.splitAces = Card.rankOf(hand.getCardCode(0)) == Rank.ACE;
+		
+		int[] handBets = seat.handBets;
+		int activeHand = seat.activeHand;
+		System.arraycopy(handBets, activeHand + 1, handBets, activeHand + 2, player.getHandCount() - activeHand - 1);
+		handBets[activeHand + 1] = bet;
+		player.splitHand(activeHand);
+		
+		display.showMessage(player.getName() + " splits into " + player.getHandCount() + " hands.");
+	}
+	
+	/**
+	 * Moves on to the next split hand, then the next seat, and to the dealer once every seat has played.
+	 */
+	private void finishHand(Seat seat) {
+		seat.activeHand++;
+		int handCount = seat.player.getHandCount();
+		if (seat.activeHand < handCount) {
+			display.showMessage("Playing hand " + (seat.activeHand + 1) + " of " + handCount + ".");
+			return;
+		}
+		if (!startSeat(activeSeat + 1)) {
 			gameState = engine.getNextState(gameState, true, false, false);
 		}
 	}
 	
+	/**
+	 * The dealer plays once for the whole table, and only draws if some seat still has a hand it could beat.
+	 */
 	private void handleDealerTurn() {
 		display.showDealerTurn();
 		display.showDealerHand(dealer, false);
 		
-		if (engine.isBust(player.getHand())) {
+		if (!hasLiveHand()) {
 			gameState = engine.getNextState(gameState, false, false, true);
 			return;
 		}
@@ -111,42 +342,206 @@ public class BlackjackGame {
 		gameState = engine.getNextState(gameState, false, false, true);
 	}
 	
+	/**
+	 * Settles every seat in one pass against the one dealer hand.
+	 */
 	private void handleRoundOver() {
-		GameResult result = engine.determineResult(player.getHand(), dealer.getHand());
+		int seatCount = seatsInRound.size();
+		int totalDelta = 0;
 		
-		processGameResult(result);
-		display.showResults(player, dealer, result, currentBet);
+		for (int s = 0; s < seatCount; s++) {
+			Seat seat = seatsInRound.get(s);
+			TablePlayer player = seat.player;
+			int handCount = player.getHandCount();
+			GameResult[] results = seat.results;
+			int[] bets = seat.handBets;
+			int[] chipsDeltas = seat.chipsDeltas;
+			
+			for (int i = 0; i < handCount; i++) {
+				results[i] = seat.surrendered ? engine.surrenderResult()
+								 : engine.determineResult(player.getHand(i), dealer.getHand(), handCount > 1);
+				chipsDeltas[i] = engine.chipsDelta(results[i], bets[i]);
+				totalDelta += chipsDeltas[i];
+				
+				player.settleBet(bets[i], chipsDeltas[i]);
+				GameEventStream.global().publishRoundResult(results[i].winner(), results[i].payoutType(),
+						chipsDeltas[i]);
+				metrics.recordResult(results[i].winner());
+			}
+			recordHistory(player, results, bets, chipsDeltas);
+			roundResults[s] = results;
+			roundBets[s] = bets;
+			roundChipsDeltas[s] = chipsDeltas;
+		}
+		metrics.recordRound();
 		
-		gameState = player.wantsToPlayAgain() ? GameState.WAITING_FOR_BET : GameState.GAME_OVER;
+		roundId++;
+		if (seatCount == 1) {
+			announceRoundResult(totalDelta);
+		} else {
+			ui.waitForEnter("The round is over.");
+		}
+		display.showResults(playersInRound, dealer, roundResults, roundBets, roundChipsDeltas);
+		
+		for (Seat seat : seatsInRound) {
+			if (!seat.player.wantsToPlayAgain()) {
+				seat.left = true;
+			}
+		}
+		gameState = hasSeatedPlayer() ? GameState.WAITING_FOR_BET : GameState.GAME_OVER;
+	}
+	
+	/**
+	 * At a table with more than one seat, each seat is its own record under the same round id.
+	 */
+	private void recordHistory(TablePlayer player, GameResult[] results, int[] bets, int[] chipsDeltas) {
+		if (history == null) {
+			return;
+		}
+		try {
+			history.writeRound(roundId, player, dealer.getHand(), results, bets, chipsDeltas);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not record the hand history", e);
+		}
+	}
+	
+	/**
+	 * Records every settled round to the writer. The caller still owns it and closes it when the game is over.
+	 */
+	public void setHistory(@NonNull HandHistoryWriter history) {
+		this.history = history;
 	}
 	
-	private void ensureDeckHasEnoughCards() {
-		if (deck.getCards().size() < MINIMUM_DECK_SIZE) {
-			deck.ensureMinimumCards(MINIMUM_DECK_SIZE);
-			display.showMessage("New deck in use!");
+	/**
+	 * A recording checkpoints one player's chips, so a listener can only watch a single seat table.
+	 */
+	public void setRoundListener(@NonNull RoundListener roundListener) {
+		if (seats.size() > 1) {
+			throw new IllegalStateException("Round listeners only support a table with one seat");
 		}
+		this.roundListener = roundListener;
 	}
 	
-	private void clearAllHands() {
-		player.clearHand();
+	/**
+	 * Numbers the next round, for a game resuming partway through, like a replay starting from a checkpoint.
+	 */
+	public void setNextRound(long round) {
+		this.roundId = round;
+	}
+	
+	public long getNextRound() {
+		return roundId;
+	}
+	
+	private void shuffleShoeIfNeeded() {
+		if (shoe.shuffleIfNeeded()) {
+			display.showMessage("Shoe reshuffled!");
+		}
+	}
+	
+	private void startRound() {
 		dealer.clearHand();
+		for (Seat seat : seatsInRound) {
+			seat.player.clearHand();
+			seat.handBets[0] = seat.currentBet;
+			seat.activeHand = 0;
+			seat.surrendered = false;
+			seat.splitAces = false;
+		}
+	}
+	
+	/**
+	 * Insurance is half the bet and is settled straight away, since the dealer checks for blackjack before anyone
+	 * plays.
+	 */
+	private void offerInsurance(Seat seat) {
+		TablePlayer player = seat.player;
+		int insuranceBet = seat.currentBet / 2;
+		if (!engine.offersInsurance(dealer.getHand()) || !player.wantsInsurance(insuranceBet)) {
+			return;
+		}
+		
+		if (!player.tryBet(insuranceBet)) {
+			display.showMessage(seatPrefix(seat) + "You no longer have the chips for insurance.");
+			return;
+		}
+		int insuranceDelta = engine.insuranceDelta(insuranceBet, dealer.getHand());
+		player.settleBet(insuranceBet, insuranceDelta);
+		
+		if (insuranceDelta > 0) {
+			display.showMessage(seatPrefix(seat) + "Dealer has blackjack, insurance pays " + insuranceDelta + " chips.");
+		} else {
+			display.showMessage(seatPrefix(seat) + "Dealer doesn't have blackjack, insurance is lost.");
+		}
 	}
 	
+	/**
+	 * A hand the dealer's cards still matter to: not surrendered, not bust, and not a natural, which beats anything but
+	 * a dealer natural and that's already been checked for.
+	 */
+	private boolean hasLiveHand() {
+		for (Seat seat : seatsInRound) {
+			TablePlayer player = seat.player;
+			if (seat.surrendered || (engine.isBlackjack(player.getHand()) && player.getHandCount() == 1)) {
+				continue;
+			}
+			for (int i = 0; i < player.getHandCount(); i++) {
+				if (!engine.isBust(player.getHand(i))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Names the seat a message is for when there's more than one, the same way the results name them.
+	 */
+	private String seatPrefix(Seat seat) {
+		return seats.size() > 1 ? seat.player.getName() + ": " : "";
+	}
+	
+	private String handName(Seat seat) {
+		TablePlayer player = seat.player;
+		if (player.getHandCount() == 1) {
+			return player.getName();
+		}
+		return player.getName() + " (hand " + (seat.activeHand + 1) + ")";
+	}
+	
+	/**
+	 * One card to each seat in turn and then the dealer, twice round the table.
+	 */
 	private void dealCardsToPlayers() {
 		for (int i = 0; i < INITIAL_CARDS_COUNT; i++) {
-			player.addCard(dealCard());
+			for (Seat seat : seatsInRound) {
+				seat.player.addCard(dealCard());
+			}
 			dealer.addCard(dealCard());
 		}
 	}
 	
-	private boolean hasImmediateBlackjack() {
-		return engine.isBlackjack(player.getHand()) || engine.isBlackjack(dealer.getHand());
+	private boolean hasSeatedPlayer() {
+		for (Seat seat : seats) {
+			if (!seat.left) {
+				return true;
+			}
+		}
+		return false;
 	}
 	
-	private void dealCardToPlayer(@NonNull HumanPlayer player) {
+	private static List<TablePlayer> players(List<Seat> seats) {
+		List<TablePlayer> players = new ArrayList<>(seats.size());
+		for (Seat seat : seats) {
+			players.add(seat.player);
+		}
+		return players;
+	}
+	
+	private void dealCardTo(Hand hand, String handName) {
 		Card newCard = dealCard();
-		player.addCard(newCard);
-		display.showCardDealt(player.getName(), newCard.toString());
+		hand.addCard(newCard);
+		display.showCardDealt(handName, newCard.toString());
 	}
 	
 	private void playDealerHand() {
@@ -167,45 +562,186 @@ public class BlackjackGame {
 		}
 	}
 	
-	private void processGameResult(@NonNull GameResult result) {
-		switch (result.winner()) {
-			case PLAYER -> {
-				player.winChips(currentBet, result.payoutType());
-				ui.waitForEnter("Congratulations! You won this round.");
+	private void announceRoundResult(int totalDelta) {
+		if (totalDelta > 0) {
+			ui.waitForEnter("Congratulations! You won this round.");
+		} else if (totalDelta == 0) {
+			ui.waitForEnter("It's a tie! Your bet has been returned.");
+		} else {
+			ui.waitForEnter("Dealer wins this round. Better luck next time!");
+		}
+	}
+	
+	private Card dealCard() {
+		return shoe.dealCard();
+	}
+	
+	private void endGame() {
+		metrics.close();
+		display.showGameOver(players(seats));
+		ui.close();
+	}
+	
+	/**
+	 * Starts from the standard rules and applies --h17, --6to5, --surrender and --decks=N.
+	 */
+	static RuleSet rulesFromFlags(@NonNull List<String> flags) {
+		RuleSet rules = RuleSet.standard()
+								.withDealerHitsSoft17(flags.contains(H17_FLAG))
+								.withLateSurrender(flags.contains(SURRENDER_FLAG));
+		if (flags.contains(SIX_TO_FIVE_FLAG)) {
+			rules = rules.withBlackjackPayout(BlackjackPayout.SIX_TO_FIVE);
+		}
+		for (String flag : flags) {
+			if (flag.startsWith(DECKS_FLAG)) {
+				rules = rules.withDeckCount(Integer.parseInt(flag.substring(DECKS_FLAG.length())));
 			}
-			case TIE -> {
-				player.winChips(currentBet, result.payoutType());
-				ui.waitForEnter("It's a tie! Your bet has been returned.");
+		}
+		return rules;
+	}
+	
+	/**
+	 * --bankroll keeps chips between games in the default directory, --bankroll=DIR picks the directory.
+	 */
+	static Optional<Path> bankrollDirectory(@NonNull List<String> flags) {
+		for (String flag : flags) {
+			if (flag.equals(BANKROLL_FLAG)) {
+				return Optional.of(BankrollStore.DEFAULT_DIRECTORY);
 			}
-			case DEALER -> {
-				ui.waitForEnter("Dealer wins this round. Better luck next time!");
+			if (flag.startsWith(BANKROLL_FLAG + "=")) {
+				return Optional.of(Path.of(flag.substring(BANKROLL_FLAG.length() + 1)));
 			}
 		}
+		return Optional.empty();
 	}
 	
-	private Card dealCard() {
-		if (deck.getCards().isEmpty()) {
-			throw new IllegalStateException("Deck is empty! Cannot deal more cards.");
+	/**
+	 * The file named by a flag like --history=FILE (append every round to a hand history) or --record=FILE (record
+	 * the table for TableReplayer).
+	 */
+	static Optional<Path> fileFlag(@NonNull List<String> flags, @NonNull String prefix) {
+		for (String flag : flags) {
+			if (flag.startsWith(prefix)) {
+				return Optional.of(Path.of(flag.substring(prefix.length())));
+			}
 		}
-		return deck.dealCard();
+		return Optional.empty();
 	}
 	
-	private void endGame() {
-		display.showGameOver(player);
-		ui.close();
+	/**
+	 * --seats=N seats N players at the table, one by default. Checked here, before anyone is asked their name.
+	 */
+	static int seatCount(@NonNull List<String> flags) {
+		for (String flag : flags) {
+			if (flag.startsWith(SEATS_FLAG)) {
+				int seats = Integer.parseInt(flag.substring(SEATS_FLAG.length()));
+				if (seats < 1 || seats > MAX_SEATS) {
+					throw new IllegalArgumentException("A table seats between 1 and " + MAX_SEATS + " players");
+				}
+				return seats;
+			}
+		}
+		return 1;
 	}
 	
-	public static void main(String[] args) {
-		ConsoleUi ui = new ConsoleUi();
-		GameEngine engine = new GameEngine();
-		DealerNpc dealer = new DealerNpc();
-		
-		String playerName = ui.getPlayerName();
-		HumanPlayer player = new HumanPlayer(playerName, STARTING_CHIPS, ui);
+	/**
+	 * --metrics serves metrics on the default Prometheus port (and over JMX), --metrics=PORT picks the port.
+	 */
+	static Optional<Integer> metricsPort(@NonNull List<String> flags) {
+		for (String flag : flags) {
+			if (flag.equals(METRICS_FLAG)) {
+				return Optional.of(PrometheusEndpoint.DEFAULT_PORT);
+			}
+			if (flag.startsWith(METRICS_FLAG + "=")) {
+				return Optional.of(Integer.parseInt(flag.substring(METRICS_FLAG.length() + 1)));
+			}
+		}
+		return Optional.empty();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		List<String> flags = Arrays.asList(args);
+		int seatCount = seatCount(flags);
+		Optional<Path> recordingFile = fileFlag(flags, RECORD_FLAG);
+		if (recordingFile.isPresent() && seatCount > 1) {
+			throw new IllegalArgumentException("Only a table with one seat can be recorded");
+		}
 		
-		ui.getDisplay().showWelcome(playerName);
+		GameEventStream.global().attach(new LoggingEventSink());
+		ConsoleUi ui = new ConsoleUi(System.in, System.out, flags.contains(ANSI_FLAG));
+		GameEngine engine = new GameEngine(rulesFromFlags(flags));
+		DealerNpc dealer = new DealerNpc();
+		Optional<Path> bankrollDirectory = bankrollDirectory(flags);
+		Optional<Integer> metricsPort = metricsPort(flags);
+		if (metricsPort.isPresent()) {
+			MetricsRegistry.global().registerMBean();
+		}
+		Optional<Path> historyFile = fileFlag(flags, HISTORY_FLAG);
+		// Each of these is closed even if closing another one throws, the bankroll last
+		try (BankrollStore bankroll = bankrollDirectory.isPresent() ? new BankrollStore(bankrollDirectory.get()) : null;
+				PrometheusEndpoint metrics = metricsPort.isPresent()
+						? new PrometheusEndpoint(MetricsRegistry.global(), metricsPort.get()) : null;
+				HandHistoryWriter history = historyFile.isPresent() ? new HandHistoryWriter(historyFile.get()) : null) {
+			List<String> playerNames = new ArrayList<>(seatCount);
+			for (int seat = 1; seat <= seatCount; seat++) {
+				if (seatCount > 1) {
+					ui.displayMessage("Seat " + seat + ":");
+				}
+				playerNames.add(ui.getPlayerName());
+			}
+			Shoe shoe = new Shoe(engine.getRules().deckCount(), PENETRATION, new SeekableShuffleSource());
+			try (TableRecorder recorder = recordingFile.isPresent()
+					? new TableRecorder(recordingFile.get(), playerNames.getFirst(), engine.getRules(), shoe) : null) {
+				PlayerChannel channel = recorder != null ? recorder.record(ui) : ui;
+				List<HumanPlayer> players = new ArrayList<>(seatCount);
+				for (String playerName : playerNames) {
+					int chips = bankroll != null ? bankroll.openAccount(playerName, STARTING_CHIPS) : STARTING_CHIPS;
+					HumanPlayer player = new HumanPlayer(playerName, chips, channel);
+					if (bankroll != null) {
+						player.setLedger(bankroll);
+					}
+					players.add(player);
+				}
+				
+				ui.getDisplay().showWelcome(String.join(", ", playerNames));
+				
+				ui.displayMessage("Table rules: " + engine.getRules());
+				BlackjackGame game = new BlackjackGame(players, dealer, channel, engine, true, shoe);
+				if (history != null) {
+					game.setHistory(history);
+					game.setNextRound(history.getNextRoundId());
+				}
+				if (recorder != null) {
+					game.setRoundListener(recorder);
+				}
+				game.playGame();
+			}
+		} finally {
+			GameEventStream.global().detach();
+		}
+	}
+	
+	/**
+	 * A player's place at the table and their part of the round being played.
+	 */
+	private static final class Seat {
+		private final TablePlayer player;
+		// One bet per player hand, a split hand gets its own copy of the original bet and a double doubles just that
+		// one. The results and chips deltas line up with them once the round is settled.
+		private final int[] handBets;
+		private final GameResult[] results;
+		private final int[] chipsDeltas;
+		private int currentBet;
+		private int activeHand;
+		private boolean surrendered;
+		private boolean splitAces;
+		private boolean left;
 		
-		BlackjackGame game = new BlackjackGame(player, dealer, ui, engine);
-		game.playGame();
+		private Seat(TablePlayer player, int maxSplitHands) {
+			this.player = player;
+			this.handBets = new int[maxSplitHands];
+			this.results = new GameResult[maxSplitHands];
+			this.chipsDeltas = new int[maxSplitHands];
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package game;
+
+import lombok.Getter;
+
+/**
+ * What a natural pays, as a fraction of the bet. Fractions of a chip are rounded down.
+ */
+@Getter
+public enum BlackjackPayout {
+	THREE_TO_TWO(3, 2),
+	SIX_TO_FIVE(6, 5);
+	
+	private final int numerator;
+	private final int denominator;
+	
+	BlackjackPayout(int numerator, int denominator) {
+		this.numerator = numerator;
+		this.denominator = denominator;
+	}
+	
+	@Override
+	public String toString() {
+		return numerator + ":" + denominator;
+	}
+}
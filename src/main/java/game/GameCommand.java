@@ -0,0 +1,22 @@
+package game;
+
+/**
+ * Input for a ReactiveBlackjackGame. A bet of 0 leaves the table, the same as entering 0 at the console.
+ */
+public sealed interface GameCommand {
+	Hit HIT = new Hit();
+	Stand STAND = new Stand();
+	Continue CONTINUE = new Continue();
+	
+	record Bet(int amount) implements GameCommand {
+	}
+	
+	record Hit() implements GameCommand {
+	}
+	
+	record Stand() implements GameCommand {
+	}
+	
+	record Continue() implements GameCommand {
+	}
+}
@@ -1,10 +1,66 @@
 package game;
 
+import lombok.Getter;
 import lombok.NonNull;
+import models.Card;
 import models.Hand;
+import models.HandState;
 import models.Player;
+import models.Rank;
 
+/**
+ * Rule checks and settlement for one RuleSet. The rules are turned into plain fields up front, so every check is a
+ * field read and a comparison rather than a walk through the RuleSet.
+ */
 public class GameEngine {
+	private static final int BLACKJACK_VALUE = 21;
+	private static final int DEALER_STAND_VALUE = 17;
+	private static final int INSURANCE_PAYOUT = 2;
+	// Ranks a natural above any other 21 and a bust below everything, so one comparison settles a hand
+	private static final int NATURAL_SCORE = BLACKJACK_VALUE + 1;
+	private static final int PLAYER_BUST_SCORE = -1;
+	private static final int DEALER_BUST_SCORE = 0;
+	private static final byte PLAYER = (byte) Winner.PLAYER.ordinal();
+	private static final byte DEALER = (byte) Winner.DEALER.ordinal();
+	private static final byte TIE = (byte) Winner.TIE.ordinal();
+	private static final byte STANDARD_PAYOUT = (byte) Player.PayoutType.STANDARD.ordinal();
+	private static final byte BLACKJACK_PAYOUT = (byte) Player.PayoutType.BLACKJACK.ordinal();
+	private static final byte TIE_PAYOUT = (byte) Player.PayoutType.TIE.ordinal();
+	private static final byte SURRENDER_PAYOUT = (byte) Player.PayoutType.SURRENDER.ordinal();
+	// Results are immutable, so every settlement hands out one of these rather than allocating
+	private static final GameResult PLAYER_WINS = new GameResult(Winner.PLAYER, Player.PayoutType.STANDARD);
+	private static final GameResult PLAYER_BLACKJACK = new GameResult(Winner.PLAYER, Player.PayoutType.BLACKJACK);
+	private static final GameResult DEALER_WINS = new GameResult(Winner.DEALER, Player.PayoutType.STANDARD);
+	private static final GameResult PUSH = new GameResult(Winner.TIE, Player.PayoutType.TIE);
+	private static final GameResult SURRENDERED = new GameResult(Winner.DEALER, Player.PayoutType.SURRENDER);
+	
+	@Getter
+	private final RuleSet rules;
+	// Under H17 a soft 17 still draws, so soft hands stand one higher than hard ones
+	private final int softStandValue;
+	private final int blackjackNumerator;
+	private final int blackjackDenominator;
+	private final boolean doubleAfterSplit;
+	private final int maxSplitHands;
+	private final boolean resplitAces;
+	private final boolean lateSurrender;
+	private final boolean insurance;
+	
+	public GameEngine() {
+		this(RuleSet.standard());
+	}
+	
+	public GameEngine(@NonNull RuleSet rules) {
+		this.rules = rules;
+		this.softStandValue = rules.dealerHitsSoft17() ? DEALER_STAND_VALUE + 1 : DEALER_STAND_VALUE;
+		this.blackjackNumerator = rules.blackjackPayout().getNumerator();
+		this.blackjackDenominator = rules.blackjackPayout().getDenominator();
+		this.doubleAfterSplit = rules.doubleAfterSplit();
+		this.maxSplitHands = rules.maxSplitHands();
+		this.resplitAces = rules.resplitAces();
+		this.lateSurrender = rules.lateSurrender();
+		this.insurance = rules.insurance();
+	}
 	
 	public boolean isBlackjack(@NonNull Hand hand) {
 		return hand.isBlackjack();
@@ -15,21 +71,27 @@ public class GameEngine {
 	}
 	
 	public GameResult determineResult(@NonNull Hand playerHand, @NonNull Hand dealerHand) {
+		return determineResult(playerHand, dealerHand, false);
+	}
+	
+	/**
+	 * Two cards to 21 on a hand that came from a split is just 21, not a natural, so it pays even money and loses to a
+	 * dealer blackjack.
+	 */
+	public GameResult determineResult(@NonNull Hand playerHand, @NonNull Hand dealerHand, boolean splitHand) {
 		if (isBust(playerHand)) {
-			return new GameResult(Winner.DEALER, Player.PayoutType.STANDARD);
+			return DEALER_WINS;
 		}
 		
+		boolean playerBlackjack = !splitHand && isBlackjack(playerHand);
 		if (isBust(dealerHand)) {
-			Player.PayoutType payoutType = isBlackjack(playerHand) ?
-												   Player.PayoutType.BLACKJACK : Player.PayoutType.STANDARD;
-			return new GameResult(Winner.PLAYER, payoutType);
+			return playerBlackjack ? PLAYER_BLACKJACK : PLAYER_WINS;
 		}
 		
-		return determineNonBustResult(playerHand, dealerHand);
+		return determineNonBustResult(playerHand, dealerHand, playerBlackjack);
 	}
 	
-	private GameResult determineNonBustResult(Hand playerHand, Hand dealerHand) {
-		boolean playerBlackjack = isBlackjack(playerHand);
+	private GameResult determineNonBustResult(Hand playerHand, Hand dealerHand, boolean playerBlackjack) {
 		boolean dealerBlackjack = isBlackjack(dealerHand);
 		
 		// Both have blackjack - tie
@@ -39,12 +101,12 @@ public class GameEngine {
 		
 		// Only player has blackjack - player wins with blackjack payout
 		if (playerBlackjack) {
-			return new GameResult(Winner.PLAYER, Player.PayoutType.BLACKJACK);
+			return PLAYER_BLACKJACK;
 		}
 		
 		// Only dealer has blackjack - dealer wins
 		if (dealerBlackjack) {
-			return new GameResult(Winner.DEALER, Player.PayoutType.STANDARD);
+			return DEALER_WINS;
 		}
 		
 		// No blackjacks - compare hand values
@@ -56,16 +118,112 @@ public class GameEngine {
 		int dealerValue = dealerHand.getHandValue();
 		
 		if (playerValue > dealerValue) {
-			return new GameResult(Winner.PLAYER, Player.PayoutType.STANDARD);
+			return PLAYER_WINS;
 		} else if (dealerValue > playerValue) {
-			return new GameResult(Winner.DEALER, Player.PayoutType.STANDARD);
+			return DEALER_WINS;
 		} else {
 			return createTieResult();
 		}
 	}
 	
 	private GameResult createTieResult() {
-		return new GameResult(Winner.TIE, Player.PayoutType.TIE);
+		return PUSH;
+	}
+	
+	public GameResult surrenderResult() {
+		return SURRENDERED;
+	}
+	
+	/**
+	 * Net chips the player makes on a settled bet, negative for a loss. A surrender gives back half the bet, rounded
+	 * down like the blackjack payout.
+	 */
+	public int chipsDelta(@NonNull GameResult result, int bet) {
+		return switch (result.winner()) {
+			case PLAYER -> result.payoutType() == Player.PayoutType.BLACKJACK ? blackjackPayout(bet) : bet;
+			case TIE -> 0;
+			case DEALER -> result.payoutType() == Player.PayoutType.SURRENDER ? bet / 2 - bet : -bet;
+		};
+	}
+	
+	public int blackjackPayout(int bet) {
+		return (bet * blackjackNumerator) / blackjackDenominator;
+	}
+	
+	public boolean canDouble(@NonNull Hand hand, boolean splitHand) {
+		return hand.getCardCount() == 2 && (doubleAfterSplit || !splitHand);
+	}
+	
+	/**
+	 * Any pair of the same rank can be split while the player is under the split limit. Once aces have been split they
+	 * can only be split again if the rules allow resplitting aces.
+	 */
+	public boolean canSplit(@NonNull Hand hand, int handCount) {
+		if (hand.getCardCount() != 2 || handCount >= maxSplitHands) {
+			return false;
+		}
+		Rank rank = Card.rankOf(hand.getCardCode(0));
+		return rank == Card.rankOf(hand.getCardCode(1)) && (rank != Rank.ACE || handCount == 1 || resplitAces);
+	}
+	
+	public boolean canSurrender(@NonNull Hand hand, int handCount) {
+		return lateSurrender && handCount == 1 && hand.getCardCount() == 2;
+	}
+	
+	public boolean offersInsurance(@NonNull Hand dealerHand) {
+		return insurance && dealerHand.getCardCount() > 0 && Card.rankOf(dealerHand.getCardCode(0)) == Rank.ACE;
+	}
+	
+	/**
+	 * Insurance pays 2:1 if the dealer has blackjack and is lost otherwise.
+	 */
+	public int insuranceDelta(int insuranceBet, @NonNull Hand dealerHand) {
+		return isBlackjack(dealerHand) ? insuranceBet * INSURANCE_PAYOUT : -insuranceBet;
+	}
+	
+	/**
+	 * Settles every hand in the batch the same way as determineResult (or surrenderResult for a surrendered hand) and
+	 * chipsDelta, writing the winner, payout type and net chips for the player into the batch's output arrays. Each hand
+	 * is turned into a score (a natural above 21, a player bust below a dealer bust) so the whole outcome comes from one
+	 * comparison and the loop body has no data dependent branches, which leaves it in a shape the JIT can unroll and
+	 * vectorize.
+	 */
+	public void settleBatch(@NonNull RoundBatch batch) {
+		int[] playerTotals = batch.getPlayerTotals();
+		int[] playerCardCounts = batch.getPlayerCardCounts();
+		int[] dealerTotals = batch.getDealerTotals();
+		int[] dealerCardCounts = batch.getDealerCardCounts();
+		int[] bets = batch.getBets();
+		byte[] splitHands = batch.getSplitHands();
+		byte[] surrenders = batch.getSurrenders();
+		byte[] winners = batch.getWinners();
+		byte[] payoutTypes = batch.getPayoutTypes();
+		int[] chipsDeltas = batch.getChipsDeltas();
+		
+		for (int i = 0; i < batch.getSize(); i++) {
+			int playerTotal = playerTotals[i];
+			int dealerTotal = dealerTotals[i];
+			// Two cards to 21 after a split is only 21
+			boolean playerNatural = playerCardCounts[i] == 2 && playerTotal == BLACKJACK_VALUE && splitHands[i] == 0;
+			boolean dealerNatural = dealerCardCounts[i] == 2 && dealerTotal == BLACKJACK_VALUE;
+			
+			int playerScore = playerTotal > BLACKJACK_VALUE ? PLAYER_BUST_SCORE
+									  : playerNatural ? NATURAL_SCORE : playerTotal;
+			int dealerScore = dealerTotal > BLACKJACK_VALUE ? DEALER_BUST_SCORE
+									  : dealerNatural ? NATURAL_SCORE : dealerTotal;
+			
+			int bet = bets[i];
+			int winPayout = playerNatural ? (bet * blackjackNumerator) / blackjackDenominator : bet;
+			boolean surrendered = surrenders[i] != 0;
+			boolean playerWins = !surrendered && playerScore > dealerScore;
+			boolean dealerWins = surrendered || playerScore < dealerScore;
+			
+			winners[i] = playerWins ? PLAYER : dealerWins ? DEALER : TIE;
+			payoutTypes[i] = surrendered ? SURRENDER_PAYOUT
+									 : playerWins ? (playerNatural ? BLACKJACK_PAYOUT : STANDARD_PAYOUT)
+									 : dealerWins ? STANDARD_PAYOUT : TIE_PAYOUT;
+			chipsDeltas[i] = playerWins ? winPayout : surrendered ? bet / 2 - bet : dealerWins ? -bet : 0;
+		}
 	}
 	
 	public GameState getNextState(@NonNull GameState currentState,
@@ -91,6 +249,11 @@ public class GameEngine {
 	}
 	
 	public boolean shouldDealerHit(@NonNull Hand dealerHand) {
-		return dealerHand.getHandValue() < 17;
+		return shouldDealerHit(dealerHand.getState());
+	}
+	
+	public boolean shouldDealerHit(int dealerHandState) {
+		int standValue = HandState.isSoft(dealerHandState) ? softStandValue : DEALER_STAND_VALUE;
+		return HandState.value(dealerHandState) < standValue;
 	}
 }
\ No newline at end of file
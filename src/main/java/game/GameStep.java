@@ -0,0 +1,9 @@
+package game;
+
+import java.util.List;
+
+/**
+ * The state a ReactiveBlackjackGame is waiting in after a command, plus the events the command produced.
+ */
+public record GameStep(GameState state, List<TableEvent> events) {
+}
@@ -0,0 +1,184 @@
+package game;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Card;
+import models.Player;
+import models.Shoe;
+import players.DealerNpc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A BlackjackGame that never blocks. Instead of asking the player for input it waits in a state until a command
+ * arrives, runs every state that needs no input (dealing, the dealer's turn, settlement) straight away, and hands back
+ * the state it is now waiting in along with the events that happened on the way. Between commands a table is just
+ * this object, so one thread can look after thousands of idle tables and pick each one up when its player acts.
+ * <p>
+ * Transitions come from GameEngine.getNextState and cards from a shoe of the rules' deck count, as they do in
+ * BlackjackGame, so the two play the same game. A game isn't thread safe, commands for one table have to be handled
+ * one at a time.
+ */
+public class ReactiveBlackjackGame {
+	private static final int INITIAL_CARDS_COUNT = 2;
+	
+	private final Shoe shoe;
+	@Getter
+	private final Player player;
+	@Getter
+	private final DealerNpc dealer;
+	private final GameEngine engine;
+	
+	@Getter
+	private GameState state = GameState.WAITING_FOR_BET;
+	@Getter
+	private int currentBet;
+	
+	public ReactiveBlackjackGame(@NonNull Player player, @NonNull DealerNpc dealer, @NonNull GameEngine engine) {
+		this(player, dealer, engine, new Shoe(engine.getRules().deckCount(), BlackjackGame.PENETRATION));
+	}
+	
+	public ReactiveBlackjackGame(@NonNull Player player, @NonNull DealerNpc dealer, @NonNull GameEngine engine,
+									@NonNull Shoe shoe) {
+		if (shoe.getDeckCount() != engine.getRules().deckCount()) {
+			throw new IllegalArgumentException("The shoe doesn't hold the " + engine.getRules().deckCount()
+					+ " decks the rules call for");
+		}
+		this.shoe = shoe;
+		this.player = player;
+		this.dealer = dealer;
+		this.engine = engine;
+	}
+	
+	public GameStep handle(@NonNull GameCommand command) {
+		List<TableEvent> events = new ArrayList<>();
+		
+		switch (state) {
+			case WAITING_FOR_BET -> handleBet(command, events);
+			case PLAYER_TURN -> handlePlayerTurn(command, events);
+			case ROUND_OVER -> handleRoundOver(command, events);
+			default -> events.add(new TableEvent.CommandRejected(command, "The game is over"));
+		}
+		
+		return new GameStep(state, events);
+	}
+	
+	private void handleBet(GameCommand command, List<TableEvent> events) {
+		if (!(command instanceof GameCommand.Bet(int amount))) {
+			events.add(new TableEvent.CommandRejected(command, "Waiting for a bet"));
+			return;
+		}
+		
+		if (amount == 0) {
+			endGame(events);
+			return;
+		}
+		if (amount < 0 || !player.tryBet(amount)) {
+			events.add(new TableEvent.CommandRejected(command, "Bet must be between 1 and " + player.getChipsAmount()));
+			return;
+		}
+		
+		currentBet = amount;
+		events.add(new TableEvent.BetPlaced(amount, player.getChipsAmount()));
+		
+		state = engine.getNextState(state, false, false, false);
+		dealInitialCards(events);
+	}
+	
+	private void dealInitialCards(List<TableEvent> events) {
+		if (shoe.shuffleIfNeeded()) {
+			events.add(new TableEvent.Reshuffled());
+		}
+		
+		player.clearHand();
+		dealer.clearHand();
+		for (int i = 0; i < INITIAL_CARDS_COUNT; i++) {
+			dealTo(player, TableEvent.Seat.PLAYER, events);
+			
+			Card dealerCard = shoe.dealCard();
+			dealer.addCard(dealerCard);
+			events.add(i == 0 ? new TableEvent.CardDealt(TableEvent.Seat.DEALER, dealerCard)
+							  : new TableEvent.HoleCardDealt());
+		}
+		
+		if (engine.isBlackjack(player.getHand()) || engine.isBlackjack(dealer.getHand())) {
+			events.add(new TableEvent.HoleCardRevealed(dealer.getHand().getCard(1)));
+			state = GameState.ROUND_OVER;
+			settleRound(events);
+		} else {
+			state = engine.getNextState(state, false, false, false);
+		}
+	}
+	
+	private void handlePlayerTurn(GameCommand command, List<TableEvent> events) {
+		switch (command) {
+			case GameCommand.Hit hit -> {
+				dealTo(player, TableEvent.Seat.PLAYER, events);
+				if (engine.isBust(player.getHand())) {
+					events.add(new TableEvent.Busted(TableEvent.Seat.PLAYER));
+					state = engine.getNextState(state, false, true, false);
+					playDealerTurn(events);
+				}
+			}
+			case GameCommand.Stand stand -> {
+				events.add(new TableEvent.Stood(TableEvent.Seat.PLAYER, player.getHand().getHandValue()));
+				state = engine.getNextState(state, true, false, false);
+				playDealerTurn(events);
+			}
+			default -> events.add(new TableEvent.CommandRejected(command, "Waiting for hit or stand"));
+		}
+	}
+	
+	private void playDealerTurn(List<TableEvent> events) {
+		events.add(new TableEvent.HoleCardRevealed(dealer.getHand().getCard(1)));
+		
+		if (!engine.isBust(player.getHand())) {
+			while (engine.shouldDealerHit(dealer.getHand())) {
+				dealTo(dealer, TableEvent.Seat.DEALER, events);
+			}
+			
+			if (engine.isBust(dealer.getHand())) {
+				events.add(new TableEvent.Busted(TableEvent.Seat.DEALER));
+			} else {
+				events.add(new TableEvent.Stood(TableEvent.Seat.DEALER, dealer.getHand().getHandValue()));
+			}
+		}
+		
+		state = engine.getNextState(state, false, false, true);
+		settleRound(events);
+	}
+	
+	private void settleRound(List<TableEvent> events) {
+		GameResult result = engine.determineResult(player.getHand(), dealer.getHand());
+		
+		int chipsDelta = engine.chipsDelta(result, currentBet);
+		player.settleBet(currentBet, chipsDelta);
+		
+		events.add(new TableEvent.RoundSettled(result, chipsDelta, player.getChipsAmount()));
+	}
+	
+	private void handleRoundOver(GameCommand command, List<TableEvent> events) {
+		if (!(command instanceof GameCommand.Continue)) {
+			events.add(new TableEvent.CommandRejected(command, "Round is over, continue to play the next one"));
+			return;
+		}
+		
+		if (player.getChipsAmount() == 0) {
+			endGame(events);
+		} else {
+			state = engine.getNextState(state, false, false, false);
+		}
+	}
+	
+	private void endGame(List<TableEvent> events) {
+		state = GameState.GAME_OVER;
+		events.add(new TableEvent.GameOver(player.getChipsAmount()));
+	}
+	
+	private void dealTo(Player seat, TableEvent.Seat position, List<TableEvent> events) {
+		Card card = shoe.dealCard();
+		seat.addCard(card);
+		events.add(new TableEvent.CardDealt(position, card));
+	}
+}
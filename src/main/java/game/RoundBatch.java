@@ -0,0 +1,69 @@
+package game;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Hand;
+
+/**
+ * Column arrays for settling many hands in one call to GameEngine.settleBatch. Each index is one player hand against
+ * its dealer hand, the inputs are filled in with set (or written straight into the arrays) and settleBatch fills the
+ * outputs. A batch is meant to be reused, nothing is allocated per hand. Winners and payout types are stored as their
+ * enum ordinals, the split and surrender flags as 0 or 1.
+ */
+@Getter
+public class RoundBatch {
+	private final int capacity;
+	private final int[] playerTotals;
+	private final int[] playerCardCounts;
+	private final int[] dealerTotals;
+	private final int[] dealerCardCounts;
+	private final int[] bets;
+	private final byte[] splitHands;
+	private final byte[] surrenders;
+	
+	private final byte[] winners;
+	private final byte[] payoutTypes;
+	private final int[] chipsDeltas;
+	
+	private int size;
+	
+	public RoundBatch(int capacity) {
+		this.capacity = capacity;
+		this.playerTotals = new int[capacity];
+		this.playerCardCounts = new int[capacity];
+		this.dealerTotals = new int[capacity];
+		this.dealerCardCounts = new int[capacity];
+		this.bets = new int[capacity];
+		this.splitHands = new byte[capacity];
+		this.surrenders = new byte[capacity];
+		this.winners = new byte[capacity];
+		this.payoutTypes = new byte[capacity];
+		this.chipsDeltas = new int[capacity];
+	}
+	
+	public void set(int index, @NonNull Hand playerHand, @NonNull Hand dealerHand, int bet) {
+		set(index, playerHand, dealerHand, bet, false, false);
+	}
+	
+	public void set(int index, @NonNull Hand playerHand, @NonNull Hand dealerHand, int bet, boolean splitHand,
+					boolean surrendered) {
+		playerTotals[index] = playerHand.getHandValue();
+		playerCardCounts[index] = playerHand.getCardCount();
+		dealerTotals[index] = dealerHand.getHandValue();
+		dealerCardCounts[index] = dealerHand.getCardCount();
+		bets[index] = bet;
+		splitHands[index] = (byte) (splitHand ? 1 : 0);
+		surrenders[index] = (byte) (surrendered ? 1 : 0);
+	}
+	
+	public void setSize(int size) {
+		if (size < 0 || size > capacity) {
+			throw new IllegalArgumentException("Batch size must be between 0 and " + capacity);
+		}
+		this.size = size;
+	}
+	
+	public Winner getWinner(int index) {
+		return Winner.values()[winners[index]];
+	}
+}
@@ -0,0 +1,13 @@
+package game;
+
+import models.Player;
+import models.Shoe;
+
+/**
+ * Told by BlackjackGame at the start of every round, before the bets are taken. A table recorder uses it to write
+ * checkpoints, and a replay uses it to check itself against them. Only tables with one seat take a listener.
+ */
+public interface RoundListener {
+	
+	void roundStarting(long round, Shoe shoe, Player player);
+}
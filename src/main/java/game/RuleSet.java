@@ -0,0 +1,109 @@
+package game;
+
+import lombok.NonNull;
+import models.Shoe;
+
+/**
+ * The table rules a GameEngine plays by. It's immutable, so change one rule with the matching with method, e.g.
+ * RuleSet.standard().withDealerHitsSoft17(true).withBlackjackPayout(BlackjackPayout.SIX_TO_FIVE).
+ *
+ * @param deckCount        decks in the shoe, 1 to 8
+ * @param dealerHitsSoft17 H17 when true, S17 when false
+ * @param doubleAfterSplit whether a hand that came from a split can be doubled
+ * @param maxSplitHands    how many hands a player can split up to, 1 turns splitting off
+ * @param resplitAces      whether a split ace that pairs up again can be split again
+ * @param lateSurrender    whether the first two cards can be given up for half the bet once the dealer has checked
+ *                         for blackjack
+ * @param insurance        whether insurance is offered against a dealer ace
+ * @param blackjackPayout  what a natural pays
+ */
+public record RuleSet(int deckCount,
+						boolean dealerHitsSoft17,
+						boolean doubleAfterSplit,
+						int maxSplitHands,
+						boolean resplitAces,
+						boolean lateSurrender,
+						boolean insurance,
+						@NonNull BlackjackPayout blackjackPayout) {
+	public RuleSet {
+		if (deckCount < Shoe.MIN_DECKS || deckCount > Shoe.MAX_DECKS) {
+			throw new IllegalArgumentException("Deck count must be between " + Shoe.MIN_DECKS + " and "
+					+ Shoe.MAX_DECKS);
+		}
+		if (maxSplitHands < 1) {
+			throw new IllegalArgumentException("Max split hands must be at least 1");
+		}
+	}
+	
+	/**
+	 * Six decks, dealer stands on soft 17, double after split, split to 4 hands, no resplitting aces, no surrender,
+	 * insurance offered and blackjack pays 3:2.
+	 */
+	public static RuleSet standard() {
+		return new RuleSet(6, false, true, 4, false, false, true, BlackjackPayout.THREE_TO_TWO);
+	}
+	
+	public RuleSet withDeckCount(int deckCount) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withDealerHitsSoft17(boolean dealerHitsSoft17) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withDoubleAfterSplit(boolean doubleAfterSplit) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withMaxSplitHands(int maxSplitHands) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withResplitAces(boolean resplitAces) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withLateSurrender(boolean lateSurrender) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withInsurance(boolean insurance) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	public RuleSet withBlackjackPayout(@NonNull BlackjackPayout blackjackPayout) {
+		return new RuleSet(deckCount, dealerHitsSoft17, doubleAfterSplit, maxSplitHands, resplitAces, lateSurrender,
+				insurance, blackjackPayout);
+	}
+	
+	/**
+	 * Short form for logs and the console, e.g. "6D S17 DAS SPL4 3:2".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		text.append(deckCount).append('D');
+		text.append(dealerHitsSoft17 ? " H17" : " S17");
+		if (doubleAfterSplit) {
+			text.append(" DAS");
+		}
+		text.append(" SPL").append(maxSplitHands);
+		if (resplitAces) {
+			text.append(" RSA");
+		}
+		if (lateSurrender) {
+			text.append(" LS");
+		}
+		if (!insurance) {
+			text.append(" NO-INS");
+		}
+		return text.append(' ').append(blackjackPayout).toString();
+	}
+}
@@ -0,0 +1,45 @@
+package game;
+
+import models.Card;
+
+/**
+ * What happened while a ReactiveBlackjackGame handled a command, in the order it happened. The dealer's hole card is
+ * only reported once it is revealed at the start of the dealer's turn.
+ */
+public sealed interface TableEvent {
+	
+	enum Seat {
+		PLAYER,
+		DEALER
+	}
+	
+	record BetPlaced(int amount, int chipsAmount) implements TableEvent {
+	}
+	
+	record Reshuffled() implements TableEvent {
+	}
+	
+	record CardDealt(Seat seat, Card card) implements TableEvent {
+	}
+	
+	record HoleCardDealt() implements TableEvent {
+	}
+	
+	record HoleCardRevealed(Card card) implements TableEvent {
+	}
+	
+	record Busted(Seat seat) implements TableEvent {
+	}
+	
+	record Stood(Seat seat, int handValue) implements TableEvent {
+	}
+	
+	record RoundSettled(GameResult result, int chipsDelta, int chipsAmount) implements TableEvent {
+	}
+	
+	record GameOver(int chipsAmount) implements TableEvent {
+	}
+	
+	record CommandRejected(GameCommand command, String reason) implements TableEvent {
+	}
+}
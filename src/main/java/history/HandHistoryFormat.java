@@ -0,0 +1,31 @@
+package history;
+
+/**
+ * Layout of a hand history file. After the file header it's a run of blocks, each a block header followed by the
+ * block's rounds, deflated unless that didn't make them any smaller.
+ * <pre>
+ * file header   int magic, int version
+ * block header  int rawLength, int storedLength, byte compression, int roundCount, long firstRoundId, int crc32c
+ * round         varint roundId - previous roundId (the first round in a block is relative to firstRoundId)
+ *               byte handCount
+ *               per hand: byte cardCount, card codes (one byte each, see Card.code),
+ *                         byte winner &lt;&lt; 4 | payoutType, varint bet, zigzag varint chipsDelta
+ *               byte dealerCardCount, card codes
+ *               varint chipsAfter
+ * </pre>
+ * The checksum covers the stored bytes, so a torn block at the end of a file is spotted and ignored.
+ */
+final class HandHistoryFormat {
+	static final int FILE_MAGIC = 0x424A4848;
+	static final int FILE_VERSION = 1;
+	static final int FILE_HEADER_SIZE = 2 * Integer.BYTES;
+	static final int BLOCK_HEADER_SIZE = 4 * Integer.BYTES + Byte.BYTES + Long.BYTES;
+	static final int BLOCK_SIZE = 64 * 1024;
+	// Comfortably more than the biggest round: a full set of split hands each holding a long run of small cards
+	static final int MAX_ROUND_SIZE = 2048;
+	static final byte STORED = 0;
+	static final byte DEFLATED = 1;
+	
+	private HandHistoryFormat() {
+	}
+}
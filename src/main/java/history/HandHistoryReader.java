@@ -0,0 +1,263 @@
+package history;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a hand history file (see HandHistoryFormat) through memory-mapped windows of a few dozen blocks. Stored blocks
+ * are decoded straight out of the mapping and deflated ones are inflated from it into one reused buffer, and every
+ * round is decoded into one reused RoundView, so a scan allocates per window rather than per round. stats() hands
+ * the windows out across the common pool for aggregate totals.
+ */
+public class HandHistoryReader implements AutoCloseable {
+	private static final int WINDOW_BLOCKS = 64;
+	
+	private final FileChannel channel;
+	private final List<Window> windows = new ArrayList<>();
+	@Getter
+	private final long roundCount;
+	
+	public HandHistoryReader(@NonNull Path file) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		long rounds = 0;
+		try {
+			checkFileHeader(channel);
+			long position = HandHistoryFormat.FILE_HEADER_SIZE;
+			long windowStart = position;
+			int windowBlocks = 0;
+			ByteBuffer header = ByteBuffer.allocate(HandHistoryFormat.BLOCK_HEADER_SIZE);
+			
+			long end = channel.size();
+			while (readBlockHeader(channel, position, header)) {
+				long blockEnd = position + HandHistoryFormat.BLOCK_HEADER_SIZE + header.getInt(Integer.BYTES);
+				if (blockEnd > end) {
+					break;
+				}
+				rounds += header.getInt(2 * Integer.BYTES + Byte.BYTES);
+				position = blockEnd;
+				if (++windowBlocks == WINDOW_BLOCKS) {
+					windows.add(new Window(windowStart, position - windowStart));
+					windowStart = position;
+					windowBlocks = 0;
+				}
+			}
+			if (windowBlocks > 0) {
+				windows.add(new Window(windowStart, position - windowStart));
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		this.roundCount = rounds;
+	}
+	
+	/**
+	 * Visits every round in order. The RoundView is reused, so only use it inside the visitor.
+	 */
+	public void forEach(@NonNull Consumer<RoundView> visitor) throws IOException {
+		BlockDecoder decoder = new BlockDecoder();
+		try {
+			for (Window window : windows) {
+				decoder.decode(channel, window, visitor);
+			}
+		} finally {
+			decoder.close();
+		}
+	}
+	
+	/**
+	 * Totals over the whole file, decoding the windows in parallel. Each window gets its own stats, merged at the end.
+	 */
+	public HistoryStats stats() {
+		return windows.parallelStream()
+					  .map(window -> {
+						  HistoryStats stats = new HistoryStats();
+						  BlockDecoder decoder = new BlockDecoder();
+						  try {
+							  decoder.decode(channel, window, stats::add);
+						  } catch (IOException e) {
+							  throw new UncheckedIOException(e);
+						  } finally {
+							  decoder.close();
+						  }
+						  return stats;
+					  })
+					  .reduce(HistoryStats::merge)
+					  .orElseGet(HistoryStats::new);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Length of the file up to the end of its last complete block, used by the writer to cut off a torn tail before
+	 * appending. A crash can only tear the block being written, so only the last block's checksum is checked.
+	 */
+	static long validLength(@NonNull FileChannel channel) throws IOException {
+		checkFileHeader(channel);
+		ByteBuffer header = ByteBuffer.allocate(HandHistoryFormat.BLOCK_HEADER_SIZE);
+		long position = HandHistoryFormat.FILE_HEADER_SIZE;
+		long lastBlock = -1;
+		while (readBlockHeader(channel, position, header)) {
+			long blockEnd = position + HandHistoryFormat.BLOCK_HEADER_SIZE + header.getInt(Integer.BYTES);
+			if (blockEnd > channel.size()) {
+				break;
+			}
+			lastBlock = position;
+			position = blockEnd;
+		}
+		
+		if (lastBlock >= 0 && !checksumMatches(channel, lastBlock, header)) {
+			return lastBlock;
+		}
+		return position;
+	}
+	
+	/**
+	 * Id of the last round in a file with no torn tail, or -1 if it has no rounds yet. Only the last block is decoded.
+	 */
+	static long lastRoundId(@NonNull FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HandHistoryFormat.BLOCK_HEADER_SIZE);
+		long position = HandHistoryFormat.FILE_HEADER_SIZE;
+		long lastBlock = -1;
+		while (readBlockHeader(channel, position, header)) {
+			lastBlock = position;
+			position += HandHistoryFormat.BLOCK_HEADER_SIZE + header.getInt(Integer.BYTES);
+		}
+		if (lastBlock < 0) {
+			return -1;
+		}
+		
+		long[] lastRoundId = {-1};
+		BlockDecoder decoder = new BlockDecoder();
+		try {
+			decoder.decode(channel, new Window(lastBlock, position - lastBlock),
+					round -> lastRoundId[0] = round.getRoundId());
+		} finally {
+			decoder.close();
+		}
+		return lastRoundId[0];
+	}
+	
+	private static void checkFileHeader(FileChannel channel) throws IOException {
+		ByteBuffer fileHeader = ByteBuffer.allocate(HandHistoryFormat.FILE_HEADER_SIZE);
+		channel.read(fileHeader, 0);
+		if (fileHeader.position() < HandHistoryFormat.FILE_HEADER_SIZE
+				|| fileHeader.getInt(0) != HandHistoryFormat.FILE_MAGIC
+				|| fileHeader.getInt(Integer.BYTES) != HandHistoryFormat.FILE_VERSION) {
+			throw new IOException("Not a hand history file");
+		}
+	}
+	
+	private static boolean readBlockHeader(FileChannel channel, long position, ByteBuffer header) throws IOException {
+		header.clear();
+		while (header.hasRemaining()) {
+			if (channel.read(header, position + header.position()) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean checksumMatches(FileChannel channel, long blockStart, ByteBuffer header) throws IOException {
+		readBlockHeader(channel, blockStart, header);
+		int storedLength = header.getInt(Integer.BYTES);
+		MappedByteBuffer stored = channel.map(FileChannel.MapMode.READ_ONLY,
+				blockStart + HandHistoryFormat.BLOCK_HEADER_SIZE, storedLength);
+		CRC32C crc = new CRC32C();
+		crc.update(stored);
+		return (int) crc.getValue() == header.getInt(HandHistoryFormat.BLOCK_HEADER_SIZE - Integer.BYTES);
+	}
+	
+	private record Window(long offset, long length) {
+	}
+	
+	/**
+	 * The per thread state for decoding blocks.
+	 */
+	private static final class BlockDecoder {
+		private final Inflater inflater = new Inflater();
+		private final byte[] raw = new byte[HandHistoryFormat.BLOCK_SIZE];
+		private final CRC32C crc = new CRC32C();
+		private final RoundView round = new RoundView();
+		
+		void decode(FileChannel channel, Window window, Consumer<RoundView> visitor) throws IOException {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, window.offset(), window.length());
+			while (mapped.hasRemaining()) {
+				long blockOffset = window.offset() + mapped.position();
+				int rawLength = mapped.getInt();
+				int storedLength = mapped.getInt();
+				byte compression = mapped.get();
+				int rounds = mapped.getInt();
+				long firstRoundId = mapped.getLong();
+				int expectedCrc = mapped.getInt();
+				
+				ByteBuffer stored = mapped.slice(mapped.position(), storedLength);
+				mapped.position(mapped.position() + storedLength);
+				crc.reset();
+				crc.update(stored.duplicate());
+				if ((int) crc.getValue() != expectedCrc || rawLength > raw.length) {
+					throw new IOException("Hand history block at " + blockOffset + " is corrupt");
+				}
+				
+				ByteBuffer block = compression == HandHistoryFormat.DEFLATED ? inflate(stored, rawLength, blockOffset)
+										   : stored;
+				long roundId = firstRoundId;
+				for (int i = 0; i < rounds; i++) {
+					roundId = round.decode(block, roundId);
+					visitor.accept(round);
+				}
+			}
+		}
+		
+		private ByteBuffer inflate(ByteBuffer stored, int rawLength, long blockOffset) throws IOException {
+			inflater.reset();
+			inflater.setInput(stored);
+			try {
+				if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+					throw new IOException("Hand history block at " + blockOffset + " is truncated");
+				}
+			} catch (DataFormatException e) {
+				throw new IOException("Hand history block at " + blockOffset + " is corrupt", e);
+			}
+			return ByteBuffer.wrap(raw, 0, rawLength);
+		}
+		
+		void close() {
+			inflater.end();
+		}
+	}
+	
+	/**
+	 * Prints aggregate stats for a hand history file.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: HandHistoryReader <file>");
+			return;
+		}
+		try (HandHistoryReader reader = new HandHistoryReader(Path.of(args[0]))) {
+			long start = System.nanoTime();
+			HistoryStats stats = reader.stats();
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println(stats.summary());
+			System.out.printf("Scanned in:     %.2fs (%,.0f rounds/second)%n", seconds, stats.getRounds() / seconds);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package history;
+
+import game.GameResult;
+import lombok.Getter;
+import lombok.NonNull;
+import models.Hand;
+import models.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+import static history.HandHistoryFormat.BLOCK_HEADER_SIZE;
+import static history.HandHistoryFormat.BLOCK_SIZE;
+import static history.HandHistoryFormat.DEFLATED;
+import static history.HandHistoryFormat.FILE_HEADER_SIZE;
+import static history.HandHistoryFormat.FILE_MAGIC;
+import static history.HandHistoryFormat.FILE_VERSION;
+import static history.HandHistoryFormat.MAX_ROUND_SIZE;
+import static history.HandHistoryFormat.STORED;
+
+/**
+ * Streams rounds into a hand history file (see HandHistoryFormat). Rounds are encoded into a 64 KB block in memory,
+ * and each full block is deflated and written with one channel write, so recording a round is just a few buffer puts.
+ * Opening an existing file appends to it, after cutting off any torn block left at the end by a crash, and round ids
+ * carry on from the last one in it (see getNextRoundId). Rounds still in the current block are only on disk after
+ * flush or close.
+ */
+public class HandHistoryWriter implements AutoCloseable {
+	private final FileChannel channel;
+	private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+	private final byte[] compressed = new byte[BLOCK_SIZE + BLOCK_SIZE / 8];
+	private final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private final CRC32C crc = new CRC32C();
+	
+	private int blockRounds;
+	private long blockFirstRoundId;
+	private long previousRoundId;
+	// Round ids are stored as deltas, so they can't go backwards, even across runs appending to the same file
+	private long lastRoundId;
+	@Getter
+	private long roundsWritten;
+	
+	public HandHistoryWriter(@NonNull Path file) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (channel.size() == 0) {
+			ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(FILE_MAGIC).putInt(FILE_VERSION);
+			channel.write(fileHeader.flip());
+			lastRoundId = -1;
+		} else {
+			long validLength = HandHistoryReader.validLength(channel);
+			channel.truncate(validLength);
+			lastRoundId = HandHistoryReader.lastRoundId(channel);
+		}
+		channel.position(channel.size());
+	}
+	
+	/**
+	 * The round id to number the next game's rounds from, one after the last round already in the file.
+	 */
+	public long getNextRoundId() {
+		return lastRoundId + 1;
+	}
+	
+	/**
+	 * Records one settled round. Results, bets and chips deltas are per player hand, in the same order as the hands.
+	 * Seats at the same table share a round id, but an id can't be lower than the one before it.
+	 */
+	public void writeRound(long roundId, @NonNull Player player, @NonNull Hand dealerHand,
+						   @NonNull GameResult[] results, @NonNull int[] bets, @NonNull int[] chipsDeltas)
+			throws IOException {
+		if (roundId < lastRoundId) {
+			throw new IllegalArgumentException("Round " + roundId + " comes before round " + lastRoundId
+					+ ", already in the hand history");
+		}
+		int handCount = player.getHandCount();
+		checkRoundSize(player, dealerHand);
+		if (block.remaining() < MAX_ROUND_SIZE) {
+			flushBlock();
+		}
+		if (blockRounds == 0) {
+			blockFirstRoundId = roundId;
+			previousRoundId = roundId;
+		}
+		
+		Varint.putUnsigned(block, roundId - previousRoundId);
+		block.put((byte) handCount);
+		for (int i = 0; i < handCount; i++) {
+			putCards(player.getHand(i));
+			block.put((byte) (results[i].winner().ordinal() << 4 | results[i].payoutType().ordinal()));
+			Varint.putUnsigned(block, bets[i]);
+			Varint.putSigned(block, chipsDeltas[i]);
+		}
+		putCards(dealerHand);
+		Varint.putUnsigned(block, player.getChipsAmount());
+		
+		previousRoundId = roundId;
+		lastRoundId = roundId;
+		blockRounds++;
+		roundsWritten++;
+	}
+	
+	private void checkRoundSize(Player player, Hand dealerHand) {
+		// Worst case is 1 + 10 bytes per varint and a byte per card
+		int size = 1 + 1 + 1 + dealerHand.getCardCount() + 10 + 10;
+		for (int i = 0; i < player.getHandCount(); i++) {
+			size += 1 + player.getHand(i).getCardCount() + 1 + 5 + 5;
+		}
+		if (size > MAX_ROUND_SIZE || player.getHandCount() > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("Round is too big to record in a hand history");
+		}
+	}
+	
+	private void putCards(Hand hand) {
+		block.put((byte) hand.getCardCount());
+		for (int i = 0; i < hand.getCardCount(); i++) {
+			block.put((byte) hand.getCardCode(i));
+		}
+	}
+	
+	public void flush() throws IOException {
+		flushBlock();
+		channel.force(false);
+	}
+	
+	private void flushBlock() throws IOException {
+		if (blockRounds == 0) {
+			return;
+		}
+		int rawLength = block.position();
+		
+		deflater.reset();
+		deflater.setInput(block.array(), 0, rawLength);
+		deflater.finish();
+		int compressedLength = deflater.deflate(compressed);
+		boolean deflated = deflater.finished() && compressedLength < rawLength;
+		
+		byte[] stored = deflated ? compressed : block.array();
+		int storedLength = deflated ? compressedLength : rawLength;
+		crc.reset();
+		crc.update(stored, 0, storedLength);
+		
+		header.clear();
+		header.putInt(rawLength).putInt(storedLength).put(deflated ? DEFLATED : STORED).putInt(blockRounds)
+				.putLong(blockFirstRoundId).putInt((int) crc.getValue());
+		ByteBuffer[] buffers = {header.flip(), ByteBuffer.wrap(stored, 0, storedLength)};
+		while (buffers[1].hasRemaining()) {
+			channel.write(buffers);
+		}
+		
+		block.clear();
+		blockRounds = 0;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			deflater.end();
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package history;
+
+import game.Winner;
+import lombok.Getter;
+import lombok.NonNull;
+import models.Player;
+
+/**
+ * Totals over a scan of a hand history. Counts are per player hand, so a split round adds more than one.
+ */
+@Getter
+public class HistoryStats {
+	private long rounds;
+	private long hands;
+	private long playerWins;
+	private long dealerWins;
+	private long ties;
+	private long blackjacks;
+	private long surrenders;
+	private long totalWagered;
+	private long netChips;
+	
+	public void add(@NonNull RoundView round) {
+		rounds++;
+		for (int i = 0; i < round.getHandCount(); i++) {
+			Winner winner = round.getWinner(i);
+			Player.PayoutType payoutType = round.getPayoutType(i);
+			if (winner == Winner.PLAYER) {
+				playerWins++;
+			} else if (winner == Winner.DEALER) {
+				dealerWins++;
+			} else {
+				ties++;
+			}
+			if (payoutType == Player.PayoutType.BLACKJACK) {
+				blackjacks++;
+			} else if (payoutType == Player.PayoutType.SURRENDER) {
+				surrenders++;
+			}
+			hands++;
+			totalWagered += round.getBet(i);
+			netChips += round.getChipsDelta(i);
+		}
+	}
+	
+	public HistoryStats merge(@NonNull HistoryStats other) {
+		rounds += other.rounds;
+		hands += other.hands;
+		playerWins += other.playerWins;
+		dealerWins += other.dealerWins;
+		ties += other.ties;
+		blackjacks += other.blackjacks;
+		surrenders += other.surrenders;
+		totalWagered += other.totalWagered;
+		netChips += other.netChips;
+		return this;
+	}
+	
+	public String summary() {
+		double edge = totalWagered == 0 ? 0 : 100.0 * netChips / totalWagered;
+		return String.format("""
+				Rounds:         %,d
+				Hands:          %,d
+				Player wins:    %,d
+				Dealer wins:    %,d
+				Ties:           %,d
+				Blackjacks:     %,d
+				Surrenders:     %,d
+				Total wagered:  %,d
+				Net chips:      %,d (%.3f%% of wagered)""",
+				rounds, hands, playerWins, dealerWins, ties, blackjacks, surrenders, totalWagered, netChips, edge);
+	}
+}
@@ -0,0 +1,108 @@
+package history;
+
+import game.Winner;
+import lombok.Getter;
+import models.Card;
+import models.Player;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One decoded round, reused for every round the reader visits so a scan allocates nothing per round. Only valid
+ * inside the visitor call, copy anything that needs to outlive it.
+ */
+public final class RoundView {
+	private static final Winner[] WINNERS = Winner.values();
+	private static final Player.PayoutType[] PAYOUT_TYPES = Player.PayoutType.values();
+	private static final int INITIAL_HANDS = 4;
+	private static final int INITIAL_CARDS = 32;
+	
+	@Getter
+	private long roundId;
+	@Getter
+	private int handCount;
+	@Getter
+	private int chipsAfter;
+	
+	private int[] handCardStarts = new int[INITIAL_HANDS + 1];
+	private byte[] handCards = new byte[INITIAL_CARDS * INITIAL_HANDS];
+	private byte[] outcomes = new byte[INITIAL_HANDS];
+	private int[] bets = new int[INITIAL_HANDS];
+	private int[] chipsDeltas = new int[INITIAL_HANDS];
+	private byte[] dealerCards = new byte[INITIAL_CARDS];
+	@Getter
+	private int dealerCardCount;
+	
+	long decode(ByteBuffer block, long previousRoundId) {
+		roundId = previousRoundId + Varint.getUnsigned(block);
+		handCount = block.get();
+		if (handCount > outcomes.length) {
+			growHands(handCount);
+		}
+		
+		int cardPosition = 0;
+		for (int i = 0; i < handCount; i++) {
+			int cardCount = block.get() & 0xFF;
+			if (cardPosition + cardCount > handCards.length) {
+				handCards = Arrays.copyOf(handCards, Math.max(handCards.length * 2, cardPosition + cardCount));
+			}
+			handCardStarts[i] = cardPosition;
+			block.get(handCards, cardPosition, cardCount);
+			cardPosition += cardCount;
+			
+			outcomes[i] = block.get();
+			bets[i] = (int) Varint.getUnsigned(block);
+			chipsDeltas[i] = (int) Varint.getSigned(block);
+		}
+		handCardStarts[handCount] = cardPosition;
+		
+		dealerCardCount = block.get() & 0xFF;
+		block.get(dealerCards, 0, dealerCardCount);
+		chipsAfter = (int) Varint.getUnsigned(block);
+		return roundId;
+	}
+	
+	private void growHands(int hands) {
+		handCardStarts = Arrays.copyOf(handCardStarts, hands + 1);
+		outcomes = Arrays.copyOf(outcomes, hands);
+		bets = Arrays.copyOf(bets, hands);
+		chipsDeltas = Arrays.copyOf(chipsDeltas, hands);
+	}
+	
+	public int getCardCount(int hand) {
+		return handCardStarts[hand + 1] - handCardStarts[hand];
+	}
+	
+	public int getCardCode(int hand, int card) {
+		return handCards[handCardStarts[hand] + card];
+	}
+	
+	public Card getCard(int hand, int card) {
+		return Card.fromCode(getCardCode(hand, card));
+	}
+	
+	public int getDealerCardCode(int card) {
+		return dealerCards[card];
+	}
+	
+	public Card getDealerCard(int card) {
+		return Card.fromCode(getDealerCardCode(card));
+	}
+	
+	public Winner getWinner(int hand) {
+		return WINNERS[outcomes[hand] >>> 4];
+	}
+	
+	public Player.PayoutType getPayoutType(int hand) {
+		return PAYOUT_TYPES[outcomes[hand] & 0x0F];
+	}
+	
+	public int getBet(int hand) {
+		return bets[hand];
+	}
+	
+	public int getChipsDelta(int hand) {
+		return chipsDeltas[hand];
+	}
+}
@@ -0,0 +1,44 @@
+package history;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 style variable length integers, 7 bits per byte with the high bit set on every byte but the last. Signed
+ * values are zigzag encoded first so small losses stay as short as small wins.
+ */
+final class Varint {
+	
+	private Varint() {
+	}
+	
+	static void putUnsigned(@NonNull ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+	
+	static long getUnsigned(@NonNull ByteBuffer buffer) {
+		long value = 0;
+		int shift = 0;
+		byte next;
+		do {
+			next = buffer.get();
+			value |= (long) (next & 0x7F) << shift;
+			shift += 7;
+		} while (next < 0);
+		return value;
+	}
+	
+	static void putSigned(@NonNull ByteBuffer buffer, long value) {
+		putUnsigned(buffer, (value << 1) ^ (value >> 63));
+	}
+	
+	static long getSigned(@NonNull ByteBuffer buffer) {
+		long encoded = getUnsigned(buffer);
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+}
@@ -0,0 +1,95 @@
+package metrics;
+
+import game.GameState;
+import game.Winner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The JMX view of a MetricsRegistry.
+ */
+final class BlackjackMetrics implements BlackjackMetricsMXBean {
+	private static final double NANOS_PER_MICRO = 1_000;
+	
+	private final MetricsRegistry registry;
+	
+	BlackjackMetrics(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+	
+	@Override
+	public long getRounds() {
+		return registry.getRounds();
+	}
+	
+	@Override
+	public double getRoundsPerSecond() {
+		// Nothing changes on a read, so any number of JMX clients can poll this without skewing each other's rate
+		return registry.getRounds() * 1e9 / Math.max(1, System.nanoTime() - registry.getStartNanos());
+	}
+	
+	@Override
+	public long getShuffles() {
+		return registry.getShuffles();
+	}
+	
+	@Override
+	public double getRoundsPerShuffle() {
+		long shuffles = registry.getShuffles();
+		return shuffles == 0 ? 0 : (double) registry.getRounds() / shuffles;
+	}
+	
+	@Override
+	public long getPlayerWins() {
+		return registry.getResults(Winner.PLAYER);
+	}
+	
+	@Override
+	public long getDealerWins() {
+		return registry.getResults(Winner.DEALER);
+	}
+	
+	@Override
+	public long getTies() {
+		return registry.getResults(Winner.TIE);
+	}
+	
+	@Override
+	public double getHouseWinRate() {
+		long dealerWins = getDealerWins();
+		long hands = dealerWins + getPlayerWins() + getTies();
+		return hands == 0 ? 0 : (double) dealerWins / hands;
+	}
+	
+	@Override
+	public int getActiveTables() {
+		return registry.getTables().size();
+	}
+	
+	@Override
+	public Map<String, Long> getTableRounds() {
+		Map<String, Long> tableRounds = new TreeMap<>();
+		for (TableMetrics table : registry.getTables()) {
+			tableRounds.put(table.getId(), table.getRounds());
+		}
+		return tableRounds;
+	}
+	
+	@Override
+	public Map<String, Double> getPhaseLatencyMicros() {
+		Map<String, Double> latencies = new LinkedHashMap<>();
+		for (GameState phase : GameState.values()) {
+			HistogramSnapshot snapshot = registry.getPhaseLatency(phase);
+			if (snapshot.getCount() == 0) {
+				continue;
+			}
+			latencies.put(phase + ".mean", snapshot.getMeanNanos() / NANOS_PER_MICRO);
+			latencies.put(phase + ".p50", snapshot.getValueAtPercentile(50) / NANOS_PER_MICRO);
+			latencies.put(phase + ".p99", snapshot.getValueAtPercentile(99) / NANOS_PER_MICRO);
+			latencies.put(phase + ".max", snapshot.getMaxNanos() / NANOS_PER_MICRO);
+		}
+		return latencies;
+	}
+}
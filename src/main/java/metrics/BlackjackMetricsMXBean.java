@@ -0,0 +1,40 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * What the metrics registry shows over JMX (jconsole, VisualVM or any JMX scraper).
+ */
+public interface BlackjackMetricsMXBean {
+	
+	long getRounds();
+	
+	/**
+	 * Average rounds per second across every table since startup. For the current rate, sample getRounds twice.
+	 */
+	double getRoundsPerSecond();
+	
+	long getShuffles();
+	
+	double getRoundsPerShuffle();
+	
+	long getPlayerWins();
+	
+	long getDealerWins();
+	
+	long getTies();
+	
+	/**
+	 * The share of settled hands the dealer won.
+	 */
+	double getHouseWinRate();
+	
+	int getActiveTables();
+	
+	Map<String, Long> getTableRounds();
+	
+	/**
+	 * Mean, p50, p99 and max time per step of each phase in microseconds, keyed like "PLAYER_TURN.p99".
+	 */
+	Map<String, Double> getPhaseLatencyMicros();
+}
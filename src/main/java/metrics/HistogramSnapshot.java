@@ -0,0 +1,51 @@
+package metrics;
+
+import lombok.Getter;
+
+/**
+ * A LatencyHistogram's counts at one moment. Percentiles and the max are reported as the top of their bucket, so
+ * they're never understated.
+ */
+public final class HistogramSnapshot {
+	private final long[] counts;
+	@Getter
+	private final long count;
+	@Getter
+	private final long totalNanos;
+	
+	HistogramSnapshot(long[] counts, long totalNanos) {
+		this.counts = counts;
+		this.totalNanos = totalNanos;
+		long total = 0;
+		for (long bucketCount : counts) {
+			total += bucketCount;
+		}
+		this.count = total;
+	}
+	
+	public double getMeanNanos() {
+		return count == 0 ? 0 : (double) totalNanos / count;
+	}
+	
+	/**
+	 * The smallest value that at least the given percentage (0-100) of recorded values are at or below.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(count * Math.clamp(percentile, 0, 100) / 100));
+		long seen = 0;
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			seen += counts[bucket];
+			if (seen >= target) {
+				return LatencyHistogram.highestValueIn(bucket);
+			}
+		}
+		return LatencyHistogram.MAX_TRACKABLE;
+	}
+	
+	public long getMaxNanos() {
+		return getValueAtPercentile(100);
+	}
+}
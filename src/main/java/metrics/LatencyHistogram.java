@@ -0,0 +1,61 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Durations in nanoseconds, bucketed the way HdrHistogram does it: exact below 64ns, then 32 buckets per power of two,
+ * so any value is known to within about 3%. Every bucket is a slot in an AtomicLongArray, with one copy of the array
+ * per stripe picked by the recording thread, so recording is two uncontended atomic adds and never allocates.
+ * Values over 2^40 ns (about 18 minutes) land in the top bucket.
+ */
+public final class LatencyHistogram {
+	static final int SUB_BUCKET_BITS = 5;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	static final long MAX_TRACKABLE = (1L << 40) - 1;
+	static final int BUCKETS = bucketOf(MAX_TRACKABLE) + 1;
+	private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors());
+	// Each stripe is its buckets followed by the sum of everything recorded to it
+	private static final int STRIPE_LENGTH = BUCKETS + 1;
+	
+	private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * STRIPE_LENGTH);
+	
+	public void record(long nanos) {
+		long value = Math.clamp(nanos, 0, MAX_TRACKABLE);
+		int base = (int) (Thread.currentThread().threadId() & (STRIPES - 1)) * STRIPE_LENGTH;
+		stripes.getAndIncrement(base + bucketOf(value));
+		stripes.getAndAdd(base + BUCKETS, value);
+	}
+	
+	public HistogramSnapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		long sum = 0;
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			int base = stripe * STRIPE_LENGTH;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				counts[bucket] += stripes.get(base + bucket);
+			}
+			sum += stripes.get(base + BUCKETS);
+		}
+		return new HistogramSnapshot(counts, sum);
+	}
+	
+	static int bucketOf(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+	
+	/**
+	 * The largest value that lands in the bucket.
+	 */
+	static long highestValueIn(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
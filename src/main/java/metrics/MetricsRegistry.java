@@ -0,0 +1,117 @@
+package metrics;
+
+import game.GameState;
+import game.Winner;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters and latency histograms for the tables in this JVM: rounds played (overall and per table),
+ * time spent in each game phase, shuffles, and results by winner. Counters are LongAdders and histograms are striped,
+ * so recording from thousands of tables at once is a few nanoseconds of uncontended adds. Everything is read from
+ * here by the JMX bean (see registerMBean) and the Prometheus endpoint.
+ */
+@Slf4j
+public final class MetricsRegistry {
+	public static final String MBEAN_NAME = "blackjack:type=Metrics";
+	private static final GameState[] PHASES = GameState.values();
+	private static final Winner[] WINNERS = Winner.values();
+	private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+	
+	private final LongAdder rounds = new LongAdder();
+	private final LongAdder shuffles = new LongAdder();
+	private final LongAdder[] results = new LongAdder[WINNERS.length];
+	private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+	private final Map<String, TableMetrics> tables = new ConcurrentHashMap<>();
+	private final AtomicLong nextTableId = new AtomicLong();
+	@Getter
+	private final long startNanos = System.nanoTime();
+	
+	public MetricsRegistry() {
+		for (int i = 0; i < results.length; i++) {
+			results[i] = new LongAdder();
+		}
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = new LatencyHistogram();
+		}
+	}
+	
+	/**
+	 * The registry that games, decks and shoes record to.
+	 */
+	public static MetricsRegistry global() {
+		return GLOBAL;
+	}
+	
+	/**
+	 * Starts tracking a new table under the next free id. Close the TableMetrics when the table shuts down.
+	 */
+	public TableMetrics openTable() {
+		String id = "table-" + nextTableId.incrementAndGet();
+		TableMetrics table = new TableMetrics(id, this);
+		tables.put(id, table);
+		return table;
+	}
+	
+	void closeTable(TableMetrics table) {
+		tables.remove(table.getId());
+	}
+	
+	public Collection<TableMetrics> getTables() {
+		return Collections.unmodifiableCollection(tables.values());
+	}
+	
+	void recordRound() {
+		rounds.increment();
+	}
+	
+	void recordResult(Winner winner) {
+		results[winner.ordinal()].increment();
+	}
+	
+	void recordPhase(GameState phase, long nanos) {
+		phases[phase.ordinal()].record(nanos);
+	}
+	
+	public void recordShuffle() {
+		shuffles.increment();
+	}
+	
+	public long getRounds() {
+		return rounds.sum();
+	}
+	
+	public long getShuffles() {
+		return shuffles.sum();
+	}
+	
+	public long getResults(Winner winner) {
+		return results[winner.ordinal()].sum();
+	}
+	
+	public HistogramSnapshot getPhaseLatency(GameState phase) {
+		return phases[phase.ordinal()].snapshot();
+	}
+	
+	/**
+	 * Registers the JMX bean for this registry on the platform MBean server, under MBEAN_NAME for the global one.
+	 */
+	public void registerMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new BlackjackMetrics(this),
+					new ObjectName(this == GLOBAL ? MBEAN_NAME : MBEAN_NAME + ",id=" + System.identityHashCode(this)));
+		} catch (JMException e) {
+			log.warn("Could not register the metrics MBean", e);
+		}
+	}
+}
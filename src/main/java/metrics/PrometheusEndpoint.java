@@ -0,0 +1,125 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import game.GameState;
+import game.Winner;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a MetricsRegistry at http://localhost:PORT/metrics in the Prometheus text format. It only listens on the
+ * loopback address, so put a scraper or proxy on the same host to collect from it. Counters are exported as totals,
+ * Prometheus works out rates like rounds per second itself.
+ */
+@Slf4j
+public class PrometheusEndpoint implements AutoCloseable {
+	public static final int DEFAULT_PORT = 9404;
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+	
+	private final MetricsRegistry registry;
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	
+	public PrometheusEndpoint(@NonNull MetricsRegistry registry, int port) throws IOException {
+		this.registry = registry;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", this::handle);
+		server.setExecutor(executor);
+		server.start();
+		log.info("Serving metrics on http://localhost:{}/metrics", getPort());
+	}
+	
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+	
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			byte[] body = render().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+	
+	String render() {
+		StringBuilder text = new StringBuilder(4096);
+		
+		header(text, "blackjack_rounds_total", "counter", "Rounds settled across all tables.");
+		sample(text, "blackjack_rounds_total", "", registry.getRounds());
+		
+		header(text, "blackjack_table_rounds_total", "counter", "Rounds settled per open table.");
+		for (TableMetrics table : registry.getTables()) {
+			sample(text, "blackjack_table_rounds_total", "table=\"" + table.getId() + "\"", table.getRounds());
+		}
+		
+		header(text, "blackjack_active_tables", "gauge", "Tables currently open.");
+		sample(text, "blackjack_active_tables", "", registry.getTables().size());
+		
+		header(text, "blackjack_shuffles_total", "counter", "Deck and shoe shuffles.");
+		sample(text, "blackjack_shuffles_total", "", registry.getShuffles());
+		
+		header(text, "blackjack_hand_results_total", "counter", "Settled hands by winner.");
+		for (Winner winner : Winner.values()) {
+			sample(text, "blackjack_hand_results_total", "winner=\"" + lowerCase(winner) + "\"",
+					registry.getResults(winner));
+		}
+		
+		header(text, "blackjack_phase_seconds", "summary", "Time per step of each game phase.");
+		for (GameState phase : GameState.values()) {
+			HistogramSnapshot snapshot = registry.getPhaseLatency(phase);
+			String label = "phase=\"" + lowerCase(phase) + "\"";
+			for (double quantile : QUANTILES) {
+				sample(text, "blackjack_phase_seconds", label + ",quantile=\"" + quantile + "\"",
+						snapshot.getValueAtPercentile(quantile * 100) / 1e9);
+			}
+			sample(text, "blackjack_phase_seconds_sum", label, snapshot.getTotalNanos() / 1e9);
+			sample(text, "blackjack_phase_seconds_count", label, snapshot.getCount());
+		}
+		return text.toString();
+	}
+	
+	private static void header(StringBuilder text, String name, String type, String help) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+	
+	private static void sample(StringBuilder text, String name, String labels, long value) {
+		appendName(text, name, labels).append(value).append('\n');
+	}
+	
+	private static void sample(StringBuilder text, String name, String labels, double value) {
+		appendName(text, name, labels).append(value).append('\n');
+	}
+	
+	private static StringBuilder appendName(StringBuilder text, String name, String labels) {
+		text.append(name);
+		if (!labels.isEmpty()) {
+			text.append('{').append(labels).append('}');
+		}
+		return text.append(' ');
+	}
+	
+	private static String lowerCase(Enum<?> value) {
+		return value.name().toLowerCase(Locale.ROOT);
+	}
+	
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import game.GameState;
+import game.Winner;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics handle for one table. Everything recorded here also counts towards the registry's totals.
+ */
+public final class TableMetrics implements AutoCloseable {
+	@Getter
+	private final String id;
+	private final MetricsRegistry registry;
+	private final LongAdder rounds = new LongAdder();
+	
+	TableMetrics(String id, MetricsRegistry registry) {
+		this.id = id;
+		this.registry = registry;
+	}
+	
+	public void recordRound() {
+		rounds.increment();
+		registry.recordRound();
+	}
+	
+	/**
+	 * One per hand, so a split round records more than one result.
+	 */
+	public void recordResult(Winner winner) {
+		registry.recordResult(winner);
+	}
+	
+	public void recordPhase(GameState phase, long nanos) {
+		registry.recordPhase(phase, nanos);
+	}
+	
+	public long getRounds() {
+		return rounds.sum();
+	}
+	
+	@Override
+	public void close() {
+		registry.closeTable(this);
+	}
+}
@@ -0,0 +1,131 @@
+package models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A chip balance that can be shared by every table a player sits at. Taking a bet is a compare-and-set on the
+ * available chips, so two tables can never both spend the same chips. Chips coming back (payouts, returned stakes,
+ * deposits) don't need a check, so they're added to one of several padded stripes picked by the calling thread (one
+ * virtual thread per table on the server) and only folded into the available chips when a reserve comes up short.
+ * That keeps settling from every table off the one contended counter.
+ * <p>
+ * Chips are only ever moved between available, reserved and the stripes, so available + reserved + the stripes only
+ * changes through deposit and settle. A collect takes chips off a stripe before adding them to available, so readers
+ * that need the whole balance wait out any collect that is part way through (see getBalance).
+ */
+public final class Bankroll {
+	private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2;
+	// 8 longs is 64 bytes, so each stripe sits on its own cache line
+	private static final int STRIPE_SPACING = 8;
+	
+	private final AtomicLong available;
+	private final AtomicLongArray credits = new AtomicLongArray(STRIPES * STRIPE_SPACING);
+	private final LongAdder reserved = new LongAdder();
+	// A collect is in flight while these differ, its chips are then in neither the stripes nor available
+	private final AtomicLong collectsStarted = new AtomicLong();
+	private final AtomicLong collectsFinished = new AtomicLong();
+	
+	public Bankroll(long startingChips) {
+		if (startingChips < 0) {
+			throw new IllegalArgumentException("Starting chips can't be negative");
+		}
+		this.available = new AtomicLong(startingChips);
+	}
+	
+	/**
+	 * Takes the chips out of the balance and holds them against a bet, or returns false and changes nothing if the
+	 * balance can't cover it.
+	 */
+	public boolean tryReserve(int amount) {
+		if (amount < 1) {
+			throw new IllegalArgumentException("Reserve amount must be at least 1");
+		}
+		while (true) {
+			long current = available.get();
+			if (current >= amount) {
+				if (available.compareAndSet(current, current - amount)) {
+					reserved.add(amount);
+					return true;
+				}
+			} else if (collectCredits() == 0 && getBalance() < amount) {
+				// Nothing left to collect and the whole balance is short, so the chips really aren't there
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Releases a reserved bet with its net result (see GameEngine.chipsDelta), the stake plus any winnings, or whatever
+	 * wasn't lost, comes back to the balance.
+	 */
+	public void settle(int reservedAmount, int chipsDelta) {
+		long returned = (long) reservedAmount + chipsDelta;
+		if (reservedAmount < 0 || returned < 0) {
+			throw new IllegalArgumentException("Can't lose more than the reserved " + reservedAmount + " chips");
+		}
+		reserved.add(-reservedAmount);
+		credit(returned);
+	}
+	
+	public void deposit(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("Deposit can't be negative");
+		}
+		credit(amount);
+	}
+	
+	/**
+	 * Chips that could be bet right now. With other tables settling at the same time this is a moment in time, so use
+	 * tryReserve rather than checking this first.
+	 */
+	public long getBalance() {
+		while (true) {
+			long started = collectsStarted.get();
+			if (collectsFinished.get() != started) {
+				Thread.onSpinWait();
+				continue;
+			}
+			long balance = available.get();
+			for (int i = 0; i < STRIPES; i++) {
+				balance += credits.get(i * STRIPE_SPACING);
+			}
+			// A collect that started while reading could have moved chips from an unread stripe to available
+			if (collectsStarted.get() == started) {
+				return balance;
+			}
+		}
+	}
+	
+	public long getReserved() {
+		return reserved.sum();
+	}
+	
+	private void credit(long amount) {
+		if (amount != 0) {
+			int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+			credits.getAndAdd(stripe * STRIPE_SPACING, amount);
+		}
+	}
+	
+	private long collectCredits() {
+		long collected = 0;
+		boolean started = false;
+		for (int i = 0; i < STRIPES; i++) {
+			if (credits.get(i * STRIPE_SPACING) != 0) {
+				// Only a collect that takes chips counts, so reserves failing on an empty bankroll don't hold up readers
+				if (!started) {
+					collectsStarted.incrementAndGet();
+					started = true;
+				}
+				collected += credits.getAndSet(i * STRIPE_SPACING, 0);
+			}
+		}
+		if (started) {
+			available.addAndGet(collected);
+			collectsFinished.incrementAndGet();
+		}
+		return collected;
+	}
+}
@@ -1,10 +1,45 @@
 package models;
 
 
+/**
+ * Cards can also be handled as a compact code from 0 to 51 (suit ordinal * 13 + rank ordinal), which is what Hand
+ * stores internally. There is one canonical Card per code, fromCode and of hand those back so dealing and converting
+ * never allocate, and each card's display name is built once up front.
+ */
 public record Card(Rank rank, Suit suit) {
+    public static final int DISTINCT_CARDS = 52;
+    private static final int RANKS_PER_SUIT = Rank.values().length;
+    private static final Card[] CARDS = new Card[DISTINCT_CARDS];
+    private static final String[] NAMES = new String[DISTINCT_CARDS];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                int code = suit.ordinal() * RANKS_PER_SUIT + rank.ordinal();
+                CARDS[code] = new Card(rank, suit);
+                NAMES[code] = rank + " of " + suit;
+            }
+        }
+    }
+
+    public int code() {
+        return suit.ordinal() * RANKS_PER_SUIT + rank.ordinal();
+    }
+
+    public static Card fromCode(int code) {
+        return CARDS[code];
+    }
+
+    public static Card of(Rank rank, Suit suit) {
+        return CARDS[suit.ordinal() * RANKS_PER_SUIT + rank.ordinal()];
+    }
+
+    public static Rank rankOf(int code) {
+        return CARDS[code].rank;
+    }
     
     @Override
     public String toString() {
-        return rank + " of " + suit;
+        return NAMES[code()];
     }
 }
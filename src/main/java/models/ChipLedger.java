@@ -0,0 +1,25 @@
+package models;
+
+import lombok.NonNull;
+
+/**
+ * Told about every change to a player's chips, in the order they happen, so a bankroll can be kept outside the
+ * Player. Deltas are signed, a bet is the stake going out and a payout is whatever comes back at settlement.
+ */
+public interface ChipLedger {
+	ChipLedger NONE = (playerName, type, delta) -> { };
+	
+	void record(@NonNull String playerName, @NonNull EntryType type, int delta);
+	
+	enum EntryType {
+		DEPOSIT,
+		BET,
+		PAYOUT;
+		
+		private static final EntryType[] VALUES = values();
+		
+		public static EntryType fromCode(int code) {
+			return VALUES[code];
+		}
+	}
+}
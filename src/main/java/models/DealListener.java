@@ -0,0 +1,12 @@
+package models;
+
+/**
+ * Called synchronously from Deck and Shoe as cards are dealt and when the cards are shuffled back in, so listeners see
+ * every card in order on the dealing thread.
+ */
+public interface DealListener {
+	
+	void cardDealt(int cardCode);
+	
+	void shuffled();
+}
@@ -1,33 +1,56 @@
 package models;
 
+import events.GameEventStream;
 import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
+import lombok.NonNull;
+import metrics.MetricsRegistry;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This class generates and then shuffles a deck of 52 cards using the logic of 4 suits * 13 cards.
- * It then shuffles them, using the Math.random() system time as a seed for shuffling, this can be adjusted by using
- * random, but I thought this would be better for a simulated "true" randomness.
+ * The shuffle itself comes from a ShuffleSource, by default a SplittableRandom with a random seed, but any source can
+ * be passed in, e.g. SecureRandom for "true" randomness or a fixed seed to replay the same sequence of shuffles.
  */
 
-@Slf4j
 public class Deck {
 
     @Getter
     private List<Card> cards;
+    @Getter
+    private final ShuffleSource shuffleSource;
+    private final GameEventStream events = GameEventStream.global();
+    private final MetricsRegistry metrics = MetricsRegistry.global();
+    private DealListener[] listeners = new DealListener[0];
 
     public Deck() {
+        this(new SplittableShuffleSource());
+    }
+    
+    public Deck(@NonNull ShuffleSource shuffleSource) {
+        this.shuffleSource = shuffleSource;
         initialiseDeck();
         shuffleDeck();
     }
     
     public void shuffleDeck() {
-        Collections.shuffle(cards);
-        log.info("Shuffled deck");
+        byte[] codes = new byte[cards.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) cards.get(i).code();
+        }
+        shuffleSource.shuffle(codes, codes.length);
+        
+        cards = new ArrayList<>(codes.length);
+        for (byte code : codes) {
+            cards.add(Card.fromCode(code));
+        }
+        for (DealListener listener : listeners) {
+            listener.shuffled();
+        }
+        events.publishShuffle(cards.size(), 1);
+        metrics.recordShuffle();
     }
     
     public Card dealCard() {
@@ -36,10 +59,26 @@ public class Deck {
             shuffleDeck();
         }
         Card dealtCard = cards.removeLast();
-        log.info("Dealt card: {}", dealtCard);
+        for (DealListener listener : listeners) {
+            listener.cardDealt(dealtCard.code());
+        }
+        events.publishCardDealt(dealtCard.code(), cards.size());
         return dealtCard;
     }
     
+    public void addDealListener(@NonNull DealListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+    
+    public int[] getRemainingRankCounts() {
+        int[] counts = new int[Rank.values().length];
+        for (Card card : cards) {
+            counts[card.rank().ordinal()]++;
+        }
+        return counts;
+    }
+    
     public void ensureMinimumCards(int minimumCards) {
         if (cards.size() < minimumCards) {
             resetDeck();
@@ -53,10 +92,10 @@ public class Deck {
     }
 
     private void initialiseDeck() {
-        cards = Arrays.stream(Suit.values())
-                .flatMap(suit -> Arrays.stream(Rank.values())
-                    .map(rank -> new Card(rank, suit)))
-                .collect(Collectors.toList());
-        log.info("New deck created with {} cards", cards.size());
+        cards = new ArrayList<>(Card.DISTINCT_CARDS);
+        for (int code = 0; code < Card.DISTINCT_CARDS; code++) {
+            cards.add(Card.fromCode(code));
+        }
+        events.publishDeckCreated(cards.size());
     }
 }
@@ -0,0 +1,34 @@
+package models;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.OptionalLong;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Uses one of the JDK 17+ RandomGenerator algorithms, looked up by name (e.g. L64X128MixRandom, Xoshiro256PlusPlus).
+ */
+public final class GeneratorShuffleSource implements ShuffleSource {
+	@Getter
+	private final String algorithm;
+	private final RandomGenerator random;
+	private final long seed;
+	
+	public GeneratorShuffleSource(@NonNull String algorithm, long seed) {
+		this.algorithm = algorithm;
+		this.random = RandomGeneratorFactory.of(algorithm).create(seed);
+		this.seed = seed;
+	}
+	
+	@Override
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+	
+	@Override
+	public OptionalLong getSeed() {
+		return OptionalLong.of(seed);
+	}
+}
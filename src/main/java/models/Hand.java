@@ -1,63 +1,119 @@
 package models;
 
-import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
-import static models.Rank.ACE;
-
-@Data
+/**
+ * Cards are kept as byte codes (see Card.code) and the value is tracked incrementally in a packed HandState as cards
+ * are added, so checking the value, a bust or a blackjack costs a few bit operations rather than a walk over the cards.
+ * The rendered text is cached as well and only rebuilt after the hand changes.
+ */
 public class Hand {
-	private List<Card> cards = new ArrayList<>();
+	private static final int INITIAL_CAPACITY = 8;
+	
+	private byte[] cardCodes = new byte[INITIAL_CAPACITY];
+	@Getter
+	private int state = HandState.EMPTY;
+	private String text;
+	private String textWithValue;
 	
 	public void addCard(@NonNull Card card) {
-		cards.add(card);
+		addCardCode(card.code());
 	}
 	
-	public int getHandValue() {
-		int baseValue = cards.stream()
-								.mapToInt(card -> card.rank().getValue())
-								.sum();
-		
-		long aces = cards.stream()
-							.filter(card -> card.rank() == ACE)
-							.count();
-		
-		while (baseValue > 21 && aces > 0) {
-			baseValue -= 10;
-			aces--;
+	public void addCardCode(int cardCode) {
+		int count = getCardCount();
+		if (count == cardCodes.length) {
+			cardCodes = Arrays.copyOf(cardCodes, count * 2);
 		}
-		
-		return baseValue;
+		cardCodes[count] = (byte) cardCode;
+		state = HandState.addCard(state, cardCode);
+		invalidateText();
+	}
+	
+	public int getHandValue() {
+		return HandState.value(state);
+	}
+	
+	public boolean isSoft() {
+		return HandState.isSoft(state);
 	}
 	
 	public boolean isBusted() {
-		return getHandValue() > 21;
+		return HandState.isBusted(state);
 	}
 	
 	public boolean isBlackjack() {
-		return cards.size() == 2 && getHandValue() == 21;
+		return HandState.isBlackjack(state);
+	}
+	
+	public int getCardCount() {
+		return HandState.cardCount(state);
+	}
+	
+	public int getCardCode(int index) {
+		return cardCodes[Objects.checkIndex(index, getCardCount())];
+	}
+	
+	public Card getCard(int index) {
+		return Card.fromCode(getCardCode(index));
 	}
 	
 	public List<Card> getCards() {
-		return new ArrayList<>(cards);
+		int count = getCardCount();
+		List<Card> cards = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			cards.add(Card.fromCode(cardCodes[i]));
+		}
+		return cards;
 	}
 	
 	public void clearCards() {
-		cards.clear();
+		state = HandState.EMPTY;
+		invalidateText();
+	}
+	
+	/**
+	 * The cards followed by the hand value, e.g. "KING of HEARTS, SEVEN of CLUBS (Value: 17)".
+	 */
+	public String toStringWithValue() {
+		if (textWithValue == null) {
+			textWithValue = toString() + " (Value: " + getHandValue() + ")";
+		}
+		return textWithValue;
 	}
 	
 	@Override
 	public String toString() {
-		if (cards.isEmpty()) {
+		if (text == null) {
+			text = renderCards();
+		}
+		return text;
+	}
+	
+	private String renderCards() {
+		int count = getCardCount();
+		if (count == 0) {
 			return "Empty hand";
 		}
 		
-		return cards.stream()
-						.map(Card::toString)
-						.collect(Collectors.joining(", "));
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(Card.fromCode(cardCodes[i]));
+		}
+		return builder.toString();
+	}
+	
+	private void invalidateText() {
+		text = null;
+		textWithValue = null;
 	}
 }
@@ -0,0 +1,69 @@
+package models;
+
+/**
+ * Packs everything we need to judge a hand into a single int, so the value never has to be recalculated from the
+ * cards. Aces are counted as 1 in the hard total and one of them is promoted to 11 when that doesn't bust the hand
+ * (two aces as 11 would always bust, so promoting one is the only case that matters).
+ * <p>
+ * Layout: bits 0-11 hard total, bits 12-17 ace count, bits 18-26 card count. That is enough room for every card in an
+ * eight deck shoe, so the fields can never overflow into each other.
+ */
+public final class HandState {
+	public static final int EMPTY = 0;
+	
+	private static final int ACE_SHIFT = 12;
+	private static final int COUNT_SHIFT = 18;
+	private static final int TOTAL_MASK = (1 << ACE_SHIFT) - 1;
+	private static final int ACE_MASK = (1 << (COUNT_SHIFT - ACE_SHIFT)) - 1;
+	private static final int COUNT_MASK = (1 << 9) - 1;
+	private static final int SOFT_BONUS = 10;
+	private static final int BLACKJACK_VALUE = 21;
+	
+	// What adding each card code does to the packed state, so addCard is a single addition
+	private static final int[] CARD_DELTAS = new int[Card.DISTINCT_CARDS];
+	
+	static {
+		for (int code = 0; code < Card.DISTINCT_CARDS; code++) {
+			Rank rank = Card.rankOf(code);
+			boolean ace = rank == Rank.ACE;
+			int hardValue = ace ? 1 : rank.getValue();
+			CARD_DELTAS[code] = hardValue + ((ace ? 1 : 0) << ACE_SHIFT) + (1 << COUNT_SHIFT);
+		}
+	}
+	
+	private HandState() {
+	}
+	
+	public static int addCard(int state, int cardCode) {
+		return state + CARD_DELTAS[cardCode];
+	}
+	
+	public static int hardTotal(int state) {
+		return state & TOTAL_MASK;
+	}
+	
+	public static int aceCount(int state) {
+		return (state >>> ACE_SHIFT) & ACE_MASK;
+	}
+	
+	public static int cardCount(int state) {
+		return (state >>> COUNT_SHIFT) & COUNT_MASK;
+	}
+	
+	public static boolean isSoft(int state) {
+		return aceCount(state) > 0 && hardTotal(state) + SOFT_BONUS <= BLACKJACK_VALUE;
+	}
+	
+	public static int value(int state) {
+		int hardTotal = hardTotal(state);
+		return isSoft(state) ? hardTotal + SOFT_BONUS : hardTotal;
+	}
+	
+	public static boolean isBusted(int state) {
+		return hardTotal(state) > BLACKJACK_VALUE;
+	}
+	
+	public static boolean isBlackjack(int state) {
+		return cardCount(state) == 2 && value(state) == BLACKJACK_VALUE;
+	}
+}
@@ -1,58 +1,129 @@
 package models;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Getter
 public class Player {
 	private final String name;
 	private final Hand hand;
-	private int chipsAmount;
+	// The first entry is always hand, splitting adds the rest
+	@Getter(AccessLevel.NONE)
+	private final List<Hand> hands = new ArrayList<>();
+	private final Bankroll bankroll;
+	@Getter(AccessLevel.NONE)
+	private ChipLedger ledger = ChipLedger.NONE;
 	
 	public Player(@NonNull String name, int startingChips) {
+		this(name, new Bankroll(startingChips));
+	}
+	
+	/**
+	 * Pass the same Bankroll to a player at each table to share one balance between them.
+	 */
+	public Player(@NonNull String name, @NonNull Bankroll bankroll) {
 		this.name = name;
 		this.hand  = new Hand();
-		this.chipsAmount = startingChips;
+		this.hands.add(hand);
+		this.bankroll = bankroll;
+	}
+	
+	public int getChipsAmount() {
+		return (int) Math.min(bankroll.getBalance(), Integer.MAX_VALUE);
 	}
 	
 	public void addCard(@NonNull Card card) {
 		hand.addCard(card);
 	}
 	
+	/**
+	 * Whether the bet looks affordable, for deciding what to offer. Another table can spend the chips before the bet
+	 * is placed, so take the bet with tryBet.
+	 */
 	public boolean canBet(int betAmount) {
+		int chipsAmount = getChipsAmount();
 		return chipsAmount > 0 && chipsAmount >= betAmount;
 	}
 	
+	/**
+	 * Every chip change from here on is also recorded to the ledger, e.g. a BankrollStore.
+	 */
+	public void setLedger(@NonNull ChipLedger ledger) {
+		this.ledger = ledger;
+	}
+	
+	/**
+	 * Takes the stake in one atomic step, or returns false and leaves the chips alone if the player can't cover it.
+	 */
+	public boolean tryBet(int betAmount) {
+		if (betAmount < 1 || !bankroll.tryReserve(betAmount)) {
+			return false;
+		}
+		ledger.record(name, ChipLedger.EntryType.BET, -betAmount);
+		return true;
+	}
+	
+	/**
+	 * Same as tryBet for callers that have already checked the bet is affordable, throws if it isn't.
+	 */
 	public void bet(int betAmount) {
-		if (canBet(betAmount)) {
-			chipsAmount -= betAmount;
-		} else {
-			System.out.println("You don't have enough chips to bet that amount.");
+		if (!tryBet(betAmount)) {
+			throw new IllegalStateException(name + " doesn't have enough chips to bet " + betAmount);
+		}
+	}
+	
+	/**
+	 * Pays out a bet that was taken with bet, chipsDelta is the net win or loss on it (see GameEngine.chipsDelta), so
+	 * a win returns the stake plus winnings and a loss returns whatever wasn't lost.
+	 */
+	public void settleBet(int betAmount, int chipsDelta) {
+		bankroll.settle(betAmount, chipsDelta);
+		int returned = betAmount + chipsDelta;
+		if (returned != 0) {
+			ledger.record(name, ChipLedger.EntryType.PAYOUT, returned);
 		}
 	}
 	
-	public void winChips(int betAmount, PayoutType payoutType) {
-		int payout = calculatePayout(betAmount, payoutType);
-		chipsAmount += betAmount + payout;
+	public int getHandCount() {
+		return hands.size();
+	}
+	
+	public Hand getHand(int index) {
+		return hands.get(index);
+	}
+	
+	/**
+	 * Splits a two card hand into two, the second card moves to a new hand straight after it. Both hands are left with
+	 * one card each for the game to deal to.
+	 */
+	public void splitHand(int index) {
+		Hand original = hands.get(index);
+		if (original.getCardCount() != 2) {
+			throw new IllegalStateException("Only a two card hand can be split");
+		}
+		int firstCode = original.getCardCode(0);
+		int secondCode = original.getCardCode(1);
+		
+		original.clearCards();
+		original.addCardCode(firstCode);
+		Hand split = new Hand();
+		split.addCardCode(secondCode);
+		hands.add(index + 1, split);
 	}
 	
 	public void clearHand() {
 		hand.clearCards();
-		
+		hands.subList(1, hands.size()).clear();
 	}
 	
 	public enum PayoutType {
 		STANDARD,
 		BLACKJACK,
-		TIE
-	}
-	
-	public int calculatePayout(int betAmount, PayoutType payoutType) {
-		return switch (payoutType) {
-			case STANDARD -> betAmount;
-			case BLACKJACK -> (betAmount * 3) / 2;
-			case TIE -> 0;
-			default -> throw new IllegalArgumentException("Unknown payout type");
-		};
+		TIE,
+		SURRENDER
 	}
 }
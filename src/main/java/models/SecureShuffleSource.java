@@ -0,0 +1,22 @@
+package models;
+
+import java.security.SecureRandom;
+import java.util.OptionalLong;
+
+/**
+ * Backed by SecureRandom for real-money play. It is much slower than the other sources and deliberately has no seed,
+ * so its shoes can't be replayed from one.
+ */
+public final class SecureShuffleSource implements ShuffleSource {
+	private final SecureRandom random = new SecureRandom();
+	
+	@Override
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+	
+	@Override
+	public OptionalLong getSeed() {
+		return OptionalLong.empty();
+	}
+}
@@ -0,0 +1,55 @@
+package models;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+/**
+ * Gives every shuffle its own generator, derived from the seed and the shuffle's number, so a replay can jump
+ * straight to the 500th shuffle of a shoe without running the 499 before it. Used by recorded games.
+ */
+public final class SeekableShuffleSource implements ShuffleSource {
+	private final long seed;
+	private SplittableRandom random;
+	@Getter
+	private long shuffleCount;
+	
+	public SeekableShuffleSource() {
+		this(new SplittableRandom().nextLong());
+	}
+	
+	public SeekableShuffleSource(long seed) {
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Makes the next shuffle the one numbered shuffleCount (counting from 0).
+	 */
+	public void seek(long shuffleCount) {
+		if (shuffleCount < 0) {
+			throw new IllegalArgumentException("Shuffle count can't be negative");
+		}
+		this.shuffleCount = shuffleCount;
+	}
+	
+	@Override
+	public void shuffle(@NonNull byte[] cards, int length) {
+		// Seeds that differ by one give unrelated SplittableRandom outputs, so the first output makes a good seed
+		random = new SplittableRandom(new SplittableRandom(seed + shuffleCount).nextLong());
+		shuffleCount++;
+		ShuffleSource.super.shuffle(cards, length);
+	}
+	
+	@Override
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+	
+	@Override
+	public OptionalLong getSeed() {
+		return OptionalLong.of(seed);
+	}
+}
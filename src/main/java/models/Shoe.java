@@ -0,0 +1,182 @@
+package models;
+
+import events.GameEventStream;
+import lombok.Getter;
+import lombok.NonNull;
+import metrics.MetricsRegistry;
+
+import java.util.Arrays;
+
+/**
+ * A casino style shoe of 1-8 decks. The cards are held as codes (see Card.code) in one array that is allocated up
+ * front, dealing just moves a cursor along it and a reshuffle shuffles the same array in place. Rather than topping
+ * up when it gets low like Deck does, the shoe is reshuffled between rounds once the cursor passes the cut card, which
+ * sits at the configured penetration (e.g. 0.75 means three quarters of the shoe is dealt before a reshuffle).
+ * <p>
+ * Call shuffleIfNeeded between rounds, it also marks where the next round starts. If a round still runs out of cards
+ * (a deep penetration and a lot of splits), only the discards from earlier rounds are shuffled and dealt, the cards on
+ * the table stay out until the next full shuffle.
+ */
+public class Shoe {
+	public static final int MIN_DECKS = 1;
+	public static final int MAX_DECKS = 8;
+	
+	@Getter
+	private final int deckCount;
+	@Getter
+	private final double penetration;
+	private final byte[] cards;
+	private final int cutCardPosition;
+	@Getter
+	private final ShuffleSource shuffleSource;
+	private final GameEventStream events = GameEventStream.global();
+	private final MetricsRegistry metrics = MetricsRegistry.global();
+	private DealListener[] listeners = new DealListener[0];
+	private int cursor;
+	// Cards before roundStart are discards from finished rounds, cards from end on are in play after running out
+	private int roundStart;
+	private int end;
+	
+	public Shoe(int deckCount, double penetration) {
+		this(deckCount, penetration, new SplittableShuffleSource());
+	}
+	
+	public Shoe(int deckCount, double penetration, @NonNull ShuffleSource shuffleSource) {
+		if (deckCount < MIN_DECKS || deckCount > MAX_DECKS) {
+			throw new IllegalArgumentException("A shoe must hold between " + MIN_DECKS + " and " + MAX_DECKS + " decks");
+		}
+		if (penetration <= 0 || penetration > 1) {
+			throw new IllegalArgumentException("Penetration must be greater than 0 and at most 1");
+		}
+		
+		this.deckCount = deckCount;
+		this.penetration = penetration;
+		this.shuffleSource = shuffleSource;
+		this.cards = new byte[deckCount * Card.DISTINCT_CARDS];
+		this.cutCardPosition = (int) (cards.length * penetration);
+		this.end = cards.length;
+		
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = (byte) (i % Card.DISTINCT_CARDS);
+		}
+		shuffle();
+	}
+	
+	public int dealCardCode() {
+		// Only happens when a single round runs past the end of a deeply penetrated shoe
+		if (cursor == end) {
+			shuffleDiscards();
+		}
+		int cardCode = cards[cursor++];
+		for (DealListener listener : listeners) {
+			listener.cardDealt(cardCode);
+		}
+		events.publishCardDealt(cardCode, end - cursor);
+		return cardCode;
+	}
+	
+	public Card dealCard() {
+		return Card.fromCode(dealCardCode());
+	}
+	
+	public boolean needsShuffle() {
+		return cursor >= cutCardPosition || end < cards.length;
+	}
+	
+	/**
+	 * Shuffles if the cut card has come out, and marks the start of a new round either way.
+	 */
+	public boolean shuffleIfNeeded() {
+		boolean shuffled = needsShuffle();
+		if (shuffled) {
+			shuffle();
+		}
+		roundStart = cursor;
+		return shuffled;
+	}
+	
+	public void shuffle() {
+		shuffleSource.shuffle(cards, cards.length);
+		cursor = 0;
+		roundStart = 0;
+		end = cards.length;
+		announceShuffle(cards.length);
+	}
+	
+	/**
+	 * Shuffles the cards dealt in earlier rounds and deals on from those, leaving the ones in play at the back of the
+	 * array. The current round's cards have to be on the table, so if there are no discards there's nothing to deal.
+	 */
+	private void shuffleDiscards() {
+		if (roundStart == 0) {
+			throw new IllegalStateException("Every card in the shoe is already in play");
+		}
+		shuffleSource.shuffle(cards, roundStart);
+		end = roundStart;
+		roundStart = 0;
+		cursor = 0;
+		announceShuffle(end);
+	}
+	
+	private void announceShuffle(int shuffledCards) {
+		for (DealListener listener : listeners) {
+			listener.shuffled();
+		}
+		events.publishShuffle(shuffledCards, deckCount);
+		metrics.recordShuffle();
+	}
+	
+	public void addDealListener(@NonNull DealListener listener) {
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+	}
+	
+	public int getCardsRemaining() {
+		return end - cursor;
+	}
+	
+	/**
+	 * After running out in the middle of a round the whole shoe counts as dealt, since it's reshuffled before the next
+	 * one, which keeps a checkpoint taken then restoring to the same place.
+	 */
+	public int getCardsDealt() {
+		return end < cards.length ? cards.length : cursor;
+	}
+	
+	/**
+	 * A copy of every card in dealing order, which with getCardsDealt is all a checkpoint needs to put the shoe back.
+	 */
+	public byte[] getCardCodes() {
+		return cards.clone();
+	}
+	
+	/**
+	 * Puts the shoe back to a checkpoint taken with getCardCodes and getCardsDealt. Deal listeners aren't told, so
+	 * anything tracking the cards (like a CardCounter) has to be attached after.
+	 */
+	public void restore(@NonNull byte[] cardCodes, int cardsDealt) {
+		if (cardCodes.length != cards.length) {
+			throw new IllegalArgumentException("Checkpoint holds " + cardCodes.length + " cards, the shoe holds "
+					+ cards.length);
+		}
+		if (cardsDealt < 0 || cardsDealt > cards.length) {
+			throw new IllegalArgumentException("Cards dealt must be between 0 and " + cards.length);
+		}
+		System.arraycopy(cardCodes, 0, cards, 0, cards.length);
+		cursor = cardsDealt;
+		roundStart = cardsDealt;
+		end = cards.length;
+	}
+	
+	public int[] getRemainingRankCounts() {
+		int[] counts = new int[Rank.values().length];
+		for (int i = cursor; i < end; i++) {
+			counts[Card.rankOf(cards[i]).ordinal()]++;
+		}
+		return counts;
+	}
+	
+	public int getTotalCards() {
+		return cards.length;
+	}
+}
@@ -0,0 +1,59 @@
+package models;
+
+import lombok.NonNull;
+
+import java.util.OptionalLong;
+
+/**
+ * Where the randomness for a shuffle comes from. Every implementation shuffles card codes in place with Fisher-Yates,
+ * they only differ in the generator behind it, so a deployment can trade speed for certifiable randomness without
+ * touching Deck or Shoe. Seeded sources report their seed, so any sequence of shuffles can be replayed by building a
+ * new source from the same name and seed.
+ */
+public interface ShuffleSource {
+	String SPLITTABLE = "splittable";
+	String SECURE = "secure";
+	String SEEKABLE = "seekable";
+	
+	int nextInt(int bound);
+	
+	OptionalLong getSeed();
+	
+	default void shuffle(@NonNull byte[] cards, int length) {
+		for (int i = length - 1; i > 0; i--) {
+			int j = nextInt(i + 1);
+			byte card = cards[i];
+			cards[i] = cards[j];
+			cards[j] = card;
+		}
+	}
+	
+	static SplittableShuffleSource splittable(long seed) {
+		return new SplittableShuffleSource(seed);
+	}
+	
+	static SeekableShuffleSource seekable(long seed) {
+		return new SeekableShuffleSource(seed);
+	}
+	
+	static GeneratorShuffleSource generator(@NonNull String algorithm, long seed) {
+		return new GeneratorShuffleSource(algorithm, seed);
+	}
+	
+	static SecureShuffleSource secure() {
+		return new SecureShuffleSource();
+	}
+	
+	/**
+	 * Picks a source by name: "splittable", "secure", "seekable", or any algorithm from the JDK RandomGenerator family such as
+	 * "L64X128MixRandom" or "Xoshiro256PlusPlus". The seed is ignored for "secure".
+	 */
+	static ShuffleSource named(@NonNull String name, long seed) {
+		return switch (name) {
+			case SPLITTABLE -> splittable(seed);
+			case SECURE -> secure();
+			case SEEKABLE -> seekable(seed);
+			default -> generator(name, seed);
+		};
+	}
+}
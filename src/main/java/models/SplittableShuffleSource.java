@@ -0,0 +1,41 @@
+package models;
+
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+/**
+ * The fastest option and the one the simulations use. split() hands out independent streams, so each worker thread
+ * can shuffle without sharing a generator while the whole run stays reproducible from the root seed.
+ */
+public final class SplittableShuffleSource implements ShuffleSource {
+	private final SplittableRandom random;
+	private final OptionalLong seed;
+	
+	public SplittableShuffleSource() {
+		this(new SplittableRandom().nextLong());
+	}
+	
+	public SplittableShuffleSource(long seed) {
+		this.random = new SplittableRandom(seed);
+		this.seed = OptionalLong.of(seed);
+	}
+	
+	private SplittableShuffleSource(SplittableRandom random) {
+		this.random = random;
+		this.seed = OptionalLong.empty();
+	}
+	
+	public SplittableShuffleSource split() {
+		return new SplittableShuffleSource(random.split());
+	}
+	
+	@Override
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+	
+	@Override
+	public OptionalLong getSeed() {
+		return seed;
+	}
+}
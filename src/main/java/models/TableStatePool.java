@@ -0,0 +1,341 @@
+package models;
+
+import lombok.Getter;
+import lombok.NonNull;
+import metrics.MetricsRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of many tables packed into one direct (off-heap) buffer, for hosting far more tables than an object graph
+ * per table allows. Every table gets a fixed-size slot holding its shoe, the packed HandState of the dealer and of
+ * every seat's hands, each seat's chips and the shuffle generator, so a table costs its slot and nothing the GC has to
+ * trace, and recycling a table is a push onto the free list rather than garbage.
+ * <p>
+ * Slot layout: free list link, shoe cursor, where the round started and where the shoe ends (see Shoe), generator
+ * state, a long of chips per seat, the dealer's hand state, the seats' hand states (maxHands per seat), then one byte
+ * per card in the shoe, padded to 8 bytes. Shuffles use the same generator as SplittableShuffleSource, kept in the
+ * slot, so a slot deals exactly the cards a Shoe seeded the same way would, and runs out mid-round the same way too.
+ * <p>
+ * Allocating and releasing slots is lock free and can be done from any thread, but a slot belongs to the table it
+ * was handed to, so everything else is plain reads and writes that only that table's thread should make. Chips in a
+ * slot are that table's alone, players sharing a balance between tables still want a Bankroll.
+ */
+public final class TableStatePool {
+	// SplittableRandom's increment and mixing constants
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final int NEXT_FREE = 0;
+	private static final int CURSOR = 4;
+	private static final int ROUND_START = 8;
+	private static final int END = 12;
+	private static final int GENERATOR = 16;
+	private static final int CHIPS = 24;
+	private static final int NO_SLOT = -1;
+	private static final int IN_USE = -2;
+	
+	@Getter
+	private final int slots;
+	@Getter
+	private final int seats;
+	@Getter
+	private final int maxHands;
+	@Getter
+	private final int deckCount;
+	@Getter
+	private final int slotSize;
+	private final int totalCards;
+	private final int cutCardPosition;
+	private final int handsOffset;
+	private final int cardsOffset;
+	private final ByteBuffer buffer;
+	// Top free slot in the low 32 bits, bumped on every push and pop in the high 32 so a stale compare-and-set fails
+	private final AtomicLong freeHead;
+	private final AtomicLong inUse = new AtomicLong();
+	private final MetricsRegistry metrics;
+	
+	/**
+	 * Shuffles are counted in the given registry, MetricsRegistry.global() for tables that are really being played.
+	 */
+	public TableStatePool(int slots, int seats, int maxHands, int deckCount, double penetration,
+							@NonNull MetricsRegistry metrics) {
+		if (slots < 1 || seats < 1 || maxHands < 1) {
+			throw new IllegalArgumentException("A pool needs at least one slot, seat and hand");
+		}
+		if (deckCount < Shoe.MIN_DECKS || deckCount > Shoe.MAX_DECKS) {
+			throw new IllegalArgumentException("A shoe must hold between " + Shoe.MIN_DECKS + " and " + Shoe.MAX_DECKS
+					+ " decks");
+		}
+		if (penetration <= 0 || penetration > 1) {
+			throw new IllegalArgumentException("Penetration must be greater than 0 and at most 1");
+		}
+		
+		this.metrics = metrics;
+		this.slots = slots;
+		this.seats = seats;
+		this.maxHands = maxHands;
+		this.deckCount = deckCount;
+		this.totalCards = deckCount * Card.DISTINCT_CARDS;
+		this.cutCardPosition = (int) (totalCards * penetration);
+		this.handsOffset = CHIPS + seats * Long.BYTES;
+		this.cardsOffset = handsOffset + (1 + seats * maxHands) * Integer.BYTES;
+		this.slotSize = (cardsOffset + totalCards + Long.BYTES - 1) & -Long.BYTES;
+		if ((long) slots * slotSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A pool holds at most " + Integer.MAX_VALUE / slotSize
+					+ " tables of this size, use more than one pool");
+		}
+		this.buffer = ByteBuffer.allocateDirect(slots * slotSize).order(ByteOrder.nativeOrder());
+		
+		for (int slot = 0; slot < slots; slot++) {
+			buffer.putInt(slot * slotSize + NEXT_FREE, slot + 1 < slots ? slot + 1 : NO_SLOT);
+		}
+		this.freeHead = new AtomicLong(0);
+	}
+	
+	/**
+	 * Hands out a free slot with a freshly shuffled shoe, empty hands and the starting chips at every seat.
+	 *
+	 * @throws IllegalStateException if every slot is in use
+	 */
+	public int allocate(long seed, long startingChips) {
+		if (startingChips < 0) {
+			throw new IllegalArgumentException("Starting chips can't be negative");
+		}
+		int slot = pop();
+		int base = slot * slotSize;
+		buffer.putLong(base + GENERATOR, seed);
+		for (int seat = 0; seat < seats; seat++) {
+			buffer.putLong(base + CHIPS + seat * Long.BYTES, startingChips);
+		}
+		clearHands(slot);
+		for (int i = 0; i < totalCards; i++) {
+			buffer.put(base + cardsOffset + i, (byte) (i % Card.DISTINCT_CARDS));
+		}
+		shuffle(slot);
+		return slot;
+	}
+	
+	/**
+	 * Gives a slot back to the pool. The table mustn't touch it again, it may already belong to another table.
+	 */
+	public void release(int slot) {
+		int base = base(slot);
+		if (buffer.getInt(base + NEXT_FREE) != IN_USE) {
+			throw new IllegalStateException("Slot " + slot + " isn't in use");
+		}
+		while (true) {
+			long head = freeHead.get();
+			buffer.putInt(base + NEXT_FREE, (int) head);
+			if (freeHead.compareAndSet(head, stamped(head, slot))) {
+				inUse.decrementAndGet();
+				return;
+			}
+		}
+	}
+	
+	public long getTablesInUse() {
+		return inUse.get();
+	}
+	
+	public long getOffHeapBytes() {
+		return buffer.capacity();
+	}
+	
+	public int dealCardCode(int slot) {
+		int base = base(slot);
+		int cursor = buffer.getInt(base + CURSOR);
+		// Only happens when a single round runs past the end of a deeply penetrated shoe
+		if (cursor == buffer.getInt(base + END)) {
+			shuffleDiscards(base);
+			cursor = 0;
+		}
+		buffer.putInt(base + CURSOR, cursor + 1);
+		return buffer.get(base + cardsOffset + cursor);
+	}
+	
+	public boolean needsShuffle(int slot) {
+		int base = base(slot);
+		return buffer.getInt(base + CURSOR) >= cutCardPosition || buffer.getInt(base + END) < totalCards;
+	}
+	
+	/**
+	 * Shuffles if the cut card has come out, and marks the start of a new round either way.
+	 */
+	public boolean shuffleIfNeeded(int slot) {
+		boolean shuffled = needsShuffle(slot);
+		if (shuffled) {
+			shuffle(slot);
+		}
+		int base = base(slot);
+		buffer.putInt(base + ROUND_START, buffer.getInt(base + CURSOR));
+		return shuffled;
+	}
+	
+	public void shuffle(int slot) {
+		int base = base(slot);
+		shuffleCards(base, totalCards);
+		buffer.putInt(base + CURSOR, 0);
+		buffer.putInt(base + ROUND_START, 0);
+		buffer.putInt(base + END, totalCards);
+		metrics.recordShuffle();
+	}
+	
+	/**
+	 * Shuffles only the discards from earlier rounds and deals on from them, leaving the round's cards where they are.
+	 */
+	private void shuffleDiscards(int base) {
+		int roundStart = buffer.getInt(base + ROUND_START);
+		if (roundStart == 0) {
+			throw new IllegalStateException("Every card in the shoe is already in play");
+		}
+		shuffleCards(base, roundStart);
+		buffer.putInt(base + CURSOR, 0);
+		buffer.putInt(base + ROUND_START, 0);
+		buffer.putInt(base + END, roundStart);
+		metrics.recordShuffle();
+	}
+	
+	/**
+	 * Fisher-Yates over the first cards of the slot's shoe, drawing from the generator in the same order
+	 * ShuffleSource.shuffle does.
+	 */
+	private void shuffleCards(int base, int length) {
+		int cards = base + cardsOffset;
+		for (int i = length - 1; i > 0; i--) {
+			int j = nextInt(base, i + 1);
+			byte card = buffer.get(cards + i);
+			buffer.put(cards + i, buffer.get(cards + j));
+			buffer.put(cards + j, card);
+		}
+	}
+	
+	public int getCardsRemaining(int slot) {
+		int base = base(slot);
+		return buffer.getInt(base + END) - buffer.getInt(base + CURSOR);
+	}
+	
+	public int getDealerState(int slot) {
+		return buffer.getInt(base(slot) + handsOffset);
+	}
+	
+	public int addDealerCard(int slot, int cardCode) {
+		int position = base(slot) + handsOffset;
+		int state = HandState.addCard(buffer.getInt(position), cardCode);
+		buffer.putInt(position, state);
+		return state;
+	}
+	
+	public int getHandState(int slot, int seat, int hand) {
+		return buffer.getInt(handPosition(slot, seat, hand));
+	}
+	
+	/**
+	 * Adds a card to one of a seat's hands and returns the hand's new HandState.
+	 */
+	public int addCard(int slot, int seat, int hand, int cardCode) {
+		int position = handPosition(slot, seat, hand);
+		int state = HandState.addCard(buffer.getInt(position), cardCode);
+		buffer.putInt(position, state);
+		return state;
+	}
+	
+	/**
+	 * Empties the dealer's and every seat's hands, ready for the next round.
+	 */
+	public void clearHands(int slot) {
+		int hands = base(slot) + handsOffset;
+		for (int i = 0; i <= seats * maxHands; i++) {
+			buffer.putInt(hands + i * Integer.BYTES, HandState.EMPTY);
+		}
+	}
+	
+	public long getChips(int slot, int seat) {
+		return buffer.getLong(chipsPosition(slot, seat));
+	}
+	
+	/**
+	 * Takes a bet from the seat's chips, or returns false and changes nothing if they can't cover it.
+	 */
+	public boolean tryBet(int slot, int seat, int amount) {
+		if (amount < 1) {
+			throw new IllegalArgumentException("Bet amount must be at least 1");
+		}
+		int position = chipsPosition(slot, seat);
+		long chips = buffer.getLong(position);
+		if (chips < amount) {
+			return false;
+		}
+		buffer.putLong(position, chips - amount);
+		return true;
+	}
+	
+	/**
+	 * Pays out a bet taken with tryBet along with its net result (see GameEngine.chipsDelta).
+	 */
+	public void settle(int slot, int seat, int betAmount, int chipsDelta) {
+		long returned = (long) betAmount + chipsDelta;
+		if (betAmount < 0 || returned < 0) {
+			throw new IllegalArgumentException("Can't lose more than the " + betAmount + " chips bet");
+		}
+		int position = chipsPosition(slot, seat);
+		buffer.putLong(position, buffer.getLong(position) + returned);
+	}
+	
+	private int pop() {
+		while (true) {
+			long head = freeHead.get();
+			int slot = (int) head;
+			if (slot == NO_SLOT) {
+				throw new IllegalStateException("All " + slots + " table slots are in use");
+			}
+			int next = buffer.getInt(slot * slotSize + NEXT_FREE);
+			if (freeHead.compareAndSet(head, stamped(head, next))) {
+				buffer.putInt(slot * slotSize + NEXT_FREE, IN_USE);
+				inUse.incrementAndGet();
+				return slot;
+			}
+		}
+	}
+	
+	private static long stamped(long head, int slot) {
+		return ((head >>> 32) + 1) << 32 | (slot & 0xffffffffL);
+	}
+	
+	private int base(int slot) {
+		return Objects.checkIndex(slot, slots) * slotSize;
+	}
+	
+	private int handPosition(int slot, int seat, int hand) {
+		int index = 1 + Objects.checkIndex(seat, seats) * maxHands + Objects.checkIndex(hand, maxHands);
+		return base(slot) + handsOffset + index * Integer.BYTES;
+	}
+	
+	private int chipsPosition(int slot, int seat) {
+		return base(slot) + CHIPS + Objects.checkIndex(seat, seats) * Long.BYTES;
+	}
+	
+	/**
+	 * SplittableRandom.nextInt(bound) with the generator state kept in the slot, rejecting values that would make the
+	 * low results more likely.
+	 */
+	private int nextInt(int base, int bound) {
+		int m = bound - 1;
+		int r = nextInt(base);
+		if ((bound & m) == 0) {
+			return r & m;
+		}
+		for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt(base) >>> 1) {
+			// Try again
+		}
+		return r;
+	}
+	
+	private int nextInt(int base) {
+		long z = buffer.getLong(base + GENERATOR) + GOLDEN_GAMMA;
+		buffer.putLong(base + GENERATOR, z);
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+}
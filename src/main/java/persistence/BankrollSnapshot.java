@@ -0,0 +1,109 @@
+package persistence;
+
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Every balance as of one log sequence. Written to a temporary file, synced and then renamed into place, so a snapshot
+ * file is either complete or not there at all, and the trailing checksum catches anything else.
+ */
+record BankrollSnapshot(long sequence, Map<String, Integer> balances) {
+	private static final String PREFIX = "snapshot-";
+	private static final String SUFFIX = ".bin";
+	private static final int FILE_MAGIC = 0x424A424B;
+	private static final int FILE_VERSION = 1;
+	
+	static final BankrollSnapshot EMPTY = new BankrollSnapshot(0, Map.of());
+	
+	static boolean isSnapshot(@NonNull Path file) {
+		String name = file.getFileName().toString();
+		return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+	}
+	
+	static long sequenceOf(@NonNull Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+	
+	Path write(@NonNull Path directory) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(FILE_VERSION);
+			output.writeLong(sequence);
+			output.writeInt(balances.size());
+			for (Map.Entry<String, Integer> balance : balances.entrySet()) {
+				output.writeUTF(balance.getKey());
+				output.writeInt(balance.getValue());
+			}
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes.toByteArray());
+		new DataOutputStream(bytes).writeInt((int) crc.getValue());
+		
+		String name = String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+		Path temporary = directory.resolve(name + ".tmp");
+		Path file = directory.resolve(name);
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		syncDirectory(directory);
+		return file;
+	}
+	
+	/**
+	 * Makes the rename durable, before anything the snapshot replaces is deleted. Windows can't open a directory to
+	 * sync it, but NTFS journals the rename anyway.
+	 */
+	private static void syncDirectory(Path directory) throws IOException {
+		if (System.getProperty("os.name").startsWith("Windows")) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+	
+	static BankrollSnapshot read(@NonNull Path file) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		int bodyLength = bytes.length - Integer.BYTES;
+		if (bodyLength < 0) {
+			throw new IOException("Bankroll snapshot is truncated: " + file);
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes, 0, bodyLength);
+		if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bodyLength, Integer.BYTES).getInt()) {
+			throw new IOException("Bankroll snapshot is corrupt: " + file);
+		}
+		
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes, 0, bodyLength))) {
+			if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+				throw new IOException("Not a bankroll snapshot: " + file);
+			}
+			long sequence = input.readLong();
+			int count = input.readInt();
+			Map<String, Integer> balances = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				balances.put(input.readUTF(), input.readInt());
+			}
+			return new BankrollSnapshot(sequence, balances);
+		}
+	}
+}
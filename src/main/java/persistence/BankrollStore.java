@@ -0,0 +1,392 @@
+package persistence;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import models.ChipLedger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Player bankrolls kept on local disk. Every chip movement is appended to a memory-mapped write-ahead log and applied
+ * to the in-memory balance under one short lock, so recording a bet is a couple of buffer writes. A flusher thread
+ * syncs the log every few milliseconds (or sooner when someone is waiting in awaitDurable), so all the records from
+ * that window share one fsync. Every so often it also writes a snapshot of all balances and deletes the log segments
+ * the snapshot covers. Opening a store loads the newest good snapshot and replays the log after it.
+ */
+@Slf4j
+public class BankrollStore implements ChipLedger, AutoCloseable {
+	public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".blackjack", "bankroll");
+	public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2;
+	public static final long DEFAULT_SNAPSHOT_INTERVAL = 1_000_000;
+	
+	private final Path directory;
+	private final int segmentSize;
+	private final long flushIntervalNanos;
+	private final long snapshotInterval;
+	
+	private final ReentrantLock appendLock = new ReentrantLock();
+	private final Map<String, Account> accounts = new HashMap<>();
+	private LogSegment segment;
+	// Only written with appendLock held
+	@Getter
+	private volatile long lastSequence;
+	
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final Condition flushRequested = flushLock.newCondition();
+	private final Condition flushed = flushLock.newCondition();
+	private boolean flushWanted;
+	@Getter
+	private volatile long durableSequence;
+	private long snapshotSequence;
+	// Held from building a snapshot until the files it replaces are gone, so two can't delete each other's
+	private final ReentrantLock snapshotLock = new ReentrantLock();
+	// First sequence recover() couldn't reach, 0 if the log had no gaps
+	private long skippedSequence;
+	
+	private final Thread flusher;
+	private volatile boolean running = true;
+	
+	public BankrollStore(@NonNull Path directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+	
+	public BankrollStore(@NonNull Path directory, int segmentSize, long flushIntervalMillis, long snapshotInterval)
+			throws IOException {
+		if (segmentSize < 1024) {
+			throw new IllegalArgumentException("Segment size must be at least 1 KB");
+		}
+		if (flushIntervalMillis < 1 || snapshotInterval < 1) {
+			throw new IllegalArgumentException("Flush and snapshot intervals must be positive");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		this.snapshotInterval = snapshotInterval;
+		
+		Files.createDirectories(directory);
+		recover();
+		deleteUnreachableSegments();
+		this.segment = LogSegment.create(directory, lastSequence + 1, segmentSize);
+		
+		this.flusher = Thread.ofPlatform().name("bankroll-flusher").daemon().start(this::flushLoop);
+	}
+	
+	private void recover() throws IOException {
+		BankrollSnapshot snapshot = latestSnapshot();
+		snapshot.balances().forEach((name, balance) -> account(name).balance = balance);
+		lastSequence = snapshot.sequence();
+		snapshotSequence = snapshot.sequence();
+		
+		int replayed = 0;
+		for (Path file : listFiles(LogSegment::isSegment, LogSegment::firstSequenceOf)) {
+			replayed += LogSegment.replay(file, entry -> {
+				if (entry.sequence() == lastSequence + 1) {
+					account(entry.playerName()).balance += entry.delta();
+					lastSequence = entry.sequence();
+				} else if (entry.sequence() > lastSequence + 1 && skippedSequence == 0) {
+					skippedSequence = entry.sequence();
+				}
+			});
+		}
+		durableSequence = lastSequence;
+		if (skippedSequence != 0) {
+			log.warn("Bankroll log skips from {} to {}, ignoring the rest", lastSequence, skippedSequence);
+		}
+		
+		if (lastSequence > 0) {
+			log.info("Recovered {} bankrolls from {} (snapshot at {}, {} log records read)", accounts.size(),
+					directory, snapshot.sequence(), replayed);
+		}
+	}
+	
+	/**
+	 * Deletes segments starting after the last record recovered. One starting right after it can only hold a torn
+	 * first record, anything later is past a gap, and either would be in the way when the log rolls onto its name.
+	 */
+	private void deleteUnreachableSegments() throws IOException {
+		for (Path file : listFiles(LogSegment::isSegment, LogSegment::firstSequenceOf)) {
+			long firstSequence = LogSegment.firstSequenceOf(file);
+			if (firstSequence > lastSequence + 1) {
+				log.warn("Deleting bankroll log segment {}, it starts after the last record recovered", file);
+			}
+			if (firstSequence > lastSequence) {
+				Files.delete(file);
+			}
+		}
+	}
+	
+	private BankrollSnapshot latestSnapshot() throws IOException {
+		List<Path> snapshots = listFiles(BankrollSnapshot::isSnapshot, BankrollSnapshot::sequenceOf);
+		for (Path file : snapshots.reversed()) {
+			try {
+				return BankrollSnapshot.read(file);
+			} catch (IOException e) {
+				log.warn("Skipping unreadable bankroll snapshot {}", file, e);
+			}
+		}
+		return BankrollSnapshot.EMPTY;
+	}
+	
+	private List<Path> listFiles(Predicate<Path> filter, ToLongFunction<Path> sequence) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(filter).sorted(Comparator.comparingLong(sequence)).toList();
+		}
+	}
+	
+	/**
+	 * Returns the player's balance, opening the account with startingChips if they're new. A player who went broke
+	 * last time is topped back up to startingChips, the same as starting a fresh game.
+	 */
+	public int openAccount(@NonNull String playerName, int startingChips) {
+		appendLock.lock();
+		try {
+			Account account = accounts.get(playerName);
+			int balance = account == null ? 0 : account.balance;
+			if (balance <= 0 && startingChips > 0) {
+				append(playerName, EntryType.DEPOSIT, startingChips - balance);
+				return startingChips;
+			}
+			return balance;
+		} finally {
+			appendLock.unlock();
+		}
+	}
+	
+	public OptionalInt getBalance(@NonNull String playerName) {
+		appendLock.lock();
+		try {
+			Account account = accounts.get(playerName);
+			return account == null ? OptionalInt.empty() : OptionalInt.of(account.balance);
+		} finally {
+			appendLock.unlock();
+		}
+	}
+	
+	public Map<String, Integer> getBalances() {
+		appendLock.lock();
+		try {
+			Map<String, Integer> balances = new LinkedHashMap<>();
+			accounts.forEach((name, account) -> balances.put(name, account.balance));
+			return balances;
+		} finally {
+			appendLock.unlock();
+		}
+	}
+	
+	@Override
+	public void record(@NonNull String playerName, @NonNull EntryType type, int delta) {
+		append(playerName, type, delta);
+	}
+	
+	/**
+	 * Logs the movement and applies it to the balance, returning its sequence number. The record is in the page
+	 * cache straight away, pass the sequence to awaitDurable to wait until it has been synced to disk.
+	 */
+	public long append(@NonNull String playerName, @NonNull EntryType type, int delta) {
+		if (!running) {
+			throw new IllegalStateException("Bankroll store is closed");
+		}
+		appendLock.lock();
+		try {
+			Account account = account(playerName);
+			long sequence = lastSequence + 1;
+			if (!segment.append(sequence, type, delta, account.nameBytes)) {
+				rollSegment(sequence);
+				if (!segment.append(sequence, type, delta, account.nameBytes)) {
+					throw new IllegalStateException("Log record doesn't fit in an empty segment");
+				}
+			}
+			account.balance += delta;
+			lastSequence = sequence;
+			return sequence;
+		} finally {
+			appendLock.unlock();
+		}
+	}
+	
+	public void awaitDurable(long sequence) throws InterruptedException {
+		flushLock.lock();
+		try {
+			while (durableSequence < sequence && running) {
+				flushWanted = true;
+				flushRequested.signal();
+				flushed.await();
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	/**
+	 * Writes every balance to a snapshot and deletes the log segments before it. Called by the flusher every
+	 * snapshotInterval records, close writes its own.
+	 */
+	private void snapshot() throws IOException {
+		snapshotLock.lock();
+		try {
+			BankrollSnapshot snapshot;
+			long keepFrom;
+			appendLock.lock();
+			try {
+				if (lastSequence == snapshotSequence) {
+					return;
+				}
+				snapshot = new BankrollSnapshot(lastSequence, getBalances());
+				if (segment.getFirstSequence() <= lastSequence) {
+					rollSegment(lastSequence + 1);
+				}
+				keepFrom = segment.getFirstSequence();
+				snapshotSequence = lastSequence;
+			} finally {
+				appendLock.unlock();
+			}
+			writeSnapshot(snapshot, keepFrom);
+		} finally {
+			snapshotLock.unlock();
+		}
+	}
+	
+	private void writeSnapshot(BankrollSnapshot snapshot, long keepSegmentsFrom) throws IOException {
+		snapshot.write(directory);
+		for (Path file : listFiles(LogSegment::isSegment, LogSegment::firstSequenceOf)) {
+			if (LogSegment.firstSequenceOf(file) < keepSegmentsFrom) {
+				Files.deleteIfExists(file);
+			}
+		}
+		for (Path file : listFiles(BankrollSnapshot::isSnapshot, BankrollSnapshot::sequenceOf)) {
+			if (BankrollSnapshot.sequenceOf(file) < snapshot.sequence()) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+	
+	// Only called with appendLock held
+	private void rollSegment(long firstSequence) {
+		try {
+			segment.close();
+			segment = LogSegment.create(directory, firstSequence, segmentSize);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not roll the bankroll log", e);
+		}
+	}
+	
+	private Account account(String playerName) {
+		return accounts.computeIfAbsent(playerName, Account::new);
+	}
+	
+	private void flushLoop() {
+		while (running) {
+			flushLock.lock();
+			try {
+				if (!flushWanted) {
+					flushRequested.awaitNanos(flushIntervalNanos);
+				}
+				flushWanted = false;
+			} catch (InterruptedException e) {
+				return;
+			} finally {
+				flushLock.unlock();
+			}
+			
+			try {
+				flush();
+				if (lastSequence - snapshotSequence >= snapshotInterval) {
+					snapshot();
+				}
+			} catch (IOException | UncheckedIOException e) {
+				log.error("Bankroll flush failed", e);
+			}
+		}
+	}
+	
+	private void flush() {
+		long target;
+		LogSegment current;
+		appendLock.lock();
+		try {
+			target = lastSequence;
+			current = segment;
+		} finally {
+			appendLock.unlock();
+		}
+		if (target <= durableSequence) {
+			return;
+		}
+		
+		// Earlier segments were synced when they were rolled, so only the current one can have unsynced records
+		current.force();
+		flushLock.lock();
+		try {
+			durableSequence = target;
+			flushed.signalAll();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		flusher.interrupt();
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		appendLock.lock();
+		try {
+			segment.close();
+			durableSequence = lastSequence;
+		} finally {
+			appendLock.unlock();
+		}
+		flushLock.lock();
+		try {
+			flushed.signalAll();
+		} finally {
+			flushLock.unlock();
+		}
+		snapshotLock.lock();
+		try {
+			if (lastSequence != snapshotSequence) {
+				writeSnapshot(new BankrollSnapshot(lastSequence, getBalances()), Long.MAX_VALUE);
+			}
+		} finally {
+			snapshotLock.unlock();
+		}
+	}
+	
+	private static final class Account {
+		private final byte[] nameBytes;
+		private int balance;
+		
+		private Account(String name) {
+			this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+			if (nameBytes.length > LogSegment.MAX_NAME_BYTES) {
+				throw new IllegalArgumentException("Player name is too long to log: " + name);
+			}
+		}
+	}
+}
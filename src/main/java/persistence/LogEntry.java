@@ -0,0 +1,9 @@
+package persistence;
+
+import models.ChipLedger;
+
+/**
+ * One chip movement read back from the write-ahead log.
+ */
+public record LogEntry(long sequence, ChipLedger.EntryType type, String playerName, int delta) {
+}
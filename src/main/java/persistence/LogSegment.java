@@ -0,0 +1,141 @@
+package persistence;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.ChipLedger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped file of the write-ahead log. Each record is its payload length and a CRC32C of the payload,
+ * followed by the payload (sequence, entry type, delta, then the player's name as UTF-8). The file is zero filled
+ * when it's created, so replay stops at the first zero length, and a torn write at the tail fails its checksum.
+ */
+final class LogSegment implements AutoCloseable {
+	private static final String PREFIX = "wal-";
+	private static final String SUFFIX = ".log";
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	private static final int FIXED_PAYLOAD_SIZE = Long.BYTES + Byte.BYTES + Integer.BYTES + Short.BYTES;
+	static final int MAX_NAME_BYTES = 255;
+	
+	@Getter
+	private final Path file;
+	@Getter
+	private final long firstSequence;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	// Reused for every record so appending allocates nothing
+	private final byte[] payload = new byte[FIXED_PAYLOAD_SIZE + MAX_NAME_BYTES];
+	private final ByteBuffer payloadBuffer = ByteBuffer.wrap(payload);
+	private final CRC32C crc = new CRC32C();
+	
+	private LogSegment(Path file, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+		this.file = file;
+		this.firstSequence = firstSequence;
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+	
+	static LogSegment create(@NonNull Path directory, long firstSequence, int size) throws IOException {
+		Path file = directory.resolve(fileName(firstSequence));
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		channel.force(true);
+		return new LogSegment(file, firstSequence, channel, buffer);
+	}
+	
+	static String fileName(long firstSequence) {
+		return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+	}
+	
+	static boolean isSegment(@NonNull Path file) {
+		String name = file.getFileName().toString();
+		return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+	}
+	
+	static long firstSequenceOf(@NonNull Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+	
+	/**
+	 * Returns false without writing anything when the record doesn't fit, so the caller can roll to a new segment.
+	 */
+	boolean append(long sequence, @NonNull ChipLedger.EntryType type, int delta, @NonNull byte[] name) {
+		int payloadSize = FIXED_PAYLOAD_SIZE + name.length;
+		if (buffer.remaining() < HEADER_SIZE + payloadSize) {
+			return false;
+		}
+		
+		payloadBuffer.clear();
+		payloadBuffer.putLong(sequence).put((byte) type.ordinal()).putInt(delta)
+				.putShort((short) name.length).put(name);
+		crc.reset();
+		crc.update(payload, 0, payloadSize);
+		
+		buffer.putInt(payloadSize).putInt((int) crc.getValue()).put(payload, 0, payloadSize);
+		return true;
+	}
+	
+	void force() {
+		buffer.force();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+	
+	/**
+	 * Hands every intact record to the consumer in order and returns how many there were. Anything after the first
+	 * record that's torn, corrupt or out of sequence is ignored, it was never acknowledged as durable.
+	 */
+	static int replay(@NonNull Path file, @NonNull Consumer<LogEntry> consumer) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+		CRC32C checksum = new CRC32C();
+		long previousSequence = firstSequenceOf(file) - 1;
+		int count = 0;
+		
+		while (data.remaining() >= HEADER_SIZE) {
+			int payloadSize = data.getInt();
+			int expectedCrc = data.getInt();
+			if (payloadSize < FIXED_PAYLOAD_SIZE || payloadSize > FIXED_PAYLOAD_SIZE + MAX_NAME_BYTES
+					|| payloadSize > data.remaining()) {
+				break;
+			}
+			
+			checksum.reset();
+			checksum.update(data.array(), data.position(), payloadSize);
+			if ((int) checksum.getValue() != expectedCrc) {
+				break;
+			}
+			
+			long sequence = data.getLong();
+			int typeCode = data.get();
+			int delta = data.getInt();
+			int nameLength = data.getShort();
+			if (sequence != previousSequence + 1 || nameLength != payloadSize - FIXED_PAYLOAD_SIZE
+					|| typeCode < 0 || typeCode >= ChipLedger.EntryType.values().length) {
+				break;
+			}
+			String name = new String(data.array(), data.position(), nameLength, StandardCharsets.UTF_8);
+			data.position(data.position() + nameLength);
+			
+			consumer.accept(new LogEntry(sequence, ChipLedger.EntryType.fromCode(typeCode), name, delta));
+			previousSequence = sequence;
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,66 @@
+package players;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Bankroll;
+import models.Hand;
+import strategy.Decision;
+import strategy.Strategy;
+
+/**
+ * A seat at BlackjackGame played by a Strategy, for filling tables with automated players in load tests and
+ * simulations. Every decision is made from the hand's packed state. The bot plays a fixed number of rounds, or until
+ * it runs out of chips.
+ * <p>
+ * Bind the strategy to the table's shoe first if it counts cards.
+ */
+public final class BotPlayer extends TablePlayer {
+	@Getter
+	private final Strategy strategy;
+	private final long rounds;
+	@Getter
+	private long roundsPlayed;
+	
+	public BotPlayer(@NonNull String name, int startingChips, @NonNull Strategy strategy, long rounds) {
+		super(name, startingChips);
+		this.strategy = strategy;
+		this.rounds = rounds;
+	}
+	
+	public BotPlayer(@NonNull String name, @NonNull Bankroll bankroll, @NonNull Strategy strategy, long rounds) {
+		super(name, bankroll);
+		this.strategy = strategy;
+		this.rounds = rounds;
+	}
+	
+	@Override
+	public int getBetAmount() {
+		int maxBet = getChipsAmount();
+		if (maxBet == 0 || roundsPlayed >= rounds) {
+			return 0;
+		}
+		return Math.max(1, Math.min(strategy.getBetAmount(maxBet), maxBet));
+	}
+	
+	@Override
+	public Decision chooseAction(@NonNull Hand hand, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+								 boolean canSurrender) {
+		return strategy.decide(hand.getState(), dealerVisibleValue, canDouble, canSplit, canSurrender);
+	}
+	
+	@Override
+	public boolean wantsToResplitAces(@NonNull Hand hand, int dealerVisibleValue) {
+		return strategy.decide(hand.getState(), dealerVisibleValue, false, true, false) == Decision.SPLIT;
+	}
+	
+	@Override
+	public boolean wantsInsurance(int insuranceBet) {
+		return insuranceBet > 0 && canBet(insuranceBet) && strategy.wantsInsurance();
+	}
+	
+	@Override
+	public boolean wantsToPlayAgain() {
+		roundsPlayed++;
+		return roundsPlayed < rounds && getChipsAmount() > 0;
+	}
+}
@@ -4,40 +4,30 @@ import models.Card;
 import models.Player;
 import models.Rank;
 
-import java.util.List;
-
 /**
- * Dealer logic, following standard rules of blackjack, which is if the dealer is at or above 17 then they must always
- * stand, irrespective of the players hand.
+ * The dealer's seat. When the dealer draws is down to the table rules, so that lives in GameEngine.shouldDealerHit
+ * (standing on 17, or hitting soft 17 under H17) and this just handles what the players get to see.
  */
 public class DealerNpc  extends Player {
-	private static final int DEALER_HIT_THRESHOLD = 17;
 	
 	public DealerNpc() {
 		super("Dealer", Integer.MAX_VALUE);
 	}
 	
-	public boolean shouldHit() {
-		return getHand().getHandValue() < DEALER_HIT_THRESHOLD;
-	}
-	
 	public String getVisibleHand() {
-		List<Card> cards = getHand().getCards();
-		
-		if (cards.isEmpty()) {
+		if (getHand().getCardCount() == 0) {
 			return "No cards";
 		}
 		
-		return cards.getFirst() + ", [ Hidden card ]";
+		return getHand().getCard(0) + ", [ Hidden card ]";
 	}
 	
 	public int getVisibleValue() {
-		List<Card> cards = getHand().getCards();
-		if (cards.isEmpty()) {
+		if (getHand().getCardCount() == 0) {
 			return 0;
 		}
 		
-		Card firstCard = cards.getFirst();
+		Card firstCard = getHand().getCard(0);
 		
 		if (firstCard.rank() == Rank.ACE) {
 			return 11;
@@ -46,6 +36,6 @@ public class DealerNpc  extends Player {
 	}
 	
 	public String getFullHand() {
-		return getHand().toString() + " (Value: " + getHand().getHandValue() + ")";
+		return getHand().toStringWithValue();
 	}
 }
@@ -1,28 +1,75 @@
 package players;
 
 import lombok.NonNull;
-import models.Player;
-import ui.ConsoleUi;
+import models.Bankroll;
+import models.Hand;
+import strategy.Decision;
+import ui.PlayerChannel;
 
-public class HumanPlayer extends Player {
+import java.util.ArrayList;
+import java.util.List;
+
+public class HumanPlayer extends TablePlayer {
 	
 	private static final String HIT = "h";
 	private static final String STAND = "s";
+	private static final String DOUBLE = "d";
+	private static final String SPLIT = "p";
+	private static final String SURRENDER = "r";
 	private static final String YES = "y";
 	private static final String NO = "n";
 	
-	private final ConsoleUi ui;
+	private final PlayerChannel ui;
 	
-	public HumanPlayer(@NonNull String name, int startingChips, @NonNull ConsoleUi ui) {
+	public HumanPlayer(@NonNull String name, int startingChips, @NonNull PlayerChannel ui) {
 		super(name, startingChips);
 		this.ui = ui;
 	}
 	
-	public boolean wantsToHit() {
-		String choice = ui.getPlayerChoice("Hit (h) or Stand (s)?", HIT, STAND);
-		return choice.equalsIgnoreCase(HIT);
+	public HumanPlayer(@NonNull String name, @NonNull Bankroll bankroll, @NonNull PlayerChannel ui) {
+		super(name, bankroll);
+		this.ui = ui;
+	}
+	
+	/**
+	 * Asks for the next move on the hand being played, only offering the extra options the rules allow right now. The
+	 * hand and upcard are already on screen.
+	 */
+	@Override
+	public Decision chooseAction(@NonNull Hand hand, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+								 boolean canSurrender) {
+		List<String> options = new ArrayList<>(List.of("Hit (h)", "Stand (s)"));
+		List<String> choices = new ArrayList<>(List.of(HIT, STAND));
+		if (canDouble) {
+			options.add("Double (d)");
+			choices.add(DOUBLE);
+		}
+		if (canSplit) {
+			options.add("Split (p)");
+			choices.add(SPLIT);
+		}
+		if (canSurrender) {
+			options.add("Surrender (r)");
+			choices.add(SURRENDER);
+		}
+		
+		String prompt = String.join(", ", options.subList(0, options.size() - 1)) + " or " + options.getLast() + "?";
+		String choice = ui.getPlayerChoice(prompt, choices.toArray(String[]::new));
+		return switch (choice) {
+			case DOUBLE -> Decision.DOUBLE;
+			case SPLIT -> Decision.SPLIT;
+			case SURRENDER -> Decision.SURRENDER;
+			case STAND -> Decision.STAND;
+			default -> Decision.HIT;
+		};
+	}
+	
+	@Override
+	public boolean wantsToResplitAces(@NonNull Hand hand, int dealerVisibleValue) {
+		return ui.getPlayerChoice("Split (p) or Stand (s)?", SPLIT, STAND).equals(SPLIT);
 	}
 	
+	@Override
 	public int getBetAmount() {
 		int maxBet = getChipsAmount();
 		
@@ -37,6 +84,7 @@ public class HumanPlayer extends Player {
 		);
 	}
 	
+	@Override
 	public boolean wantsToPlayAgain() {
 		if (getChipsAmount() == 0) {
 			ui.displayMessage("You're out of chips! Game over.");
@@ -47,12 +95,14 @@ public class HumanPlayer extends Player {
 		return choice.equals(YES);
 	}
 	
-	public boolean wantsToDoubleDown(int currentBet) {
-		if (getChipsAmount() < currentBet || getHand().getCards().size() != 2) {
+	@Override
+	public boolean wantsInsurance(int insuranceBet) {
+		if (insuranceBet == 0 || !canBet(insuranceBet)) {
 			return false;
 		}
 		
-		String choice = ui.getPlayerChoice("Double down? (y/n)", YES, NO);
+		String choice = ui.getPlayerChoice("Dealer shows an ace. Take insurance for " + insuranceBet + " chips? (y/n)",
+				YES, NO);
 		return choice.equals(YES);
 	}
 }
@@ -0,0 +1,34 @@
+package players;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Player;
+import strategy.Strategy;
+
+/**
+ * Headless counterpart to HumanPlayer, every decision is handed to a Strategy instead of the console.
+ */
+public class SimulatedPlayer extends Player {
+	
+	@Getter
+	private final Strategy strategy;
+	
+	public SimulatedPlayer(@NonNull String name, int startingChips, @NonNull Strategy strategy) {
+		super(name, startingChips);
+		this.strategy = strategy;
+	}
+	
+	public boolean wantsToHit(int dealerVisibleValue) {
+		return strategy.wantsToHit(getHand(), dealerVisibleValue);
+	}
+	
+	public int getBetAmount() {
+		int maxBet = getChipsAmount();
+		
+		if (maxBet == 0) {
+			return 0;
+		}
+		
+		return Math.max(1, Math.min(strategy.getBetAmount(maxBet), maxBet));
+	}
+}
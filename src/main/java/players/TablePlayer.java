@@ -0,0 +1,44 @@
+package players;
+
+import lombok.NonNull;
+import models.Bankroll;
+import models.Hand;
+import models.Player;
+import strategy.Decision;
+
+/**
+ * A player who can take a seat in BlackjackGame, answering from the console (HumanPlayer) or from a Strategy
+ * (BotPlayer).
+ */
+public abstract class TablePlayer extends Player {
+	
+	protected TablePlayer(@NonNull String name, int startingChips) {
+		super(name, startingChips);
+	}
+	
+	protected TablePlayer(@NonNull String name, @NonNull Bankroll bankroll) {
+		super(name, bankroll);
+	}
+	
+	/**
+	 * Zero means the player is leaving the table.
+	 */
+	public abstract int getBetAmount();
+	
+	/**
+	 * The next move on the hand being played against the dealer's upcard (2-11), only choosing the extra options the
+	 * rules allow right now.
+	 */
+	public abstract Decision chooseAction(@NonNull Hand hand, int dealerVisibleValue, boolean canDouble,
+										  boolean canSplit, boolean canSurrender);
+	
+	/**
+	 * A split ace that pairs up again can only stand or, when the rules allow, be split again, so this is the whole
+	 * choice for it.
+	 */
+	public abstract boolean wantsToResplitAces(@NonNull Hand hand, int dealerVisibleValue);
+	
+	public abstract boolean wantsInsurance(int insuranceBet);
+	
+	public abstract boolean wantsToPlayAgain();
+}
@@ -0,0 +1,15 @@
+package replay;
+
+/**
+ * The table as it stood at the start of a round: the player's chips and the shoe, card for card. Hands are always
+ * empty between rounds, so there's nothing else to keep.
+ *
+ * @param round        the round about to start
+ * @param chips        the player's chips before the bet
+ * @param shuffleCount shuffles the shoe had been through
+ * @param cardsDealt   where the shoe's cursor was
+ * @param cardCodes    every card in the shoe in dealing order
+ * @param offset       where in the recording the answers from this round on start
+ */
+public record Checkpoint(long round, int chips, long shuffleCount, int cardsDealt, byte[] cardCodes, int offset) {
+}
@@ -0,0 +1,31 @@
+package replay;
+
+/**
+ * Layout of a table recording. The header holds the table setup: magic, version, shuffle seed, penetration, the
+ * rules and the player's name. After that it's one record per answer the player gave, in the order the game asked:
+ * <pre>
+ * CHOICE      tag, byte index into the choices offered
+ * NUMBER      tag, int value
+ * CHECKPOINT  tag, long round, int chips, long shuffle count, int cards dealt, every card code in the shoe
+ * </pre>
+ * A checkpoint is written at the start of every checkpointInterval-th round, before the bet is asked for, so the
+ * answers after it are exactly the ones needed to carry on from it.
+ */
+final class RecordingFormat {
+	static final int MAGIC = 0x424A5243;
+	static final int VERSION = 1;
+	
+	static final byte CHOICE = 1;
+	static final byte NUMBER = 2;
+	static final byte CHECKPOINT = 3;
+	
+	static final int CHOICE_SIZE = 1 + Byte.BYTES;
+	static final int NUMBER_SIZE = 1 + Integer.BYTES;
+	
+	private RecordingFormat() {
+	}
+	
+	static int checkpointSize(int shoeCards) {
+		return 1 + Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + shoeCards;
+	}
+}
@@ -0,0 +1,23 @@
+package replay;
+
+/**
+ * What a replay covered.
+ *
+ * @param startRound          the checkpoint round the replay started from
+ * @param roundsPlayed        rounds played through to the end
+ * @param checkpointsVerified checkpoints passed on the way that the replay matched exactly
+ * @param chips               the player's chips where the replay stopped
+ * @param reachedEnd          whether it ran to the end of the recording rather than stopping at the requested round
+ * @param elapsedNanos        wall time of the replay
+ */
+public record ReplayResult(long startRound, long roundsPlayed, long checkpointsVerified, int chips,
+							boolean reachedEnd, long elapsedNanos) {
+	
+	public String summary() {
+		double seconds = elapsedNanos / 1e9;
+		return String.format("Replayed %,d rounds from round %,d in %.3fs (%,.0f rounds/second), %,d checkpoints "
+						+ "verified, %d chips at the end%s",
+				roundsPlayed, startRound, seconds, roundsPlayed / seconds, checkpointsVerified, chips,
+				reachedEnd ? " of the recording" : "");
+	}
+}
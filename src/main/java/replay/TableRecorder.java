@@ -0,0 +1,170 @@
+package replay;
+
+import game.RoundListener;
+import game.RuleSet;
+import lombok.Getter;
+import lombok.NonNull;
+import models.Player;
+import models.SeekableShuffleSource;
+import models.Shoe;
+import ui.GameDisplay;
+import ui.PlayerChannel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records a table so TableReplayer can play it again exactly: the shoe's seed up front, then every answer the player
+ * gives, with a checkpoint of chips and shoe every so many rounds so a replay can start near any round. Wrap the
+ * player's channel with record() and set this as the game's round listener. The file is flushed at the start of each
+ * round, so a crash only loses the answers from the round in play.
+ */
+public class TableRecorder implements RoundListener, AutoCloseable {
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+	
+	private final DataOutputStream out;
+	private final SeekableShuffleSource shuffleSource;
+	private final int checkpointInterval;
+	@Getter
+	private final TableSetup setup;
+	private long lastCheckpointRound = -1;
+	
+	public TableRecorder(@NonNull Path file, @NonNull String playerName, @NonNull RuleSet rules, @NonNull Shoe shoe)
+			throws IOException {
+		this(file, playerName, rules, shoe, DEFAULT_CHECKPOINT_INTERVAL);
+	}
+	
+	public TableRecorder(@NonNull Path file, @NonNull String playerName, @NonNull RuleSet rules, @NonNull Shoe shoe,
+							int checkpointInterval) throws IOException {
+		if (!(shoe.getShuffleSource() instanceof SeekableShuffleSource seekable)) {
+			throw new IllegalArgumentException("Only a shoe with a SeekableShuffleSource can be recorded");
+		}
+		if (checkpointInterval < 1) {
+			throw new IllegalArgumentException("Checkpoint interval must be positive");
+		}
+		this.shuffleSource = seekable;
+		this.checkpointInterval = checkpointInterval;
+		this.setup = new TableSetup(playerName, rules, shoe.getPenetration(), seekable.getSeed().orElseThrow());
+		this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+		writeHeader();
+	}
+	
+	private void writeHeader() throws IOException {
+		RuleSet rules = setup.rules();
+		out.writeInt(RecordingFormat.MAGIC);
+		out.writeInt(RecordingFormat.VERSION);
+		out.writeLong(setup.seed());
+		out.writeDouble(setup.penetration());
+		out.writeByte(rules.deckCount());
+		out.writeBoolean(rules.dealerHitsSoft17());
+		out.writeBoolean(rules.doubleAfterSplit());
+		out.writeByte(rules.maxSplitHands());
+		out.writeBoolean(rules.resplitAces());
+		out.writeBoolean(rules.lateSurrender());
+		out.writeBoolean(rules.insurance());
+		out.writeByte(rules.blackjackPayout().ordinal());
+		out.writeUTF(setup.playerName());
+		out.flush();
+	}
+	
+	/**
+	 * Wraps the player's channel so every answer is written to the recording on its way to the game.
+	 */
+	public PlayerChannel record(@NonNull PlayerChannel channel) {
+		return new RecordingChannel(channel);
+	}
+	
+	@Override
+	public void roundStarting(long round, Shoe shoe, Player player) {
+		try {
+			// The first round always gets one, a game carrying on a hand history's round ids needn't start at 0
+			if (lastCheckpointRound < 0 || round % checkpointInterval == 0 && round != lastCheckpointRound) {
+				out.writeByte(RecordingFormat.CHECKPOINT);
+				out.writeLong(round);
+				out.writeInt(player.getChipsAmount());
+				out.writeLong(shuffleSource.getShuffleCount());
+				out.writeInt(shoe.getCardsDealt());
+				out.write(shoe.getCardCodes());
+				lastCheckpointRound = round;
+			}
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write the table recording", e);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+	
+	private final class RecordingChannel implements PlayerChannel {
+		private final PlayerChannel channel;
+		
+		private RecordingChannel(PlayerChannel channel) {
+			this.channel = channel;
+		}
+		
+		@Override
+		@NonNull
+		public String getPlayerName() {
+			return channel.getPlayerName();
+		}
+		
+		@Override
+		@NonNull
+		public String getPlayerChoice(@NonNull String prompt, @NonNull String... validChoices) {
+			String choice = channel.getPlayerChoice(prompt, validChoices);
+			int index = 0;
+			while (index < validChoices.length - 1 && !validChoices[index].toLowerCase().startsWith(choice)) {
+				index++;
+			}
+			write(RecordingFormat.CHOICE, index);
+			return choice;
+		}
+		
+		@Override
+		public int getIntegerInput(@NonNull String prompt, int min, int max) {
+			int value = channel.getIntegerInput(prompt, min, max);
+			write(RecordingFormat.NUMBER, value);
+			return value;
+		}
+		
+		private void write(byte tag, int value) {
+			try {
+				out.writeByte(tag);
+				if (tag == RecordingFormat.CHOICE) {
+					out.writeByte(value);
+				} else {
+					out.writeInt(value);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not write the table recording", e);
+			}
+		}
+		
+		@Override
+		public void displayMessage(@NonNull String message) {
+			channel.displayMessage(message);
+		}
+		
+		@Override
+		public void waitForEnter(@NonNull String message) {
+			channel.waitForEnter(message);
+		}
+		
+		@Override
+		public GameDisplay getDisplay() {
+			return channel.getDisplay();
+		}
+		
+		@Override
+		public void close() {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package replay;
+
+import game.BlackjackPayout;
+import game.RuleSet;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A table recording read back into memory (a full day of one table is well under a megabyte), with its checkpoints
+ * indexed so a replay can start from the one nearest the round it wants. A record torn off by a crash at the end is
+ * dropped.
+ */
+public final class TableRecording {
+	@Getter
+	private final TableSetup setup;
+	@Getter
+	private final List<Checkpoint> checkpoints = new ArrayList<>();
+	private final ByteBuffer records;
+	
+	private TableRecording(TableSetup setup, ByteBuffer records) throws IOException {
+		this.setup = setup;
+		this.records = records;
+		indexCheckpoints();
+	}
+	
+	public static TableRecording read(@NonNull Path file) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readInt() != RecordingFormat.MAGIC || in.readInt() != RecordingFormat.VERSION) {
+			throw new IOException("Not a table recording: " + file);
+		}
+		long seed = in.readLong();
+		double penetration = in.readDouble();
+		RuleSet rules = new RuleSet(in.readByte(), in.readBoolean(), in.readBoolean(), in.readByte(),
+				in.readBoolean(), in.readBoolean(), in.readBoolean(), BlackjackPayout.values()[in.readByte()]);
+		String playerName = in.readUTF();
+		
+		int headerLength = bytes.length - in.available();
+		ByteBuffer records = ByteBuffer.wrap(bytes, headerLength, bytes.length - headerLength).slice();
+		return new TableRecording(new TableSetup(playerName, rules, penetration, seed), records);
+	}
+	
+	private void indexCheckpoints() throws IOException {
+		int checkpointSize = RecordingFormat.checkpointSize(setup.shoeCards());
+		int position = 0;
+		while (position < records.limit()) {
+			byte tag = records.get(position);
+			int size = switch (tag) {
+				case RecordingFormat.CHOICE -> RecordingFormat.CHOICE_SIZE;
+				case RecordingFormat.NUMBER -> RecordingFormat.NUMBER_SIZE;
+				case RecordingFormat.CHECKPOINT -> checkpointSize;
+				default -> throw new IOException("Unknown record " + tag + " at " + position + " in table recording");
+			};
+			if (position + size > records.limit()) {
+				break;
+			}
+			if (tag == RecordingFormat.CHECKPOINT) {
+				checkpoints.add(readCheckpoint(records.position(position + 1)));
+			}
+			position += size;
+		}
+		records.clear().limit(position);
+	}
+	
+	/**
+	 * Reads the checkpoint after its tag, leaving the buffer at the first answer after it.
+	 */
+	Checkpoint readCheckpoint(ByteBuffer buffer) {
+		long round = buffer.getLong();
+		int chips = buffer.getInt();
+		long shuffleCount = buffer.getLong();
+		int cardsDealt = buffer.getInt();
+		byte[] cardCodes = new byte[setup.shoeCards()];
+		buffer.get(cardCodes);
+		return new Checkpoint(round, chips, shuffleCount, cardsDealt, cardCodes, buffer.position());
+	}
+	
+	/**
+	 * The latest checkpoint at or before the round, or the first one if the round comes before it.
+	 */
+	public Checkpoint checkpointFor(long round) {
+		if (checkpoints.isEmpty()) {
+			throw new IllegalStateException("The recording ends before the first round");
+		}
+		int low = 0;
+		int high = checkpoints.size() - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (checkpoints.get(middle).round() <= round) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return checkpoints.get(low);
+	}
+	
+	/**
+	 * The records from the answers after a checkpoint to the end of the recording.
+	 */
+	ByteBuffer recordsFrom(@NonNull Checkpoint checkpoint) {
+		return records.duplicate().position(checkpoint.offset());
+	}
+}
@@ -0,0 +1,253 @@
+package replay;
+
+import game.BlackjackGame;
+import game.GameEngine;
+import game.RoundListener;
+import lombok.NonNull;
+import models.Player;
+import models.SeekableShuffleSource;
+import models.Shoe;
+import players.DealerNpc;
+import players.HumanPlayer;
+import ui.GameDisplay;
+import ui.InputClosedException;
+import ui.LineScreenRenderer;
+import ui.PlayerChannel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Plays a table recording back through BlackjackGame itself, with the recorded answers standing in for the player.
+ * The shoe comes from the recorded seed, so every card, result and chip comes out as it did at the table. A replay
+ * starts from the checkpoint nearest the round asked for instead of round 0, plays up to that round without output,
+ * then shows the requested rounds the way the player saw them. Every checkpoint it passes is checked against the
+ * replayed chips and shoe, so a whole recording can be verified by replaying it from the start.
+ */
+public class TableReplayer {
+	private final TableRecording recording;
+	private final GameEngine engine;
+	
+	public TableReplayer(@NonNull TableRecording recording) {
+		this.recording = recording;
+		this.engine = new GameEngine(recording.getSetup().rules());
+	}
+	
+	/**
+	 * Shows rounds fromRound to toRound (inclusive) on out, as the player saw them.
+	 */
+	public ReplayResult replay(long fromRound, long toRound, @NonNull OutputStream out) {
+		if (toRound < fromRound) {
+			throw new IllegalArgumentException("The last round comes before the first");
+		}
+		return run(recording.checkpointFor(fromRound), fromRound, toRound, out);
+	}
+	
+	/**
+	 * Replays the whole recording silently from round 0, checking every checkpoint.
+	 */
+	public ReplayResult verify() {
+		return run(recording.checkpointFor(0), Long.MAX_VALUE, Long.MAX_VALUE, OutputStream.nullOutputStream());
+	}
+	
+	private ReplayResult run(Checkpoint start, long showFrom, long stopAfter, OutputStream out) {
+		long startTime = System.nanoTime();
+		TableSetup setup = recording.getSetup();
+		SeekableShuffleSource shuffleSource = new SeekableShuffleSource(setup.seed());
+		Shoe shoe = new Shoe(setup.rules().deckCount(), setup.penetration(), shuffleSource);
+		shuffleSource.seek(start.shuffleCount());
+		shoe.restore(start.cardCodes(), start.cardsDealt());
+		
+		ReplayChannel channel = new ReplayChannel(recording.recordsFrom(start), shuffleSource, showFrom, stopAfter,
+				out);
+		HumanPlayer player = new HumanPlayer(setup.playerName(), start.chips(), channel);
+		BlackjackGame game = new BlackjackGame(player, new DealerNpc(), channel, engine, false, shoe);
+		game.setRoundListener(channel);
+		game.setNextRound(start.round());
+		
+		boolean reachedEnd = true;
+		try {
+			game.playGame();
+		} catch (InputClosedException e) {
+			// The recording stopped partway through a round, like when the player disconnected
+		} catch (ReplayStopped e) {
+			reachedEnd = false;
+		}
+		return new ReplayResult(start.round(), game.getNextRound() - start.round(), channel.checkpointsVerified,
+				player.getChipsAmount(), reachedEnd, System.nanoTime() - startTime);
+	}
+	
+	/**
+	 * Answers the game from the recording and checks each checkpoint it comes to. Output only goes to the stream
+	 * while the game is in the rounds being shown.
+	 */
+	private final class ReplayChannel implements PlayerChannel, RoundListener {
+		private final ByteBuffer records;
+		private final SeekableShuffleSource shuffleSource;
+		private final long showFrom;
+		private final long stopAfter;
+		private final ShowingStream showing;
+		private final PrintStream output;
+		private final GameDisplay display;
+		private long round;
+		private long checkpointsVerified;
+		
+		private ReplayChannel(ByteBuffer records, SeekableShuffleSource shuffleSource, long showFrom, long stopAfter,
+								OutputStream out) {
+			this.records = records;
+			this.shuffleSource = shuffleSource;
+			this.showFrom = showFrom;
+			this.stopAfter = stopAfter;
+			this.showing = new ShowingStream(out);
+			this.output = new PrintStream(showing, false, StandardCharsets.UTF_8);
+			this.display = new GameDisplay(new LineScreenRenderer(showing));
+		}
+		
+		@Override
+		public void roundStarting(long round, Shoe shoe, Player player) {
+			if (round > stopAfter) {
+				showing.enabled = false;
+				throw new ReplayStopped();
+			}
+			this.round = round;
+			showing.enabled = round >= showFrom;
+			
+			if (records.hasRemaining() && records.get(records.position()) == RecordingFormat.CHECKPOINT) {
+				records.get();
+				Checkpoint checkpoint = recording.readCheckpoint(records);
+				if (checkpoint.round() != round || checkpoint.chips() != player.getChipsAmount()
+						|| checkpoint.shuffleCount() != shuffleSource.getShuffleCount()
+						|| checkpoint.cardsDealt() != shoe.getCardsDealt()
+						|| !Arrays.equals(checkpoint.cardCodes(), shoe.getCardCodes())) {
+					throw diverged("its checkpoint doesn't match");
+				}
+				checkpointsVerified++;
+			}
+		}
+		
+		@Override
+		@NonNull
+		public String getPlayerName() {
+			return recording.getSetup().playerName();
+		}
+		
+		@Override
+		@NonNull
+		public String getPlayerChoice(@NonNull String prompt, @NonNull String... validChoices) {
+			expect(RecordingFormat.CHOICE);
+			int index = records.get();
+			if (index < 0 || index >= validChoices.length) {
+				throw diverged("the recorded choice wasn't on offer");
+			}
+			String choice = validChoices[index].toLowerCase().substring(0, 1);
+			output.println(prompt + " " + choice);
+			return choice;
+		}
+		
+		@Override
+		public int getIntegerInput(@NonNull String prompt, int min, int max) {
+			expect(RecordingFormat.NUMBER);
+			int value = records.getInt();
+			if (value < min || value > max) {
+				throw diverged("the recorded number is out of range");
+			}
+			output.println(prompt + value);
+			return value;
+		}
+		
+		private void expect(byte tag) {
+			if (!records.hasRemaining()) {
+				throw new InputClosedException();
+			}
+			if (records.get() != tag) {
+				throw diverged("the game asked a different question");
+			}
+		}
+		
+		private IllegalStateException diverged(String reason) {
+			return new IllegalStateException("Replay diverged from the recording in round " + round + ", " + reason);
+		}
+		
+		@Override
+		public void displayMessage(@NonNull String message) {
+			output.println(message);
+		}
+		
+		@Override
+		public void waitForEnter(@NonNull String message) {
+			output.println(message);
+		}
+		
+		@Override
+		public GameDisplay getDisplay() {
+			return display;
+		}
+		
+		@Override
+		public void close() {
+			output.flush();
+		}
+	}
+	
+	/**
+	 * Passes output through only while enabled, so the rounds before the ones being shown cost no I/O.
+	 */
+	private static final class ShowingStream extends OutputStream {
+		private final OutputStream out;
+		private boolean enabled;
+		
+		private ShowingStream(OutputStream out) {
+			this.out = out;
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			if (enabled) {
+				out.write(b);
+			}
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (enabled) {
+				out.write(b, off, len);
+			}
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+	}
+	
+	private static final class ReplayStopped extends RuntimeException {
+		private ReplayStopped() {
+			super(null, null, false, false);
+		}
+	}
+	
+	/**
+	 * With just a recording, verifies all of it. With a round (and optionally a last round), shows those rounds.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: TableReplayer <recording> [round [lastRound]]");
+			return;
+		}
+		TableReplayer replayer = new TableReplayer(TableRecording.read(Path.of(args[0])));
+		ReplayResult result;
+		if (args.length > 1) {
+			long fromRound = Long.parseLong(args[1]);
+			long toRound = args.length > 2 ? Long.parseLong(args[2]) : fromRound;
+			result = replayer.replay(fromRound, toRound, System.out);
+		} else {
+			result = replayer.verify();
+		}
+		System.out.println(result.summary());
+	}
+}
@@ -0,0 +1,20 @@
+package replay;
+
+import game.RuleSet;
+import lombok.NonNull;
+import models.Card;
+
+/**
+ * Everything about a recorded table that stays the same for the whole session.
+ *
+ * @param playerName  who was playing
+ * @param rules       the rules the table ran
+ * @param penetration where the cut card sat in the shoe
+ * @param seed        the seed of the shoe's SeekableShuffleSource
+ */
+public record TableSetup(@NonNull String playerName, @NonNull RuleSet rules, double penetration, long seed) {
+	
+	public int shoeCards() {
+		return rules.deckCount() * Card.DISTINCT_CARDS;
+	}
+}
@@ -0,0 +1,162 @@
+package server;
+
+import game.BlackjackGame;
+import game.GameEngine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import metrics.MetricsRegistry;
+import metrics.PrometheusEndpoint;
+import models.Bankroll;
+import players.DealerNpc;
+import players.HumanPlayer;
+import ui.ConsoleUi;
+import ui.InputClosedException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many tables in one JVM over a plain TCP line protocol (connect with nc or telnet). Each connection gets its own
+ * BlackjackGame running on a virtual thread, so a table that is waiting on its player only holds a parked virtual
+ * thread rather than a platform thread. The number of tables is capped, once the cap is reached new connections wait
+ * to be accepted until a table frees up. Output per table goes through a small fixed buffer, and the dealer outlook is
+ * left off since its memo cache is the largest per-game structure.
+ * <p>
+ * A player who sits down at several tables under the same name plays them all from one shared Bankroll, which lasts
+ * for the life of the server.
+ * <p>
+ * Heap use per table is estimated from the used heap divided by the number of active tables and logged periodically.
+ */
+@Slf4j
+public class TableServer implements AutoCloseable {
+	private static final int DEFAULT_PORT = 4000;
+	private static final int DEFAULT_MAX_TABLES = 10_000;
+	private static final int OUTPUT_BUFFER_SIZE = 1024;
+	private static final int IDLE_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(10);
+	private static final long STATS_INTERVAL_SECONDS = 30;
+	
+	private final ServerSocket serverSocket;
+	private final Semaphore tablePermits;
+	private final GameEngine engine = new GameEngine();
+	private final ExecutorService tables = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicInteger activeTables = new AtomicInteger();
+	private final ConcurrentMap<String, Bankroll> bankrolls = new ConcurrentHashMap<>();
+	@Getter
+	private final int maxTables;
+	private final boolean ansiScreen;
+	
+	public TableServer(int port, int maxTables) throws IOException {
+		this(port, maxTables, false);
+	}
+	
+	public TableServer(int port, int maxTables, boolean ansiScreen) throws IOException {
+		if (maxTables < 1) {
+			throw new IllegalArgumentException("Server must allow at least one table");
+		}
+		this.serverSocket = new ServerSocket(port);
+		this.maxTables = maxTables;
+		this.ansiScreen = ansiScreen;
+		this.tablePermits = new Semaphore(maxTables);
+	}
+	
+	public void serve() throws IOException {
+		log.info("Table server listening on port {} for up to {} tables", serverSocket.getLocalPort(), maxTables);
+		Thread.ofVirtual().name("table-stats").start(this::logStats);
+		
+		while (!serverSocket.isClosed()) {
+			tablePermits.acquireUninterruptibly();
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				tablePermits.release();
+				if (serverSocket.isClosed()) {
+					return;
+				}
+				throw e;
+			}
+			
+			activeTables.incrementAndGet();
+			tables.submit(() -> runTable(socket));
+		}
+	}
+	
+	public int getActiveTables() {
+		return activeTables.get();
+	}
+	
+	public long estimateHeapBytesPerTable() {
+		int active = activeTables.get();
+		if (active == 0) {
+			return 0;
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return (runtime.totalMemory() - runtime.freeMemory()) / active;
+	}
+	
+	private void runTable(Socket socket) {
+		try (socket) {
+			socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+			PrintStream output = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE),
+					false, StandardCharsets.UTF_8);
+			ConsoleUi channel = new ConsoleUi(socket.getInputStream(), output, ansiScreen);
+			
+			String playerName = channel.getPlayerName();
+			Bankroll bankroll = bankrolls.computeIfAbsent(playerName, name -> new Bankroll(BlackjackGame.STARTING_CHIPS));
+			HumanPlayer player = new HumanPlayer(playerName, bankroll, channel);
+			channel.getDisplay().showWelcome(playerName);
+			
+			new BlackjackGame(player, new DealerNpc(), channel, engine, false).playGame();
+			output.flush();
+		} catch (InputClosedException e) {
+			log.debug("Player at {} left the table", socket.getRemoteSocketAddress());
+		} catch (IOException | RuntimeException e) {
+			log.warn("Table for {} ended with an error", socket.getRemoteSocketAddress(), e);
+		} finally {
+			activeTables.decrementAndGet();
+			tablePermits.release();
+		}
+	}
+	
+	private void logStats() {
+		while (!serverSocket.isClosed()) {
+			try {
+				TimeUnit.SECONDS.sleep(STATS_INTERVAL_SECONDS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			log.info("{} active tables, about {} KB of heap per table", getActiveTables(),
+					estimateHeapBytesPerTable() / 1024);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		tables.shutdownNow();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int maxTables = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_TABLES;
+		boolean ansiScreen = args.length > 2 && args[2].equals("ansi");
+		int metricsPort = args.length > 3 ? Integer.parseInt(args[3]) : PrometheusEndpoint.DEFAULT_PORT;
+		
+		MetricsRegistry.global().registerMBean();
+		try (TableServer server = new TableServer(port, maxTables, ansiScreen);
+			 PrometheusEndpoint metrics = new PrometheusEndpoint(MetricsRegistry.global(), metricsPort)) {
+			server.serve();
+		}
+	}
+}
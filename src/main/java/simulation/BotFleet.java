@@ -0,0 +1,85 @@
+package simulation;
+
+import game.BlackjackGame;
+import game.GameEngine;
+import models.Shoe;
+import models.ShuffleSource;
+import players.BotPlayer;
+import players.DealerNpc;
+import strategy.Strategy;
+import ui.HeadlessChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load tests the real BlackjackGame with tables full of bots. Every table runs on its own virtual thread with a
+ * headless channel and its own seeded shoe, and every seat plays the same strategy (bound to that table's shoe, and
+ * numbered table by table and seat by seat so random bots each get their own generator from the seed). Bots
+ * start with enough chips to play every round, so the totals only depend on the arguments and the seed.
+ * <p>
+ * Arguments: tables, seats per table, rounds per table, strategy (dealer, basic, counting, deviations or random),
+ * seed.
+ */
+public class BotFleet {
+	private static final int DEFAULT_TABLES = 1_000;
+	private static final int DEFAULT_SEATS = 5;
+	private static final int DEFAULT_ROUNDS = 10_000;
+	private static final int BOT_CHIPS = 1_000_000_000;
+	private static final double PENETRATION = 0.75;
+	
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int tables = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TABLES;
+		int seats = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SEATS;
+		int rounds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+		GameEngine engine = new GameEngine();
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+		Strategy strategy = SimulationRunner.strategyNamed(args.length > 3 ? args[3] : "basic", engine, seed);
+		
+		LongAdder roundsPlayed = new LongAdder();
+		LongAdder handsPlayed = new LongAdder();
+		List<Future<?>> results = new ArrayList<>(tables);
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int table = 0; table < tables; table++) {
+				int tableIndex = table;
+				results.add(executor.submit(() -> playTable(engine, strategy, seats, rounds, seed, tableIndex,
+						roundsPlayed, handsPlayed)));
+			}
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		for (Future<?> result : results) {
+			result.get();
+		}
+		
+		double seconds = elapsedNanos / 1e9;
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.printf("Seed: %d%n%,d tables of %d bots played %,d rounds (%,d seat hands) in %.2fs%n", seed, tables,
+				seats, roundsPlayed.sum(), handsPlayed.sum(), seconds);
+		System.out.printf("%,.0f rounds/s, %,.0f seat hands/s, %,.0f seat hands/s per core (%d cores)%n",
+				roundsPlayed.sum() / seconds, handsPlayed.sum() / seconds, handsPlayed.sum() / seconds / cores, cores);
+	}
+	
+	private static void playTable(GameEngine engine, Strategy strategy, int seats, int rounds, long seed, int table,
+								  LongAdder roundsPlayed, LongAdder handsPlayed) {
+		Shoe shoe = new Shoe(engine.getRules().deckCount(), PENETRATION, ShuffleSource.splittable(seed + table));
+		List<BotPlayer> bots = new ArrayList<>(seats);
+		for (int seat = 0; seat < seats; seat++) {
+			Strategy seatStrategy = strategy.bindTo(shoe, (long) table * seats + seat);
+			bots.add(new BotPlayer("Bot " + (seat + 1), BOT_CHIPS, seatStrategy, rounds));
+		}
+		
+		BlackjackGame game = new BlackjackGame(bots, new DealerNpc(), new HeadlessChannel(), engine, false, shoe);
+		game.playGame();
+		
+		roundsPlayed.add(game.getNextRound());
+		for (BotPlayer bot : bots) {
+			handsPlayed.add(bot.getRoundsPlayed());
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package simulation;
+
+import game.GameEngine;
+import lombok.NonNull;
+import models.SplittableShuffleSource;
+import strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Shards a simulation across a ForkJoinPool. Every worker plays its share of rounds with its own Shoe, shuffled from a
+ * SplittableShuffleSource stream split off a single root seed, and keeps its own tally, so nothing is shared while the
+ * rounds are being played. Shards are split and merged in a fixed order, so the same seed and thread count always give
+ * the same result. The Strategy is shared between workers and must not hold mutable state.
+ * <p>
+ * Given a PrecisionTarget, the workers share it and all stop once the EV is known well enough, so the round count
+ * becomes an upper limit.
+ */
+public class ParallelSimulationRunner {
+	private static final long DEFAULT_ROUNDS = 100_000_000;
+	
+	private final SimulationRunner runner;
+	private final int threads;
+	
+	public ParallelSimulationRunner(@NonNull GameEngine engine, @NonNull Strategy strategy, int threads) {
+		this(new SimulationRunner(engine, strategy), threads);
+	}
+	
+	public ParallelSimulationRunner(@NonNull SimulationRunner runner, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Thread count must be at least 1");
+		}
+		this.runner = runner;
+		this.threads = threads;
+	}
+	
+	public SimulationResult run(long rounds, long seed) {
+		return run(rounds, seed, PrecisionTarget.none());
+	}
+	
+	public SimulationResult run(long rounds, long seed, @NonNull PrecisionTarget target) {
+		long start = System.nanoTime();
+		SplittableShuffleSource root = new SplittableShuffleSource(seed);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		
+		try {
+			List<ForkJoinTask<SimulationTally>> shards = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				long shardRounds = rounds / threads + (i < rounds % threads ? 1 : 0);
+				SplittableShuffleSource shuffleSource = root.split();
+				int shard = i;
+				shards.add(pool.submit(() -> runner.playRounds(shardRounds, runner.newShoe(shuffleSource), target,
+						shard)));
+			}
+			
+			SimulationTally total = new SimulationTally();
+			for (ForkJoinTask<SimulationTally> shard : shards) {
+				total.merge(shard.join());
+			}
+			return new SimulationResult(total, System.nanoTime() - start);
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	public static void main(String[] args) {
+		long rounds = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_ROUNDS;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+		GameEngine engine = new GameEngine();
+		Strategy strategy = SimulationRunner.strategyNamed(args.length > 3 ? args[3] : "dealer", engine, seed);
+		PrecisionTarget target = args.length > 4 ? SimulationRunner.precisionTarget(args[4]) : PrecisionTarget.none();
+		
+		ParallelSimulationRunner runner = new ParallelSimulationRunner(engine, strategy, threads);
+		SimulationResult result = runner.run(rounds, seed, target);
+		
+		System.out.println("Seed: " + seed + ", threads: " + threads);
+		if (target.isReached()) {
+			System.out.printf("Precision of %.4f%% reached, stopped early%n", target.getHalfWidth() * 100);
+		}
+		System.out.println(result.summary());
+	}
+}
@@ -0,0 +1,66 @@
+package simulation;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stops a simulation once the EV is known well enough, rather than after a fixed number of rounds. Every worker plays
+ * in batches and hands each batch's stats in here, where they're merged into one shared StreamingStats by swapping in
+ * a combined copy with compare and set, so there are no locks and the shared state never grows. Once the 95%
+ * confidence interval on the EV per unit wagered is no wider than plus or minus the target, every worker finishes its
+ * batch and stops.
+ * <p>
+ * The interval takes the average bet as fixed, which is exact for flat betting and close enough for a bet spread.
+ * Where workers stop depends on timing, so a run that stops early isn't repeatable from its seed.
+ */
+public final class PrecisionTarget {
+	static final int BATCH_ROUNDS = 1 << 16;
+	// Don't trust the variance until there's a decent sample of blackjacks, doubles and the like in it
+	private static final long MIN_ROUNDS = 1_000_000;
+	private static final PrecisionTarget NONE = new PrecisionTarget(0);
+	
+	@Getter
+	private final double halfWidth;
+	private final AtomicReference<StreamingStats> combined = new AtomicReference<>(new StreamingStats());
+	private final LongAdder wagered = new LongAdder();
+	private volatile boolean reached;
+	
+	/**
+	 * Half width of the 95% interval on the EV per unit wagered, as a fraction, so 0.0005 asks for within 0.05%.
+	 */
+	public PrecisionTarget(double halfWidth) {
+		if (halfWidth < 0) {
+			throw new IllegalArgumentException("Precision can't be negative");
+		}
+		this.halfWidth = halfWidth;
+	}
+	
+	/**
+	 * A target that's never reached, so the simulation plays every round it was asked to.
+	 */
+	public static PrecisionTarget none() {
+		return NONE;
+	}
+	
+	public boolean isReached() {
+		return reached;
+	}
+	
+	void record(@NonNull SimulationTally batch) {
+		if (this == NONE) {
+			return;
+		}
+		wagered.add(batch.getTotalWagered());
+		StreamingStats total = combined.accumulateAndGet(batch.getChipsPerHand(), StreamingStats::combine);
+		if (total.getCount() >= MIN_ROUNDS && total.confidenceHalfWidth() <= halfWidth * averageBet(total)) {
+			reached = true;
+		}
+	}
+	
+	private double averageBet(StreamingStats total) {
+		return (double) wagered.sum() / total.getCount();
+	}
+}
@@ -0,0 +1,78 @@
+package simulation;
+
+import java.util.concurrent.TimeUnit;
+
+public record SimulationResult(SimulationTally tally, long elapsedNanos) {
+	private static final long RUIN_HANDS = 1_000;
+	
+	public double roundsPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+		return tally.getRounds() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+	
+	public double evPerHand() {
+		if (tally.getRounds() == 0) {
+			return 0;
+		}
+		return (double) tally.getNetChips() / tally.getRounds();
+	}
+	
+	public double evPerUnitWagered() {
+		if (tally.getTotalWagered() == 0) {
+			return 0;
+		}
+		return (double) tally.getNetChips() / tally.getTotalWagered();
+	}
+	
+	/**
+	 * Half the width of the 95% confidence interval on evPerUnitWagered, taking the average bet as fixed.
+	 */
+	public double evPerUnitHalfWidth() {
+		if (tally.getTotalWagered() == 0) {
+			return 0;
+		}
+		return tally.getChipsPerHand().confidenceHalfWidth() * tally.getRounds() / tally.getTotalWagered();
+	}
+	
+	/**
+	 * Chance of losing the whole bankroll at some point in the given number of hands, betting the way this run did.
+	 */
+	public double riskOfRuin(int bankroll, long hands) {
+		return tally.getChipsPerHand().riskOfRuin(bankroll, hands);
+	}
+	
+	public double riskOfRuin(int bankroll) {
+		return tally.getChipsPerHand().riskOfRuin(bankroll);
+	}
+	
+	public String summary() {
+		return summary(SimulationRunner.STARTING_CHIPS);
+	}
+	
+	public String summary(int bankroll) {
+		StreamingStats chipsPerHand = tally.getChipsPerHand();
+		double halfWidth = chipsPerHand.confidenceHalfWidth();
+		return String.format("""
+				Rounds played:  %,d
+				Player wins:    %,d
+				Dealer wins:    %,d
+				Ties:           %,d
+				Blackjacks:     %,d
+				Net chips:      %,d
+				EV per hand:    %.5f chips
+				EV per unit:    %.5f%% +/- %.5f%%
+				95%% interval:   %.5f to %.5f chips per hand
+				Std deviation:  %.4f chips per hand
+				Std error:      %.5f chips
+				Risk of ruin:   %.2f%% within %,d hands, %.2f%% ever, from %,d chips
+				Rounds/second:  %,.0f""",
+				tally.getRounds(), tally.getPlayerWins(), tally.getDealerWins(), tally.getTies(),
+				tally.getBlackjacks(), tally.getNetChips(), evPerHand(), evPerUnitWagered() * 100,
+				evPerUnitHalfWidth() * 100, evPerHand() - halfWidth, evPerHand() + halfWidth,
+				chipsPerHand.standardDeviation(), chipsPerHand.standardError(),
+				riskOfRuin(bankroll, RUIN_HANDS) * 100, RUIN_HANDS, riskOfRuin(bankroll) * 100, bankroll,
+				roundsPerSecond());
+	}
+}
@@ -0,0 +1,226 @@
+package simulation;
+
+import events.GameEventStream;
+import game.BlackjackGame;
+import game.GameEngine;
+import game.GameResult;
+import lombok.NonNull;
+import models.Shoe;
+import models.ShuffleSource;
+import models.SplittableShuffleSource;
+import players.DealerNpc;
+import players.SimulatedPlayer;
+import strategy.BasicStrategy;
+import strategy.BetSpread;
+import strategy.CountingStrategy;
+import strategy.RandomStrategy;
+import strategy.Strategy;
+import strategy.StrategyTableGenerator;
+import strategy.ThresholdStrategy;
+
+/**
+ * Plays rounds back to back with no console in the loop, so we can estimate the house edge of a strategy. The round
+ * follows the same flow as BlackjackGame (deal, immediate blackjack check, player turn, dealer turn) and leaves every
+ * rule decision to GameEngine. With more than one seat every seat plays its own hand from the shared shoe, the
+ * dealer plays once for all of them and every seat is settled against that one dealer hand, so each extra seat costs
+ * a hand rather than a whole round. Each seat's hand counts as a round in the tally.
+ */
+public class SimulationRunner {
+	static final int STARTING_CHIPS = 100;
+	private static final int INITIAL_CARDS_COUNT = 2;
+	private static final double DEFAULT_PENETRATION = 0.75;
+	private static final long DEFAULT_ROUNDS = 1_000_000;
+	private static final int DEFAULT_BET = 10;
+	private static final int COUNTING_MAX_UNITS = 8;
+	
+	private final GameEngine engine;
+	private final Strategy strategy;
+	private final int deckCount;
+	private final double penetration;
+	private final int seats;
+	private final GameEventStream events = GameEventStream.global();
+	
+	public SimulationRunner(@NonNull GameEngine engine, @NonNull Strategy strategy) {
+		this(engine, strategy, engine.getRules().deckCount(), DEFAULT_PENETRATION);
+	}
+	
+	public SimulationRunner(@NonNull GameEngine engine, @NonNull Strategy strategy, int deckCount, double penetration) {
+		this(engine, strategy, deckCount, penetration, 1);
+	}
+	
+	/**
+	 * Seats up to BlackjackGame.MAX_SEATS players at the table, all playing the same strategy.
+	 */
+	public SimulationRunner(@NonNull GameEngine engine, @NonNull Strategy strategy, int deckCount, double penetration,
+							int seats) {
+		if (seats < 1 || seats > BlackjackGame.MAX_SEATS) {
+			throw new IllegalArgumentException("A table seats between 1 and " + BlackjackGame.MAX_SEATS + " players");
+		}
+		this.engine = engine;
+		this.strategy = strategy;
+		this.deckCount = deckCount;
+		this.penetration = penetration;
+		this.seats = seats;
+	}
+	
+	public SimulationResult run(long rounds) {
+		return run(rounds, newShoe(new SplittableShuffleSource()));
+	}
+	
+	public SimulationResult run(long rounds, @NonNull Shoe shoe) {
+		return run(rounds, shoe, PrecisionTarget.none());
+	}
+	
+	/**
+	 * Plays until the EV is known to the target precision, or rounds have been played if that comes first.
+	 */
+	public SimulationResult run(long rounds, @NonNull PrecisionTarget target) {
+		return run(rounds, newShoe(new SplittableShuffleSource()), target);
+	}
+	
+	public SimulationResult run(long rounds, @NonNull Shoe shoe, @NonNull PrecisionTarget target) {
+		long start = System.nanoTime();
+		SimulationTally tally = playRounds(rounds, shoe, target);
+		return new SimulationResult(tally, System.nanoTime() - start);
+	}
+	
+	Shoe newShoe(@NonNull ShuffleSource shuffleSource) {
+		return new Shoe(deckCount, penetration, shuffleSource);
+	}
+	
+	SimulationTally playRounds(long rounds, @NonNull Shoe shoe) {
+		return playRounds(rounds, shoe, PrecisionTarget.none());
+	}
+	
+	SimulationTally playRounds(long rounds, @NonNull Shoe shoe, @NonNull PrecisionTarget target) {
+		return playRounds(rounds, shoe, target, 0);
+	}
+	
+	/**
+	 * Rounds are played in batches so the target hears about them while there's still time to stop. The table number
+	 * tells shards of one run apart (see Strategy.bindTo).
+	 */
+	SimulationTally playRounds(long rounds, @NonNull Shoe shoe, @NonNull PrecisionTarget target, long table) {
+		// Bound once and shared, the seats all see the same shoe
+		Strategy boundStrategy = strategy.bindTo(shoe, table);
+		SimulatedPlayer[] players = new SimulatedPlayer[seats];
+		for (int seat = 0; seat < seats; seat++) {
+			players[seat] = new SimulatedPlayer("Simulator " + (seat + 1), STARTING_CHIPS, boundStrategy);
+		}
+		DealerNpc dealer = new DealerNpc();
+		int[] bets = new int[seats];
+		SimulationTally tally = new SimulationTally();
+		
+		for (long played = 0; played < rounds && !target.isReached(); ) {
+			long batchRounds = Math.min(PrecisionTarget.BATCH_ROUNDS, rounds - played);
+			SimulationTally batch = new SimulationTally();
+			for (long round = 0; round < batchRounds; round++) {
+				playRound(shoe, players, dealer, bets, batch);
+			}
+			tally.merge(batch);
+			target.record(batch);
+			played += batchRounds;
+		}
+		
+		return tally;
+	}
+	
+	private void playRound(Shoe shoe, SimulatedPlayer[] players, DealerNpc dealer, int[] bets, SimulationTally tally) {
+		shoe.shuffleIfNeeded();
+		for (int seat = 0; seat < players.length; seat++) {
+			bets[seat] = players[seat].getBetAmount();
+			players[seat].clearHand();
+		}
+		dealer.clearHand();
+		
+		for (int i = 0; i < INITIAL_CARDS_COUNT; i++) {
+			for (SimulatedPlayer player : players) {
+				player.addCard(shoe.dealCard());
+			}
+			dealer.addCard(shoe.dealCard());
+		}
+		
+		if (!engine.isBlackjack(dealer.getHand()) && playPlayerHands(shoe, players, dealer.getVisibleValue())) {
+			playDealerHand(shoe, dealer);
+		}
+		
+		settle(players, dealer, bets, tally);
+	}
+	
+	/**
+	 * Plays every seat that wasn't dealt a natural, true if any of them is left with a hand the dealer has to beat.
+	 */
+	private boolean playPlayerHands(Shoe shoe, SimulatedPlayer[] players, int dealerVisibleValue) {
+		boolean dealerNeeded = false;
+		for (SimulatedPlayer player : players) {
+			if (!engine.isBlackjack(player.getHand())) {
+				playPlayerHand(shoe, player, dealerVisibleValue);
+				dealerNeeded |= !engine.isBust(player.getHand());
+			}
+		}
+		return dealerNeeded;
+	}
+	
+	private void settle(SimulatedPlayer[] players, DealerNpc dealer, int[] bets, SimulationTally tally) {
+		for (int seat = 0; seat < players.length; seat++) {
+			GameResult result = engine.determineResult(players[seat].getHand(), dealer.getHand());
+			int chipsDelta = engine.chipsDelta(result, bets[seat]);
+			tally.record(result, bets[seat], chipsDelta);
+			events.publishRoundResult(result.winner(), result.payoutType(), chipsDelta);
+		}
+	}
+	
+	private void playPlayerHand(Shoe shoe, SimulatedPlayer player, int dealerVisibleValue) {
+		while (!engine.isBust(player.getHand()) && player.wantsToHit(dealerVisibleValue)) {
+			player.addCard(shoe.dealCard());
+		}
+	}
+	
+	private void playDealerHand(Shoe shoe, DealerNpc dealer) {
+		while (engine.shouldDealerHit(dealer.getHand())) {
+			dealer.addCard(shoe.dealCard());
+		}
+	}
+	
+	/**
+	 * The random strategy plays from the run's seed, the rest ignore it.
+	 */
+	static Strategy strategyNamed(@NonNull String name, @NonNull GameEngine engine, long seed) {
+		return switch (name) {
+			case "dealer" -> new ThresholdStrategy(17, DEFAULT_BET);
+			case "basic" -> new BasicStrategy(new StrategyTableGenerator(engine).loadOrGenerate(), DEFAULT_BET);
+			case "counting" -> new CountingStrategy(strategyNamed("basic", engine, seed),
+					BetSpread.hiLo(DEFAULT_BET, COUNTING_MAX_UNITS));
+			case "deviations" -> new CountingStrategy(strategyNamed("basic", engine, seed),
+					BetSpread.hiLo(DEFAULT_BET, COUNTING_MAX_UNITS), true);
+			case "random" -> new RandomStrategy(seed, DEFAULT_BET);
+			default -> throw new IllegalArgumentException(
+					"Unknown strategy: " + name + " (expected dealer, basic, counting, deviations or random)");
+		};
+	}
+	
+	/**
+	 * Reads a precision given in percent per unit wagered, so "0.05" stops once the EV is known to within 0.05%.
+	 */
+	static PrecisionTarget precisionTarget(@NonNull String percent) {
+		return new PrecisionTarget(Double.parseDouble(percent) / 100);
+	}
+	
+	public static void main(String[] args) {
+		long rounds = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_ROUNDS;
+		GameEngine engine = new GameEngine();
+		// The shoe isn't seeded either, so there's nothing to repeat a run from
+		Strategy strategy = strategyNamed(args.length > 1 ? args[1] : "dealer", engine, System.nanoTime());
+		int seats = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		PrecisionTarget target = args.length > 3 ? precisionTarget(args[3]) : PrecisionTarget.none();
+		
+		SimulationRunner runner = new SimulationRunner(engine, strategy, engine.getRules().deckCount(),
+				DEFAULT_PENETRATION, seats);
+		SimulationResult result = runner.run(rounds, target);
+		
+		if (target.isReached()) {
+			System.out.printf("Precision of %.4f%% reached, stopped early%n", target.getHalfWidth() * 100);
+		}
+		System.out.println(result.summary());
+	}
+}
@@ -0,0 +1,52 @@
+package simulation;
+
+import game.GameResult;
+import lombok.Getter;
+import lombok.NonNull;
+import models.Player;
+
+/**
+ * Running totals for a batch of simulated rounds. A tally is only ever touched by the thread that plays the rounds,
+ * so the counters are plain longs, tallies from different runs can be combined afterwards with merge. Alongside the
+ * totals it keeps the mean and variance of each hand's net chips, which is where the confidence interval and risk of
+ * ruin come from.
+ */
+@Getter
+public class SimulationTally {
+	private long rounds;
+	private long playerWins;
+	private long dealerWins;
+	private long ties;
+	private long blackjacks;
+	private long totalWagered;
+	private long netChips;
+	private final StreamingStats chipsPerHand = new StreamingStats();
+	
+	public void record(@NonNull GameResult result, int betAmount, int chipsDelta) {
+		rounds++;
+		totalWagered += betAmount;
+		netChips += chipsDelta;
+		chipsPerHand.add(chipsDelta);
+		
+		switch (result.winner()) {
+			case PLAYER -> playerWins++;
+			case DEALER -> dealerWins++;
+			case TIE -> ties++;
+		}
+		
+		if (result.payoutType() == Player.PayoutType.BLACKJACK) {
+			blackjacks++;
+		}
+	}
+	
+	public void merge(@NonNull SimulationTally other) {
+		rounds += other.rounds;
+		playerWins += other.playerWins;
+		dealerWins += other.dealerWins;
+		ties += other.ties;
+		blackjacks += other.blackjacks;
+		totalWagered += other.totalWagered;
+		netChips += other.netChips;
+		chipsPerHand.merge(other.chipsPerHand);
+	}
+}
@@ -0,0 +1,121 @@
+package simulation;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Mean and variance of a stream of values, kept with Welford's update so it's a count and two doubles however long the
+ * stream gets, and stays accurate where summing squares would cancel out. Two sets of stats combine with Chan's
+ * formula, which is what lets every thread keep its own and merge them afterwards. Like SimulationTally it isn't
+ * thread safe, share one through PrecisionTarget instead.
+ * <p>
+ * Treating every value as a step of a random walk, it also gives the risk of ruin for a bankroll, from the usual
+ * Brownian motion approximation.
+ */
+public final class StreamingStats {
+	// Two sided 95% confidence
+	public static final double Z_95 = 1.959964;
+	
+	@Getter
+	private long count;
+	@Getter
+	private double mean;
+	// Sum of squared differences from the mean
+	private double m2;
+	
+	public void add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+	}
+	
+	public void merge(@NonNull StreamingStats other) {
+		if (other.count == 0) {
+			return;
+		}
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+		count = total;
+	}
+	
+	/**
+	 * A new set of stats for both streams, leaving the two it was made from alone.
+	 */
+	public static StreamingStats combine(@NonNull StreamingStats first, @NonNull StreamingStats second) {
+		StreamingStats combined = new StreamingStats();
+		combined.merge(first);
+		combined.merge(second);
+		return combined;
+	}
+	
+	/**
+	 * Sample variance, 0 until there are two values.
+	 */
+	public double variance() {
+		return count < 2 ? 0 : m2 / (count - 1);
+	}
+	
+	public double standardDeviation() {
+		return Math.sqrt(variance());
+	}
+	
+	/**
+	 * How far the mean is likely to be off, the standard deviation of the mean itself.
+	 */
+	public double standardError() {
+		return count == 0 ? Double.POSITIVE_INFINITY : standardDeviation() / Math.sqrt(count);
+	}
+	
+	/**
+	 * Half the width of the 95% confidence interval around the mean.
+	 */
+	public double confidenceHalfWidth() {
+		return Z_95 * standardError();
+	}
+	
+	/**
+	 * Chance that a bankroll is ever lost, playing forever. Anything without a positive mean goes broke eventually.
+	 */
+	public double riskOfRuin(double bankroll) {
+		double variance = variance();
+		if (mean <= 0) {
+			return 1;
+		}
+		if (variance == 0) {
+			return 0;
+		}
+		return Math.exp(-2 * mean * bankroll / variance);
+	}
+	
+	/**
+	 * Chance that a bankroll is lost at some point within the given number of steps.
+	 */
+	public double riskOfRuin(double bankroll, long steps) {
+		double variance = variance();
+		double drift = mean * steps;
+		if (variance == 0) {
+			return drift <= -bankroll ? 1 : 0;
+		}
+		double spread = Math.sqrt(variance * steps);
+		// The reflected term multiplies a huge exponential by a tiny tail when the mean is negative, so add the logs
+		double reflected = Math.exp(-2 * mean * bankroll / variance + logNormalCdf((-bankroll + drift) / spread));
+		return Math.min(1, Math.exp(logNormalCdf((-bankroll - drift) / spread)) + reflected);
+	}
+	
+	/**
+	 * Log of the standard normal CDF, from the Abramowitz and Stegun 7.1.26 approximation of erfc written out in logs,
+	 * so far tails don't underflow to 0.
+	 */
+	static double logNormalCdf(double z) {
+		if (z > 0) {
+			return Math.log1p(-Math.exp(logNormalCdf(-z)));
+		}
+		double x = -z / Math.sqrt(2);
+		double t = 1 / (1 + 0.3275911 * x);
+		double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+		return Math.log(0.5 * poly) - x * x;
+	}
+}
@@ -0,0 +1,107 @@
+package simulation;
+
+import game.BlackjackGame;
+import game.GameEngine;
+import metrics.MetricsRegistry;
+import models.Shoe;
+import models.ShuffleSource;
+import models.TableStatePool;
+import players.BotPlayer;
+import players.DealerNpc;
+import strategy.Strategy;
+import strategy.ThresholdStrategy;
+import ui.HeadlessChannel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+
+/**
+ * Measures what a table costs to host: the heap a BlackjackGame with one bot and its own shoe keeps alive, against a
+ * slot in a TableStatePool. Both are measured as the heap still in use after a GC once every table is built, so it's
+ * retained memory rather than everything allocated on the way. It also deals from a sample of the slots and a Shoe
+ * seeded the same way, and exits with status 1 if they ever deal different cards.
+ * <p>
+ * Arguments: tables (default 100,000). Give the JVM enough heap for the object graphs, e.g. -Xmx2g.
+ */
+public class TableDensityCheck {
+	private static final int DEFAULT_TABLES = 100_000;
+	private static final int SAMPLE_TABLES = 100;
+	private static final int SAMPLE_CARDS = 2_000;
+	private static final double PENETRATION = 0.75;
+	private static final long STARTING_CHIPS = BlackjackGame.STARTING_CHIPS;
+	
+	public static void main(String[] args) {
+		int tables = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TABLES;
+		GameEngine engine = new GameEngine();
+		int deckCount = engine.getRules().deckCount();
+		
+		// The pool goes first, games leave their TableMetrics registered and that would be counted against it
+		MetricsRegistry metrics = new MetricsRegistry();
+		long before = usedHeap();
+		TableStatePool pool = new TableStatePool(tables, 1, engine.getRules().maxSplitHands(), deckCount, PENETRATION,
+				metrics);
+		for (int table = 0; table < tables; table++) {
+			pool.allocate(table, STARTING_CHIPS);
+		}
+		// Nothing per slot is on the heap, so this is GC noise either side of 0
+		double pooledHeapBytes = Math.max(0, (double) (usedHeap() - before) / tables);
+		double objectBytes = objectGraphBytes(engine, tables);
+		
+		System.out.printf("Object graph:   %,.0f bytes per table on the heap%n", objectBytes);
+		System.out.printf("Pooled slot:    %,d bytes per table off-heap, %,.1f on the heap%n", pool.getSlotSize(),
+				pooledHeapBytes);
+		System.out.printf("%,d tables: %,.1f MB of objects against %,.1f MB pooled%n", tables,
+				objectBytes * tables / 1e6, (pool.getOffHeapBytes() + pooledHeapBytes * tables) / 1e6);
+		
+		if (!dealsMatch(pool, deckCount)) {
+			System.out.println("A pooled shoe dealt different cards to a Shoe with the same seed!");
+			System.exit(1);
+		}
+		System.out.println("Pooled shoes deal the same cards as Shoe.");
+	}
+	
+	/**
+	 * Heap kept alive per table by the games, which are garbage again as soon as this returns.
+	 */
+	private static double objectGraphBytes(GameEngine engine, int tables) {
+		int deckCount = engine.getRules().deckCount();
+		Strategy strategy = new ThresholdStrategy(17, 10);
+		long before = usedHeap();
+		BlackjackGame[] games = new BlackjackGame[tables];
+		for (int table = 0; table < tables; table++) {
+			BotPlayer bot = new BotPlayer("Bot " + table, (int) STARTING_CHIPS, strategy, 0);
+			Shoe shoe = new Shoe(deckCount, PENETRATION, ShuffleSource.splittable(table));
+			games[table] = new BlackjackGame(bot, new DealerNpc(), new HeadlessChannel(), engine, false, shoe);
+		}
+		long used = usedHeap();
+		// Otherwise the games could be collected before they're measured
+		Reference.reachabilityFence(games);
+		return (double) (used - before) / tables;
+	}
+	
+	private static boolean dealsMatch(TableStatePool pool, int deckCount) {
+		for (int table = 0; table < Math.min(SAMPLE_TABLES, pool.getSlots()); table++) {
+			pool.release(table);
+			int slot = pool.allocate(table, STARTING_CHIPS);
+			Shoe shoe = new Shoe(deckCount, PENETRATION, ShuffleSource.splittable(table));
+			for (int card = 0; card < SAMPLE_CARDS; card++) {
+				shoe.shuffleIfNeeded();
+				pool.shuffleIfNeeded(slot);
+				if (shoe.dealCardCode() != pool.dealCardCode(slot)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		// A couple of passes, so anything freed by finalising the first time round is gone too
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
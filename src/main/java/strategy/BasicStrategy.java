@@ -0,0 +1,40 @@
+package strategy;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Hand;
+
+/**
+ * Plays straight from a precomputed StrategyTable with a flat bet.
+ */
+@Getter
+public final class BasicStrategy implements Strategy {
+	private static final byte HIT = Decision.HIT.code();
+	
+	private final StrategyTable table;
+	private final int betAmount;
+	
+	public BasicStrategy(@NonNull StrategyTable table, int betAmount) {
+		if (betAmount < 1) {
+			throw new IllegalArgumentException("Bet amount must be at least 1");
+		}
+		this.table = table;
+		this.betAmount = betAmount;
+	}
+	
+	@Override
+	public Decision decide(int handState, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+							boolean canSurrender) {
+		return table.decision(handState, dealerVisibleValue);
+	}
+	
+	@Override
+	public boolean wantsToHit(@NonNull Hand hand, int dealerVisibleValue) {
+		return table.decisionCode(hand.getState(), dealerVisibleValue) == HIT;
+	}
+	
+	@Override
+	public int getBetAmount(int chipsAmount) {
+		return betAmount;
+	}
+}
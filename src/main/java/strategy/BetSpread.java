@@ -0,0 +1,48 @@
+package strategy;
+
+import analysis.CardCounter;
+import analysis.CountingSystem;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Sizes bets off a CardCounter. Below the starting count we bet one unit, and each whole point above it adds a unit
+ * until we reach the max spread. Balanced systems ramp on the true count and unbalanced ones (KO) on the running
+ * count, which is how they're meant to be played.
+ */
+@Getter
+public class BetSpread {
+	private final CountingSystem system;
+	private final int unit;
+	private final int maxUnits;
+	private final int rampStart;
+	
+	public BetSpread(@NonNull CountingSystem system, int unit, int maxUnits, int rampStart) {
+		if (unit < 1) {
+			throw new IllegalArgumentException("Bet unit must be at least 1");
+		}
+		if (maxUnits < 1) {
+			throw new IllegalArgumentException("Max units must be at least 1");
+		}
+		this.system = system;
+		this.unit = unit;
+		this.maxUnits = maxUnits;
+		this.rampStart = rampStart;
+	}
+	
+	public static BetSpread hiLo(int unit, int maxUnits) {
+		return new BetSpread(CountingSystem.HI_LO, unit, maxUnits, 1);
+	}
+	
+	public int getBetAmount(@NonNull CardCounter counter, int chipsAmount) {
+		if (chipsAmount <= 0) {
+			return 0;
+		}
+		double count = system.isUnbalanced()
+				? counter.getRunningCount(system)
+				: counter.getTrueCount(system);
+		int units = (int) Math.floor(count) - rampStart + 1;
+		int bet = unit * Math.max(1, Math.min(units, maxUnits));
+		return Math.min(bet, chipsAmount);
+	}
+}
@@ -0,0 +1,119 @@
+package strategy;
+
+import analysis.CardCounter;
+import analysis.CountingSystem;
+import lombok.Getter;
+import lombok.NonNull;
+import models.Hand;
+import models.HandState;
+import models.Shoe;
+
+import java.util.Arrays;
+
+/**
+ * Plays hands with another Strategy and sizes bets with a BetSpread. The count lives with the shoe, so an unbound
+ * instance just bets the minimum and bindTo hands back a copy with its own CardCounter on that shoe.
+ * <p>
+ * With index plays on, the hit/stand plays from the Illustrious 18 override the play strategy on hard 12-16 once the
+ * Hi-Lo true count crosses their index, and insurance is taken from +3 up. The counter tracks every system, so this
+ * works whatever system the bets ramp on.
+ */
+@Getter
+public final class CountingStrategy implements Strategy {
+	private static final int MIN_INDEXED_TOTAL = 12;
+	private static final int MAX_INDEXED_TOTAL = 16;
+	private static final int UPCARDS = StrategyTable.MAX_UPCARD + 1;
+	private static final int NO_INDEX = Integer.MAX_VALUE;
+	private static final int INSURANCE_INDEX = 3;
+	// Stand at or above the index, hit below it, by hard total and upcard
+	private static final int[] STAND_INDEXES = new int[(MAX_INDEXED_TOTAL - MIN_INDEXED_TOTAL + 1) * UPCARDS];
+	
+	static {
+		Arrays.fill(STAND_INDEXES, NO_INDEX);
+		setStandIndex(16, 9, 5);
+		setStandIndex(16, 10, 0);
+		setStandIndex(15, 10, 4);
+		setStandIndex(13, 2, -1);
+		setStandIndex(13, 3, -2);
+		setStandIndex(12, 2, 3);
+		setStandIndex(12, 3, 2);
+		setStandIndex(12, 4, 0);
+		setStandIndex(12, 5, -2);
+		setStandIndex(12, 6, -1);
+	}
+	
+	private final Strategy playStrategy;
+	private final BetSpread betSpread;
+	private final boolean indexPlays;
+	private final CardCounter counter;
+	
+	public CountingStrategy(@NonNull Strategy playStrategy, @NonNull BetSpread betSpread) {
+		this(playStrategy, betSpread, false);
+	}
+	
+	public CountingStrategy(@NonNull Strategy playStrategy, @NonNull BetSpread betSpread, boolean indexPlays) {
+		this(playStrategy, betSpread, indexPlays, null);
+	}
+	
+	private CountingStrategy(Strategy playStrategy, BetSpread betSpread, boolean indexPlays, CardCounter counter) {
+		this.playStrategy = playStrategy;
+		this.betSpread = betSpread;
+		this.indexPlays = indexPlays;
+		this.counter = counter;
+	}
+	
+	private static void setStandIndex(int hardTotal, int upcard, int trueCount) {
+		STAND_INDEXES[(hardTotal - MIN_INDEXED_TOTAL) * UPCARDS + upcard] = trueCount;
+	}
+	
+	@Override
+	public Strategy bindTo(@NonNull Shoe shoe) {
+		return new CountingStrategy(playStrategy.bindTo(shoe), betSpread, indexPlays, CardCounter.attachTo(shoe));
+	}
+	
+	@Override
+	public Strategy bindTo(@NonNull Shoe shoe, long table) {
+		return new CountingStrategy(playStrategy.bindTo(shoe, table), betSpread, indexPlays,
+				CardCounter.attachTo(shoe));
+	}
+	
+	@Override
+	public Decision decide(int handState, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+							boolean canSurrender) {
+		Decision play = playStrategy.decide(handState, dealerVisibleValue, canDouble, canSplit, canSurrender);
+		if ((play != Decision.HIT && play != Decision.STAND) || !indexPlays || counter == null
+				|| HandState.isSoft(handState)) {
+			return play;
+		}
+		int total = HandState.value(handState);
+		if (total < MIN_INDEXED_TOTAL || total > MAX_INDEXED_TOTAL) {
+			return play;
+		}
+		int index = STAND_INDEXES[(total - MIN_INDEXED_TOTAL) * UPCARDS + dealerVisibleValue];
+		if (index == NO_INDEX) {
+			return play;
+		}
+		return counter.getTrueCount(CountingSystem.HI_LO) >= index ? Decision.STAND : Decision.HIT;
+	}
+	
+	@Override
+	public boolean wantsToHit(@NonNull Hand hand, int dealerVisibleValue) {
+		if (indexPlays) {
+			return decide(hand.getState(), dealerVisibleValue, false, false, false) == Decision.HIT;
+		}
+		return playStrategy.wantsToHit(hand, dealerVisibleValue);
+	}
+	
+	@Override
+	public boolean wantsInsurance() {
+		return indexPlays && counter != null && counter.getTrueCount(CountingSystem.HI_LO) >= INSURANCE_INDEX;
+	}
+	
+	@Override
+	public int getBetAmount(int chipsAmount) {
+		if (counter == null) {
+			return Math.min(betSpread.getUnit(), chipsAmount);
+		}
+		return betSpread.getBetAmount(counter, chipsAmount);
+	}
+}
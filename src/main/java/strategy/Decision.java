@@ -0,0 +1,23 @@
+package strategy;
+
+/**
+ * The actions a player can take on a hand. Tables store the ordinal as a byte, the generated tables only recommend
+ * HIT or STAND for now.
+ */
+public enum Decision {
+	HIT,
+	STAND,
+	DOUBLE,
+	SPLIT,
+	SURRENDER;
+	
+	private static final Decision[] VALUES = values();
+	
+	public byte code() {
+		return (byte) ordinal();
+	}
+	
+	public static Decision fromCode(byte code) {
+		return VALUES[code];
+	}
+}
@@ -0,0 +1,81 @@
+package strategy;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.HandState;
+import models.Shoe;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks evenly from whatever moves the rules allow and bets anything from 1 up to the max bet. It plays badly on
+ * purpose: load tests want every branch of the game exercised, not a good result. The generator isn't thread safe, so
+ * every bindTo makes a new one for that table, split off a generator seeded with the strategy's seed plus the table
+ * number. Splitting keeps it well away from a shoe seeded with the same number.
+ */
+public final class RandomStrategy implements Strategy {
+	private static final Decision[] MOVES = {Decision.HIT, Decision.STAND, Decision.DOUBLE, Decision.SPLIT,
+			Decision.SURRENDER};
+	
+	private final long seed;
+	private final SplittableRandom random;
+	@Getter
+	private final int maxBet;
+	
+	public RandomStrategy(long seed, int maxBet) {
+		this(seed, new SplittableRandom(seed), maxBet);
+	}
+	
+	private RandomStrategy(long seed, SplittableRandom random, int maxBet) {
+		if (maxBet < 1) {
+			throw new IllegalArgumentException("Max bet must be at least 1");
+		}
+		this.seed = seed;
+		this.random = random;
+		this.maxBet = maxBet;
+	}
+	
+	@Override
+	public Strategy bindTo(@NonNull Shoe shoe) {
+		return bindTo(shoe, 0);
+	}
+	
+	@Override
+	public Strategy bindTo(@NonNull Shoe shoe, long table) {
+		return new RandomStrategy(seed, new SplittableRandom(seed + table).split(), maxBet);
+	}
+	
+	@Override
+	public Decision decide(int handState, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+							boolean canSurrender) {
+		if (HandState.isBusted(handState)) {
+			return Decision.STAND;
+		}
+		// Hit and stand are always there, the rest are tried in order only if they're allowed
+		int choices = 2 + (canDouble ? 1 : 0) + (canSplit ? 1 : 0) + (canSurrender ? 1 : 0);
+		int choice = random.nextInt(choices);
+		if (choice < 2) {
+			return MOVES[choice];
+		}
+		if (canDouble) {
+			if (choice == 2) {
+				return Decision.DOUBLE;
+			}
+			choice--;
+		}
+		if (canSplit && choice == 2) {
+			return Decision.SPLIT;
+		}
+		return Decision.SURRENDER;
+	}
+	
+	@Override
+	public boolean wantsInsurance() {
+		return random.nextBoolean();
+	}
+	
+	@Override
+	public int getBetAmount(int chipsAmount) {
+		return 1 + random.nextInt(maxBet);
+	}
+}
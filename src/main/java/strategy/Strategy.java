@@ -0,0 +1,47 @@
+package strategy;
+
+import lombok.NonNull;
+import models.Hand;
+import models.Shoe;
+
+/**
+ * Decision making for a seat that isn't driven by the console. This covers the same choices as HumanPlayer's
+ * chooseAction, getBetAmount and wantsInsurance, so simulations and bots can play rounds without blocking on input.
+ * <p>
+ * The set of strategies is closed and every one of them is final, so a call site only ever sees a handful of exact
+ * types and the JIT can inline the decision straight into the round loop. Decisions are made from the packed
+ * HandState, never from the cards themselves.
+ */
+public sealed interface Strategy permits ThresholdStrategy, BasicStrategy, CountingStrategy, RandomStrategy {
+	
+	/**
+	 * The move for a hand against the dealer's upcard (2-11, see DealerNpc.getVisibleValue). Only returns DOUBLE, SPLIT
+	 * or SURRENDER when the matching flag says the rules allow it right now.
+	 */
+	Decision decide(int handState, int dealerVisibleValue, boolean canDouble, boolean canSplit, boolean canSurrender);
+	
+	default boolean wantsToHit(@NonNull Hand hand, int dealerVisibleValue) {
+		return decide(hand.getState(), dealerVisibleValue, false, false, false) == Decision.HIT;
+	}
+	
+	int getBetAmount(int chipsAmount);
+	
+	default boolean wantsInsurance() {
+		return false;
+	}
+	
+	/**
+	 * Strategies that track the cards (counting) need their own state per shoe. Stateless ones just return themselves.
+	 */
+	default Strategy bindTo(@NonNull Shoe shoe) {
+		return this;
+	}
+	
+	/**
+	 * bindTo for one of the tables in a run, numbered from 0. Strategies that play at random seed that table's
+	 * generator from the number, so a run repeats from its seed whatever order the tables are set up in.
+	 */
+	default Strategy bindTo(@NonNull Shoe shoe, long table) {
+		return bindTo(shoe);
+	}
+}
@@ -0,0 +1,94 @@
+package strategy;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.HandState;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Precomputed decisions for every (hand value, soft/hard, dealer upcard) cell, held in one flat byte array so a lookup
+ * is a single array index. Upcards use the values from DealerNpc.getVisibleValue, so 2-11 with the ace as 11.
+ * The rules fingerprint is stored with the table so a cached copy is only reused under the rules it was built for.
+ */
+public final class StrategyTable {
+	public static final int MIN_UPCARD = 2;
+	public static final int MAX_UPCARD = 11;
+	public static final int MAX_VALUE = 21;
+	
+	private static final int UPCARDS = MAX_UPCARD + 1;
+	private static final int VALUES = MAX_VALUE + 1;
+	private static final int SIZE = 2 * VALUES * UPCARDS;
+	private static final int FILE_MAGIC = 0x424A5354;
+	private static final int FILE_VERSION = 1;
+	
+	private final byte[] decisions;
+	@Getter
+	private final long rulesFingerprint;
+	
+	StrategyTable(@NonNull byte[] decisions, long rulesFingerprint) {
+		if (decisions.length != SIZE) {
+			throw new IllegalArgumentException("Strategy table must have " + SIZE + " cells");
+		}
+		this.decisions = decisions;
+		this.rulesFingerprint = rulesFingerprint;
+	}
+	
+	static int index(int value, boolean soft, int dealerUpcard) {
+		return ((soft ? VALUES : 0) + value) * UPCARDS + dealerUpcard;
+	}
+	
+	static int size() {
+		return SIZE;
+	}
+	
+	/**
+	 * Busted hands have nothing left to decide, so they always come back as STAND.
+	 */
+	public byte decisionCode(int handState, int dealerUpcard) {
+		if (HandState.isBusted(handState)) {
+			return Decision.STAND.code();
+		}
+		return decisions[index(HandState.value(handState), HandState.isSoft(handState), dealerUpcard)];
+	}
+	
+	public Decision decision(int handState, int dealerUpcard) {
+		return Decision.fromCode(decisionCode(handState, dealerUpcard));
+	}
+	
+	public void save(@NonNull Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		
+		try (OutputStream stream = Files.newOutputStream(file);
+			 DataOutputStream output = new DataOutputStream(stream)) {
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(FILE_VERSION);
+			output.writeLong(rulesFingerprint);
+			output.writeInt(decisions.length);
+			output.write(decisions);
+		}
+	}
+	
+	public static StrategyTable load(@NonNull Path file) throws IOException {
+		try (InputStream stream = Files.newInputStream(file);
+			 DataInputStream input = new DataInputStream(stream)) {
+			if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+				throw new IOException("Not a strategy table file: " + file);
+			}
+			
+			long rulesFingerprint = input.readLong();
+			byte[] decisions = new byte[input.readInt()];
+			input.readFully(decisions);
+			return new StrategyTable(decisions, rulesFingerprint);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package strategy;
+
+import game.GameEngine;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import models.HandState;
+import models.Rank;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Builds a StrategyTable by working out the exact expected value of hitting and standing in every cell, assuming an
+ * infinite deck (every rank has a 1 in 13 chance on each draw). The dealer is played out with
+ * GameEngine.shouldDealerHit, so the table always matches the rules the engine is running. Naturals are settled before
+ * the player acts, so the dealer's hole card is conditioned on the dealer not having blackjack.
+ * <p>
+ * Tables are cached on disk under a file name built from a fingerprint of the dealer rules, so a table is only
+ * regenerated when those rules change.
+ */
+@Slf4j
+public class StrategyTableGenerator {
+	public static final Path DEFAULT_CACHE_DIRECTORY = Path.of(System.getProperty("user.home"), ".blackjack");
+	
+	private static final int RANKS = Rank.values().length;
+	private static final double RANK_PROBABILITY = 1.0 / RANKS;
+	private static final int BUST = StrategyTable.MAX_VALUE + 1;
+	private static final int MIN_HARD_DECISION = 4;
+	private static final int MIN_SOFT_DECISION = 12;
+	private static final int MAX_PROBED_TOTAL = 26;
+	private static final int TEN_VALUE = 10;
+	
+	private final GameEngine engine;
+	
+	public StrategyTableGenerator(@NonNull GameEngine engine) {
+		this.engine = engine;
+	}
+	
+	public StrategyTable loadOrGenerate() {
+		return loadOrGenerate(DEFAULT_CACHE_DIRECTORY);
+	}
+	
+	public StrategyTable loadOrGenerate(@NonNull Path cacheDirectory) {
+		long fingerprint = rulesFingerprint();
+		Path file = cacheDirectory.resolve(String.format("basic-strategy-%016x.bin", fingerprint));
+		
+		if (Files.exists(file)) {
+			try {
+				StrategyTable table = StrategyTable.load(file);
+				if (table.getRulesFingerprint() == fingerprint) {
+					return table;
+				}
+				log.warn("Cached strategy table {} was built for different rules, regenerating", file);
+			} catch (IOException e) {
+				log.warn("Could not read cached strategy table {}, regenerating", file, e);
+			}
+		}
+		
+		StrategyTable table = generate();
+		try {
+			table.save(file);
+			log.info("Cached strategy table to {}", file);
+		} catch (IOException e) {
+			log.warn("Could not cache strategy table to {}", file, e);
+		}
+		return table;
+	}
+	
+	public StrategyTable generate() {
+		byte[] decisions = new byte[StrategyTable.size()];
+		Arrays.fill(decisions, Decision.STAND.code());
+		
+		for (int upcard = StrategyTable.MIN_UPCARD; upcard <= StrategyTable.MAX_UPCARD; upcard++) {
+			double[] dealerOutcomes = dealerOutcomes(upcard);
+			PlayerEvaluator evaluator = new PlayerEvaluator(dealerOutcomes);
+			
+			for (int value = MIN_HARD_DECISION; value <= StrategyTable.MAX_VALUE; value++) {
+				decisions[StrategyTable.index(value, false, upcard)] = evaluator.decide(stateOf(value, false));
+			}
+			for (int value = MIN_SOFT_DECISION; value <= StrategyTable.MAX_VALUE; value++) {
+				decisions[StrategyTable.index(value, true, upcard)] = evaluator.decide(stateOf(value, true));
+			}
+		}
+		
+		return new StrategyTable(decisions, rulesFingerprint());
+	}
+	
+	/**
+	 * Hashes every hit/stand answer the engine gives for the dealer hands we care about, so any change to the dealer
+	 * rule (e.g. hitting soft 17) gives a different fingerprint.
+	 */
+	public long rulesFingerprint() {
+		long fingerprint = 1;
+		for (int value = MIN_HARD_DECISION; value <= MAX_PROBED_TOTAL; value++) {
+			fingerprint = fingerprint * 31 + (engine.shouldDealerHit(stateOf(value, false)) ? 1 : 2);
+		}
+		for (int value = MIN_SOFT_DECISION; value <= StrategyTable.MAX_VALUE; value++) {
+			fingerprint = fingerprint * 31 + (engine.shouldDealerHit(stateOf(value, true)) ? 1 : 2);
+		}
+		return fingerprint;
+	}
+	
+	/**
+	 * Probability of each final dealer value for an upcard, indexed by value with index BUST for a bust.
+	 */
+	double[] dealerOutcomes(int upcard) {
+		double[] outcomes = new double[BUST + 1];
+		playDealer(HandState.addCard(HandState.EMPTY, codeForValue(upcard)), 1.0, outcomes);
+		return outcomes;
+	}
+	
+	private void playDealer(int state, double probability, double[] outcomes) {
+		if (HandState.isBusted(state)) {
+			outcomes[BUST] += probability;
+			return;
+		}
+		
+		boolean holeCard = HandState.cardCount(state) == 1;
+		if (!holeCard && !engine.shouldDealerHit(state)) {
+			outcomes[HandState.value(state)] += probability;
+			return;
+		}
+		
+		// Hole cards that would give the dealer a natural can't happen once the player is deciding
+		double allowed = 0;
+		for (int code = 0; code < RANKS; code++) {
+			if (!holeCard || !HandState.isBlackjack(HandState.addCard(state, code))) {
+				allowed += RANK_PROBABILITY;
+			}
+		}
+		
+		for (int code = 0; code < RANKS; code++) {
+			int next = HandState.addCard(state, code);
+			if (holeCard && HandState.isBlackjack(next)) {
+				continue;
+			}
+			playDealer(next, probability * RANK_PROBABILITY / allowed, outcomes);
+		}
+	}
+	
+	/**
+	 * Builds a hand state with the given value from as few cards as it takes, the exact cards don't matter for an
+	 * infinite deck.
+	 */
+	private static int stateOf(int value, boolean soft) {
+		int state = HandState.EMPTY;
+		int remaining = value;
+		
+		if (soft) {
+			state = HandState.addCard(state, Rank.ACE.ordinal());
+			remaining -= 11;
+			if (remaining == 1) {
+				return HandState.addCard(state, Rank.ACE.ordinal());
+			}
+		}
+		
+		while (remaining > 0) {
+			int cardValue = remaining <= TEN_VALUE ? remaining : Math.min(TEN_VALUE, remaining - 2);
+			state = HandState.addCard(state, codeForValue(cardValue));
+			remaining -= cardValue;
+		}
+		return state;
+	}
+	
+	// Card codes below 13 are the hearts, whose code is just the rank ordinal
+	private static int codeForValue(int value) {
+		return value == 11 ? Rank.ACE.ordinal() : value - Rank.TWO.getValue();
+	}
+	
+	private static final class PlayerEvaluator {
+		private final double[] dealerOutcomes;
+		private final double[] bestEv = new double[(StrategyTable.MAX_VALUE + 1) * 2];
+		private final double[] hitEv = new double[(StrategyTable.MAX_VALUE + 1) * 2];
+		
+		private PlayerEvaluator(double[] dealerOutcomes) {
+			this.dealerOutcomes = dealerOutcomes;
+			Arrays.fill(bestEv, Double.NaN);
+		}
+		
+		private byte decide(int state) {
+			bestEv(state);
+			int key = key(state);
+			return hitEv[key] > standEv(HandState.value(state)) ? Decision.HIT.code() : Decision.STAND.code();
+		}
+		
+		private double bestEv(int state) {
+			if (HandState.isBusted(state)) {
+				return -1;
+			}
+			
+			int key = key(state);
+			if (!Double.isNaN(bestEv[key])) {
+				return bestEv[key];
+			}
+			
+			double hit = 0;
+			for (int code = 0; code < RANKS; code++) {
+				hit += RANK_PROBABILITY * bestEv(HandState.addCard(state, code));
+			}
+			
+			hitEv[key] = hit;
+			bestEv[key] = Math.max(hit, standEv(HandState.value(state)));
+			return bestEv[key];
+		}
+		
+		private double standEv(int value) {
+			double ev = dealerOutcomes[BUST];
+			for (int dealerValue = 0; dealerValue <= StrategyTable.MAX_VALUE; dealerValue++) {
+				if (dealerValue < value) {
+					ev += dealerOutcomes[dealerValue];
+				} else if (dealerValue > value) {
+					ev -= dealerOutcomes[dealerValue];
+				}
+			}
+			return ev;
+		}
+		
+		// Hard total plus whether there is an ace is all the EV depends on, soft or not follows from those two
+		private static int key(int state) {
+			return HandState.hardTotal(state) * 2 + (HandState.aceCount(state) > 0 ? 1 : 0);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package strategy;
+
+import lombok.Getter;
+import lombok.NonNull;
+import models.Hand;
+import models.HandState;
+
+/**
+ * Hits until the hand reaches a fixed value and always bets the same amount. With a threshold of 17 this mimics the
+ * dealer, which makes it a handy baseline when comparing other strategies.
+ */
+@Getter
+public final class ThresholdStrategy implements Strategy {
+	private final int standValue;
+	private final int betAmount;
+	
+	public ThresholdStrategy(int standValue, int betAmount) {
+		if (betAmount < 1) {
+			throw new IllegalArgumentException("Bet amount must be at least 1");
+		}
+		this.standValue = standValue;
+		this.betAmount = betAmount;
+	}
+	
+	@Override
+	public Decision decide(int handState, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+							boolean canSurrender) {
+		return HandState.value(handState) < standValue ? Decision.HIT : Decision.STAND;
+	}
+	
+	@Override
+	public boolean wantsToHit(@NonNull Hand hand, int dealerVisibleValue) {
+		return hand.getHandValue() < standValue;
+	}
+	
+	@Override
+	public int getBetAmount(int chipsAmount) {
+		return betAmount;
+	}
+}
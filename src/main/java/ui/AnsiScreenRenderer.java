@@ -0,0 +1,85 @@
+package ui;
+
+import lombok.NonNull;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Draws the table as a fixed screen using ANSI escape codes. Each region has its own row and the latest messages sit
+ * in a log below them. The renderer remembers what is on screen, so a frame only rewrites the rows that changed, then
+ * parks the cursor on the prompt row (clearing anything below it) ready for the next input.
+ */
+public class AnsiScreenRenderer implements ScreenRenderer {
+	private static final String ESCAPE = "\u001B[";
+	private static final String CLEAR_SCREEN = ESCAPE + "2J";
+	private static final String CLEAR_LINE = ESCAPE + "2K";
+	private static final String CLEAR_BELOW = ESCAPE + "J";
+	private static final String SEPARATOR = "================================";
+	private static final int MESSAGE_ROWS = 8;
+	private static final int REGION_ROWS = ScreenRegion.values().length;
+	// Regions, a separator, then the message log, the prompt goes on the row after that
+	private static final int SEPARATOR_ROW = REGION_ROWS;
+	private static final int FIRST_MESSAGE_ROW = SEPARATOR_ROW + 1;
+	private static final int ROWS = FIRST_MESSAGE_ROW + MESSAGE_ROWS;
+	
+	private final FrameBuffer frame;
+	private final String[] pending = new String[ROWS];
+	private final String[] drawn = new String[ROWS];
+	private boolean cleared;
+	
+	public AnsiScreenRenderer(@NonNull OutputStream out) {
+		this.frame = new FrameBuffer(out);
+		Arrays.fill(pending, "");
+		Arrays.fill(drawn, "");
+		pending[SEPARATOR_ROW] = SEPARATOR;
+	}
+	
+	@Override
+	public void heading(@NonNull ScreenRegion region, @NonNull String text, boolean major) {
+		region(region, text);
+	}
+	
+	@Override
+	public void region(@NonNull ScreenRegion region, @NonNull String text) {
+		pending[region.ordinal()] = text;
+	}
+	
+	@Override
+	public void message(@NonNull String text) {
+		System.arraycopy(pending, FIRST_MESSAGE_ROW + 1, pending, FIRST_MESSAGE_ROW, MESSAGE_ROWS - 1);
+		pending[ROWS - 1] = text;
+	}
+	
+	@Override
+	public void separator(boolean major) {
+	}
+	
+	@Override
+	public void blankLine() {
+	}
+	
+	@Override
+	public void endFrame() {
+		if (!cleared) {
+			frame.append(CLEAR_SCREEN);
+			cleared = true;
+		}
+		
+		for (int row = 0; row < ROWS; row++) {
+			if (!Objects.equals(pending[row], drawn[row])) {
+				moveTo(row).append(CLEAR_LINE).append(pending[row]);
+				drawn[row] = pending[row];
+			}
+		}
+		
+		moveTo(ROWS).append(CLEAR_BELOW);
+		frame.writeFrame();
+	}
+	
+	// Escape codes count rows from 1
+	private FrameBuffer moveTo(int row) {
+		return frame.append(ESCAPE).append(row + 1).append(";1H");
+	}
+}
@@ -3,39 +3,58 @@ package ui;
 import lombok.Getter;
 import lombok.NonNull;
 
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 
-public class ConsoleUi {
+/**
+ * Line based prompts over a pair of streams. By default that's the console, but the table server hands it a client's
+ * socket streams instead. Output is flushed before every read so prompts always reach a remote player.
+ */
+public class ConsoleUi implements PlayerChannel {
 	
 	private final Scanner scanner;
+	private final PrintStream output;
 	@Getter
 	private final GameDisplay display;
 	
 	public ConsoleUi() {
-		this.scanner = new Scanner(System.in);
-		this.display = new GameDisplay();
+		this(System.in, System.out);
 	}
 	
+	public ConsoleUi(@NonNull InputStream input, @NonNull PrintStream output) {
+		this(input, output, false);
+	}
+	
+	public ConsoleUi(@NonNull InputStream input, @NonNull PrintStream output, boolean ansiScreen) {
+		this.scanner = new Scanner(input, StandardCharsets.UTF_8);
+		this.output = output;
+		this.display = new GameDisplay(ansiScreen ? new AnsiScreenRenderer(output) : new LineScreenRenderer(output));
+	}
+	
+	@Override
 	@NonNull
 	public String getPlayerName() {
-		System.out.print("Enter your name: ");
-		String name = scanner.nextLine().trim();
+		output.print("Enter your name: ");
+		String name = readLine().trim();
 		
 		while (name.isEmpty()) {
-			System.out.print("Name cannot be empty. Enter your name: ");
-			name = scanner.nextLine().trim();
+			output.print("Name cannot be empty. Enter your name: ");
+			name = readLine().trim();
 		}
 		
 		return name;
 	}
 	
+	@Override
 	@NonNull
 	public String getPlayerChoice(@NonNull String prompt, @NonNull String... validChoices) {
 		while (true) {
-			System.out.print(prompt + " ");
-			String input = scanner.nextLine().toLowerCase().trim();
+			output.print(prompt + " ");
+			String input = readLine().toLowerCase().trim();
 			
 			String matchedChoice = Arrays.stream(validChoices)
 									.filter(choice -> matchesChoice(input, choice))
@@ -50,41 +69,54 @@ public class ConsoleUi {
 									.map(choice -> choice + "(" + choice.substring(0, 1).toUpperCase() + ")")
 									.collect(Collectors.joining(", "));
 			
-			System.out.println("Invalid choice. Please enter: " + choicesList);
+			output.println("Invalid choice. Please enter: " + choicesList);
 		}
 	}
 	
+	@Override
 	public int getIntegerInput(@NonNull String prompt, int min, int max) {
 		while (true) {
-			System.out.print(prompt);
+			output.print(prompt);
 			try {
-				String input = scanner.nextLine().trim();
+				String input = readLine().trim();
 				int value = Integer.parseInt(input);
 				
 				if (value >= min && value <= max) {
 					return value;
 				} else {
-					System.out.println("Please enter a number between " + min + " and " + max);
+					output.println("Please enter a number between " + min + " and " + max);
 				}
 			} catch (NumberFormatException e) {
-				System.out.println("Please enter a valid number.");
+				output.println("Please enter a valid number.");
 			}
 		}
 	}
 	
+	@Override
 	public void displayMessage(@NonNull String message) {
 		display.showMessage(message);
 	}
 	
+	@Override
 	public void waitForEnter(@NonNull String message) {
-		System.out.print(message + " (Press Enter to continue...)");
-		scanner.nextLine();
+		output.print(message + " (Press Enter to continue...)");
+		readLine();
 	}
 	
+	@Override
 	public void close() {
+		output.flush();
 		scanner.close();
 	}
 	
+	private String readLine() {
+		output.flush();
+		if (!scanner.hasNextLine()) {
+			throw new InputClosedException();
+		}
+		return scanner.nextLine();
+	}
+	
 	private boolean matchesChoice(String input, String choice) {
 		String lowerChoice = choice.toLowerCase();
 		return input.equals(lowerChoice) || input.equals(lowerChoice.substring(0, 1));
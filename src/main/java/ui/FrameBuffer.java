@@ -0,0 +1,84 @@
+package ui;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Collects a frame of text and writes it out with a single write and flush. The text and byte buffers are reused from
+ * frame to frame, so steady state rendering doesn't allocate.
+ */
+final class FrameBuffer {
+	private static final int INITIAL_CAPACITY = 2048;
+	
+	private final OutputStream out;
+	private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
+	
+	FrameBuffer(@NonNull OutputStream out) {
+		this.out = out;
+	}
+	
+	FrameBuffer append(String value) {
+		text.append(value);
+		return this;
+	}
+	
+	FrameBuffer append(char value) {
+		text.append(value);
+		return this;
+	}
+	
+	FrameBuffer append(int value) {
+		text.append(value);
+		return this;
+	}
+	
+	FrameBuffer line(String value) {
+		text.append(value).append('\n');
+		return this;
+	}
+	
+	boolean isEmpty() {
+		return text.isEmpty();
+	}
+	
+	void writeFrame() {
+		if (text.isEmpty()) {
+			return;
+		}
+		
+		encode();
+		try {
+			out.write(bytes.array(), 0, bytes.position());
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		text.setLength(0);
+	}
+	
+	private void encode() {
+		int maxBytes = (int) (text.length() * encoder.maxBytesPerChar());
+		if (bytes.capacity() < maxBytes) {
+			bytes = ByteBuffer.allocate(maxBytes);
+		}
+		
+		bytes.clear();
+		encoder.reset();
+		CharBuffer chars = CharBuffer.wrap(text);
+		CoderResult result = encoder.encode(chars, bytes, true);
+		if (result.isError()) {
+			throw new IllegalStateException("Could not encode frame: " + result);
+		}
+		encoder.flush(bytes);
+	}
+}
@@ -1,124 +1,220 @@
 package ui;
 
+import analysis.DealerOutcomes;
 import game.GameResult;
+import lombok.NonNull;
+import models.Hand;
 import models.Player;
 import players.DealerNpc;
 
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Every show method builds one frame through the ScreenRenderer and writes it in one go. By default that's the
+ * scrolling line output, an AnsiScreenRenderer draws a fixed screen instead. A hidden display renders to a
+ * NoOpScreenRenderer.
+ */
 public class GameDisplay {
-	private static final String SEPARATOR = "================================";
-	private static final String THIN_SEPARATOR = "--------------------------------";
+	
+	private final ScreenRenderer renderer;
+	
+	public GameDisplay() {
+		this(System.out);
+	}
+	
+	public GameDisplay(@NonNull PrintStream out) {
+		this(new LineScreenRenderer(out));
+	}
+	
+	public GameDisplay(@NonNull ScreenRenderer renderer) {
+		this.renderer = renderer;
+	}
+	
+	/**
+	 * For tables nobody is watching, like bots on a HeadlessChannel.
+	 */
+	public static GameDisplay hidden() {
+		return new GameDisplay(NoOpScreenRenderer.INSTANCE);
+	}
 	
 	public void showWelcome(String playerName) {
-		System.out.println(SEPARATOR);
-		System.out.println("Welcome to Blackjack, " + playerName + ".");
-		System.out.println(SEPARATOR);
-		System.out.println();
+		renderer.heading(ScreenRegion.TITLE, "Welcome to Blackjack, " + playerName + ".", true);
+		renderer.blankLine();
+		renderer.endFrame();
 	}
 	
 	public void showPlayerStatus(Player player) {
-		System.out.println(player.getName() + " has " + player.getChipsAmount() + " chips.");
-		System.out.println();
+		renderer.region(ScreenRegion.STATUS, player.getName() + " has " + player.getChipsAmount() + " chips.");
+		renderer.blankLine();
+		renderer.endFrame();
 	}
 	
 	public void showInitialDeal(Player player, DealerNpc DealerNpc) {
-		System.out.println(THIN_SEPARATOR);
-		System.out.println("INITIAL DEAL");
-		System.out.println(THIN_SEPARATOR);
-		showPlayerHand(player, false);
-		showDealerHand(DealerNpc, true);
-		System.out.println();
+		showInitialDeal(List.of(player), DealerNpc);
+	}
+	
+	public void showInitialDeal(List<? extends Player> players, DealerNpc dealer) {
+		renderer.heading(ScreenRegion.PHASE, "INITIAL DEAL", false);
+		addPlayerHands(players);
+		addDealerHand(dealer, true);
+		renderer.blankLine();
+		renderer.endFrame();
 	}
 	
 	public void showPlayerHand(Player player, boolean hideValue) {
-		String handDisplay = player.getName() + ": " + player.getHand().toString();
-		if (!hideValue) {
-			handDisplay += " (Value: " + player.getHand().getHandValue() + ")";
-		}
-		System.out.println(handDisplay);
+		addPlayerHand(player, hideValue);
+		renderer.endFrame();
 	}
 	
 	public void showDealerHand(DealerNpc dealer, boolean hideSecondCard) {
-		String handDisplay;
-		if (hideSecondCard) {
-			handDisplay = dealer.getName() + ": " + dealer.getVisibleHand();
-			handDisplay += " (Visible Value: " + dealer.getVisibleValue() + ")";
-		} else {
-			handDisplay = dealer.getName() + ": " + dealer.getFullHand();
-		}
-		System.out.println(handDisplay);
+		addDealerHand(dealer, hideSecondCard);
+		renderer.endFrame();
+	}
+	
+	public void showDealerOutlook(DealerOutcomes outcomes) {
+		renderer.region(ScreenRegion.OUTLOOK, "Dealer finishes on " + outcomes);
+		renderer.blankLine();
+		renderer.endFrame();
 	}
 	
 	public void showCardDealt(String playerName, String cardName) {
-		System.out.println(playerName + " draws: " + cardName);
+		showMessage(playerName + " draws: " + cardName);
 	}
 	
 	public void showDealerTurn() {
-		System.out.println();
-		System.out.println(THIN_SEPARATOR);
-		System.out.println("DEALER'S TURN");
-		System.out.println(THIN_SEPARATOR);
+		renderer.blankLine();
+		renderer.heading(ScreenRegion.PHASE, "DEALER'S TURN", false);
+		renderer.endFrame();
 	}
 	
-	public void showResults(Player player, DealerNpc dealer, GameResult result, int originalBet) {
-		showResultsHeader();
-		showResultsHands(player, dealer);
-		showResultsOutcome(result, player, originalBet);
+	/**
+	 * One result, bet and chips delta per player hand, in the same order as the hands.
+	 */
+	public void showResults(Player player, DealerNpc dealer, GameResult[] results, int[] bets, int[] chipsDeltas) {
+		showResults(List.of(player), dealer, new GameResult[][] {results}, new int[][] {bets},
+				new int[][] {chipsDeltas});
+	}
+	
+	/**
+	 * Every seat's results against the one dealer hand, indexed by seat and then by hand.
+	 */
+	public void showResults(List<? extends Player> players, DealerNpc dealer, GameResult[][] results, int[][] bets,
+							int[][] chipsDeltas) {
+		renderer.blankLine();
+		renderer.heading(ScreenRegion.PHASE, "ROUND RESULTS", true);
+		addPlayerHands(players);
+		addDealerHand(dealer, false);
+		renderer.blankLine();
+		for (int seat = 0; seat < players.size(); seat++) {
+			Player player = players.get(seat);
+			for (int i = 0; i < player.getHandCount(); i++) {
+				String prefix = players.size() > 1 ? player.getName() + ": " : "";
+				if (player.getHandCount() > 1) {
+					prefix += "Hand " + (i + 1) + ": ";
+				}
+				addResultsOutcome(results[seat][i], prefix, bets[seat][i], chipsDeltas[seat][i]);
+			}
+		}
+		renderer.blankLine();
+		renderer.endFrame();
 	}
 	
 	
 	public void showGameOver(Player player) {
-		System.out.println(SEPARATOR);
-		System.out.println("GAME OVER");
-		System.out.println(SEPARATOR);
-		System.out.println("Final chips: " + player.getChipsAmount());
-		System.out.println("Thanks for playing!");
-		System.out.println(SEPARATOR);
+		showGameOver(List.of(player));
+	}
+	
+	public void showGameOver(List<? extends Player> players) {
+		renderer.heading(ScreenRegion.PHASE, "GAME OVER", true);
+		if (players.size() == 1) {
+			renderer.message("Final chips: " + players.getFirst().getChipsAmount());
+		} else {
+			for (Player player : players) {
+				renderer.message("Final chips for " + player.getName() + ": " + player.getChipsAmount());
+			}
+		}
+		renderer.message("Thanks for playing!");
+		renderer.separator(true);
+		renderer.endFrame();
 	}
 	
 	public void showMessage(String message) {
-		System.out.println(message);
+		renderer.message(message);
+		renderer.endFrame();
 	}
 	
 	public void showBustMessage(String playerName) {
-		System.out.println(playerName + " busted! (Over 21)");
+		showMessage(playerName + " busted! (Over 21)");
 	}
 	
 	public void showStandMessage(String playerName) {
-		System.out.println(playerName + " stands.");
+		showMessage(playerName + " stands.");
+	}
+	
+	private void addPlayerHand(Player player, boolean hideValue) {
+		StringBuilder hands = new StringBuilder();
+		appendHands(hands, player, hideValue);
+		renderer.region(ScreenRegion.PLAYER_HAND, hands.toString());
+	}
+	
+	/**
+	 * Every seat goes on the one player row, so the ANSI screen keeps its fixed layout however many are seated.
+	 */
+	private void addPlayerHands(List<? extends Player> players) {
+		StringBuilder hands = new StringBuilder();
+		for (Player player : players) {
+			if (!hands.isEmpty()) {
+				hands.append(" || ");
+			}
+			appendHands(hands, player, false);
+		}
+		renderer.region(ScreenRegion.PLAYER_HAND, hands.toString());
 	}
 	
-	private void showResultsHeader() {
-		System.out.println();
-		System.out.println(SEPARATOR);
-		System.out.println("ROUND RESULTS");
-		System.out.println(SEPARATOR);
+	private void appendHands(StringBuilder hands, Player player, boolean hideValue) {
+		hands.append(player.getName()).append(": ");
+		for (int i = 0; i < player.getHandCount(); i++) {
+			Hand hand = player.getHand(i);
+			if (i > 0) {
+				hands.append(" | ");
+			}
+			hands.append(hideValue ? hand.toString() : hand.toStringWithValue());
+		}
 	}
 	
-	private void showResultsHands(Player player, DealerNpc dealer) {
-		showPlayerHand(player, false);
-		showDealerHand(dealer, false);
-		System.out.println();
+	private void addDealerHand(DealerNpc dealer, boolean hideSecondCard) {
+		String handDisplay;
+		if (hideSecondCard) {
+			handDisplay = dealer.getName() + ": " + dealer.getVisibleHand();
+			handDisplay += " (Visible Value: " + dealer.getVisibleValue() + ")";
+		} else {
+			handDisplay = dealer.getName() + ": " + dealer.getFullHand();
+		}
+		renderer.region(ScreenRegion.DEALER_HAND, handDisplay);
 	}
 	
-	private void showResultsOutcome(GameResult result, Player player, int originalBet) {
+	private void addResultsOutcome(GameResult result, String prefix, int bet, int chipsDelta) {
 		switch (result.winner()) {
 			case PLAYER:
 				if (result.payoutType() == Player.PayoutType.BLACKJACK) {
-					System.out.println("BLACKJACK! You win!");
+					renderer.message(prefix + "BLACKJACK! You win!");
 				} else {
-					System.out.println("You win!");
+					renderer.message(prefix + "You win!");
 				}
-				System.out.println("You won " + (originalBet +
-									player.calculatePayout(originalBet, result.payoutType())) + " " + "chips!");
+				renderer.message(prefix + "You won " + (bet + chipsDelta) + " chips!");
 				break;
 			case DEALER:
-				System.out.println("Dealer wins!");
-				System.out.println("You lost " + originalBet + " chips.");
+				if (result.payoutType() == Player.PayoutType.SURRENDER) {
+					renderer.message(prefix + "You surrendered, half your bet is returned.");
+				} else {
+					renderer.message(prefix + "Dealer wins!");
+				}
+				renderer.message(prefix + "You lost " + -chipsDelta + " chips.");
 				break;
 			case TIE:
-				System.out.println("It's a tie! Your bet is returned.");
+				renderer.message(prefix + "It's a tie! Your bet is returned.");
 				break;
 		}
-		System.out.println();
 	}
 }
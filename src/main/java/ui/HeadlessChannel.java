@@ -0,0 +1,43 @@
+package ui;
+
+import lombok.NonNull;
+
+/**
+ * The channel for a table with nobody watching, e.g. one seated entirely by bots. Its display is hidden, so nothing is
+ * even formatted, and nothing can be asked, so any prompt is a bug and throws.
+ */
+public class HeadlessChannel implements PlayerChannel {
+	private final GameDisplay display = GameDisplay.hidden();
+	
+	@Override
+	public String getPlayerName() {
+		throw new UnsupportedOperationException("Nobody is at a headless table to ask");
+	}
+	
+	@Override
+	public String getPlayerChoice(@NonNull String prompt, @NonNull String... validChoices) {
+		throw new UnsupportedOperationException("Nobody is at a headless table to ask: " + prompt);
+	}
+	
+	@Override
+	public int getIntegerInput(@NonNull String prompt, int min, int max) {
+		throw new UnsupportedOperationException("Nobody is at a headless table to ask: " + prompt);
+	}
+	
+	@Override
+	public void displayMessage(@NonNull String message) {
+	}
+	
+	@Override
+	public void waitForEnter(@NonNull String message) {
+	}
+	
+	@Override
+	public GameDisplay getDisplay() {
+		return display;
+	}
+	
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,12 @@
+package ui;
+
+/**
+ * Thrown when the player's input runs out (end of stream, a dropped connection or an idle timeout), there is no way
+ * to carry on the game after that.
+ */
+public class InputClosedException extends RuntimeException {
+	
+	public InputClosedException() {
+		super("Player input was closed");
+	}
+}
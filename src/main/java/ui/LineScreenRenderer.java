@@ -0,0 +1,52 @@
+package ui;
+
+import lombok.NonNull;
+
+import java.io.OutputStream;
+
+/**
+ * The classic scrolling output, line for line what GameDisplay has always printed, but each frame goes out as one write
+ * instead of one println per line.
+ */
+public class LineScreenRenderer implements ScreenRenderer {
+	private static final String SEPARATOR = "================================";
+	private static final String THIN_SEPARATOR = "--------------------------------";
+	
+	private final FrameBuffer frame;
+	
+	public LineScreenRenderer(@NonNull OutputStream out) {
+		this.frame = new FrameBuffer(out);
+	}
+	
+	@Override
+	public void heading(@NonNull ScreenRegion region, @NonNull String text, boolean major) {
+		separator(major);
+		frame.line(text);
+		separator(major);
+	}
+	
+	@Override
+	public void region(@NonNull ScreenRegion region, @NonNull String text) {
+		frame.line(text);
+	}
+	
+	@Override
+	public void message(@NonNull String text) {
+		frame.line(text);
+	}
+	
+	@Override
+	public void separator(boolean major) {
+		frame.line(major ? SEPARATOR : THIN_SEPARATOR);
+	}
+	
+	@Override
+	public void blankLine() {
+		frame.line("");
+	}
+	
+	@Override
+	public void endFrame() {
+		frame.writeFrame();
+	}
+}
@@ -0,0 +1,37 @@
+package ui;
+
+import lombok.NonNull;
+
+/**
+ * Throws every frame away, for a GameDisplay nobody is watching (see GameDisplay.hidden).
+ */
+public final class NoOpScreenRenderer implements ScreenRenderer {
+	public static final NoOpScreenRenderer INSTANCE = new NoOpScreenRenderer();
+	
+	private NoOpScreenRenderer() {
+	}
+	
+	@Override
+	public void heading(@NonNull ScreenRegion region, @NonNull String text, boolean major) {
+	}
+	
+	@Override
+	public void region(@NonNull ScreenRegion region, @NonNull String text) {
+	}
+	
+	@Override
+	public void message(@NonNull String text) {
+	}
+	
+	@Override
+	public void separator(boolean major) {
+	}
+	
+	@Override
+	public void blankLine() {
+	}
+	
+	@Override
+	public void endFrame() {
+	}
+}
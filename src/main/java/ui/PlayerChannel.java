@@ -0,0 +1,27 @@
+package ui;
+
+import lombok.NonNull;
+
+/**
+ * Everything a game needs to talk to the person at the table. ConsoleUi implements it over any pair of streams, so the
+ * same game runs against the local console or a remote client.
+ */
+public interface PlayerChannel extends AutoCloseable {
+	
+	@NonNull
+	String getPlayerName();
+	
+	@NonNull
+	String getPlayerChoice(@NonNull String prompt, @NonNull String... validChoices);
+	
+	int getIntegerInput(@NonNull String prompt, int min, int max);
+	
+	void displayMessage(@NonNull String message);
+	
+	void waitForEnter(@NonNull String message);
+	
+	GameDisplay getDisplay();
+	
+	@Override
+	void close();
+}
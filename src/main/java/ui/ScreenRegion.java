@@ -0,0 +1,13 @@
+package ui;
+
+/**
+ * The fixed parts of the table screen. Line rendering just prints them in order, ANSI rendering gives each its own row.
+ */
+public enum ScreenRegion {
+	TITLE,
+	STATUS,
+	PHASE,
+	DEALER_HAND,
+	PLAYER_HAND,
+	OUTLOOK
+}
@@ -0,0 +1,21 @@
+package ui;
+
+import lombok.NonNull;
+
+/**
+ * Builds up one frame of output at a time, nothing is written until endFrame.
+ */
+public interface ScreenRenderer {
+	
+	void heading(@NonNull ScreenRegion region, @NonNull String text, boolean major);
+	
+	void region(@NonNull ScreenRegion region, @NonNull String text);
+	
+	void message(@NonNull String text);
+	
+	void separator(boolean major);
+	
+	void blankLine();
+	
+	void endFrame();
+}
@@ -0,0 +1,119 @@
+package events;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventStreamTest {
+	private static final int EVENTS = 50_000;
+	// A type byte and two longs
+	private static final int EVENT_BYTES = 17;
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void detachWritesEveryEventToTheFile() throws IOException {
+		Path file = directory.resolve("events.bin");
+		GameEventStream stream = new GameEventStream(1 << 10);
+		stream.attach(new BinaryFileEventSink(file));
+		for (int i = 0; i < EVENTS; i++) {
+			stream.publishCardDealt(i % 52, i);
+		}
+		stream.detach();
+		
+		assertEquals((long) EVENTS * EVENT_BYTES, Files.size(file));
+	}
+	
+	@Test
+	void aFailingFlushDoesNotStopTheConsumer() {
+		List<Long> received = new ArrayList<>();
+		GameEventStream stream = new GameEventStream(1 << 10);
+		stream.attach(new EventSink() {
+			@Override
+			public void onEvent(EventType type, long first, long second) {
+				received.add(first);
+			}
+			
+			@Override
+			public void flush() {
+				throw new UncheckedIOException(new IOException("Disk full"));
+			}
+			
+			@Override
+			public void close() {
+			}
+		});
+		for (int i = 0; i < EVENTS; i++) {
+			stream.publish(EventType.DECK_CREATED, i, 0);
+		}
+		stream.detach();
+		
+		assertEquals(EVENTS, received.size());
+		assertEquals(EVENTS - 1, (long) received.getLast());
+	}
+	
+	@Test
+	void detachFromAnInterruptedThreadStillDrains() throws IOException {
+		Path file = directory.resolve("events.bin");
+		GameEventStream stream = new GameEventStream(1 << 10);
+		stream.attach(new BinaryFileEventSink(file));
+		for (int i = 0; i < EVENTS; i++) {
+			stream.publishShuffle(52, 1);
+		}
+		
+		Thread.currentThread().interrupt();
+		stream.detach();
+		assertTrue(Thread.interrupted());
+		assertEquals((long) EVENTS * EVENT_BYTES, Files.size(file));
+	}
+	
+	/**
+	 * A publisher that saw the first sink attached but only claims its slot once that sink has been detached (and a new
+	 * one attached) mustn't hand the new sink an event from the old session, or stall it.
+	 */
+	@Test
+	void anEventClaimedAfterDetachIsNotDeliveredToTheNextSink() {
+		GameEventStream stream = new GameEventStream(1 << 10);
+		RecordingSink first = new RecordingSink();
+		stream.attach(first);
+		stream.publish(EventType.DECK_CREATED, 1, 0);
+		stream.detach();
+		stream.publishTo(first, EventType.DECK_CREATED, 2, 0);
+		
+		RecordingSink second = new RecordingSink();
+		stream.attach(second);
+		stream.publishTo(first, EventType.DECK_CREATED, 3, 0);
+		stream.publish(EventType.DECK_CREATED, 4, 0);
+		stream.detach();
+		
+		assertEquals(List.of(1L), first.received);
+		assertEquals(List.of(4L), second.received);
+	}
+	
+	private static final class RecordingSink implements EventSink {
+		private final List<Long> received = new ArrayList<>();
+		
+		@Override
+		public void onEvent(EventType type, long first, long second) {
+			received.add(first);
+		}
+		
+		@Override
+		public void flush() {
+		}
+		
+		@Override
+		public void close() {
+		}
+	}
+}
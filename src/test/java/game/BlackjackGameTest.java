@@ -0,0 +1,107 @@
+package game;
+
+import models.Card;
+import models.Hand;
+import models.Rank;
+import models.Shoe;
+import models.ShuffleSource;
+import org.junit.jupiter.api.Test;
+import players.DealerNpc;
+import players.TablePlayer;
+import strategy.Decision;
+import ui.HeadlessChannel;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlackjackGameTest {
+	
+	@Test
+	void resplitAcesOnlyOfferStandOrSplit() {
+		GameEngine engine = new GameEngine(RuleSet.standard().withResplitAces(true));
+		// Player, dealer, player, dealer, then the split hands in turn
+		Shoe shoe = stackedShoe(engine, Rank.ACE, Rank.TEN, Rank.ACE, Rank.SEVEN, Rank.ACE, Rank.FIVE, Rank.ACE,
+				Rank.NINE, Rank.TWO);
+		ScriptedPlayer player = new ScriptedPlayer();
+		
+		new BlackjackGame(player, new DealerNpc(), new HeadlessChannel(), engine, false, shoe).playGame();
+		
+		// The first pair is split from the normal prompt, the pairs after that only get asked about resplitting
+		assertEquals(1, player.actionsChosen);
+		assertEquals(2, player.resplitsOffered);
+		assertEquals(3, player.getHandCount());
+		for (int i = 0; i < player.getHandCount(); i++) {
+			assertEquals(2, player.getHand(i).getCardCount());
+		}
+	}
+	
+	@Test
+	void seatFlagIsCheckedWhenItIsParsed() {
+		assertEquals(1, BlackjackGame.seatCount(List.of()));
+		assertEquals(BlackjackGame.MAX_SEATS, BlackjackGame.seatCount(List.of("--seats=" + BlackjackGame.MAX_SEATS)));
+		assertThrows(IllegalArgumentException.class, () -> BlackjackGame.seatCount(List.of("--seats=0")));
+		assertThrows(IllegalArgumentException.class,
+				() -> BlackjackGame.seatCount(List.of("--seats=" + (BlackjackGame.MAX_SEATS + 1))));
+	}
+	
+	/**
+	 * A shoe that deals the given ranks first, in order.
+	 */
+	static Shoe stackedShoe(GameEngine engine, Rank... ranks) {
+		Shoe shoe = new Shoe(engine.getRules().deckCount(), 0.75, ShuffleSource.splittable(1));
+		byte[] codes = shoe.getCardCodes();
+		for (int i = 0; i < ranks.length; i++) {
+			for (int j = i; j < codes.length; j++) {
+				if (Card.rankOf(codes[j]) == ranks[i]) {
+					byte code = codes[i];
+					codes[i] = codes[j];
+					codes[j] = code;
+					break;
+				}
+			}
+		}
+		shoe.restore(codes, 0);
+		return shoe;
+	}
+	
+	private static final class ScriptedPlayer extends TablePlayer {
+		private int actionsChosen;
+		private int resplitsOffered;
+		
+		private ScriptedPlayer() {
+			super("Scripted", 1_000);
+		}
+		
+		@Override
+		public int getBetAmount() {
+			return 10;
+		}
+		
+		@Override
+		public Decision chooseAction(Hand hand, int dealerVisibleValue, boolean canDouble, boolean canSplit,
+									 boolean canSurrender) {
+			actionsChosen++;
+			assertTrue(canSplit);
+			return Decision.SPLIT;
+		}
+		
+		@Override
+		public boolean wantsToResplitAces(Hand hand, int dealerVisibleValue) {
+			resplitsOffered++;
+			return resplitsOffered == 1;
+		}
+		
+		@Override
+		public boolean wantsInsurance(int insuranceBet) {
+			return false;
+		}
+		
+		@Override
+		public boolean wantsToPlayAgain() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package game;
+
+import models.Card;
+import models.Hand;
+import models.Rank;
+import models.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameEngineTest {
+	private static final int MAX_CARDS = 4;
+	private static final int BET = 25;
+	
+	/**
+	 * Every total and card count a hand can have, against every one the dealer can have, split or not and surrendered
+	 * or not, settles the same in a batch as it does one hand at a time.
+	 */
+	@Test
+	void settleBatchAgreesWithDetermineResultForEveryHand() {
+		GameEngine engine = new GameEngine(RuleSet.standard().withLateSurrender(true));
+		List<Hand> hands = everyTotalAndCardCount();
+		RoundBatch batch = new RoundBatch(hands.size() * 4);
+		
+		for (Hand dealerHand : hands) {
+			int size = 0;
+			for (Hand playerHand : hands) {
+				for (int flags = 0; flags < 4; flags++) {
+					batch.set(size++, playerHand, dealerHand, BET, (flags & 1) != 0, (flags & 2) != 0);
+				}
+			}
+			batch.setSize(size);
+			engine.settleBatch(batch);
+			
+			for (int i = 0; i < size; i++) {
+				Hand playerHand = hands.get(i / 4);
+				boolean splitHand = (i & 1) != 0;
+				GameResult expected = (i & 2) != 0 ? engine.surrenderResult()
+						: engine.determineResult(playerHand, dealerHand, splitHand);
+				String hand = "Player " + playerHand + (splitHand ? " (split)" : "") + " against " + dealerHand;
+				
+				assertEquals(expected.winner(), batch.getWinner(i), hand);
+				assertEquals(expected.payoutType().ordinal(), batch.getPayoutTypes()[i], hand);
+				assertEquals(engine.chipsDelta(expected, BET), batch.getChipsDeltas()[i], hand);
+			}
+		}
+	}
+	
+	/**
+	 * One hand for each total and card count that up to MAX_CARDS cards can make.
+	 */
+	private static List<Hand> everyTotalAndCardCount() {
+		Map<Integer, Hand> hands = new LinkedHashMap<>();
+		List<Hand> partial = new ArrayList<>(List.of(new Hand()));
+		for (int cards = 1; cards <= MAX_CARDS; cards++) {
+			List<Hand> longer = new ArrayList<>();
+			for (Hand hand : partial) {
+				for (Rank rank : Rank.values()) {
+					Hand next = new Hand();
+					for (int card = 0; card < hand.getCardCount(); card++) {
+						next.addCardCode(hand.getCardCode(card));
+					}
+					next.addCard(Card.of(rank, Suit.SPADES));
+					longer.add(next);
+					if (cards >= 2) {
+						hands.putIfAbsent(next.getHandValue() * 8 + cards, next);
+					}
+				}
+			}
+			partial = longer;
+		}
+		return new ArrayList<>(hands.values());
+	}
+}
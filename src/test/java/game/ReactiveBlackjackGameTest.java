@@ -0,0 +1,105 @@
+package game;
+
+import models.Player;
+import models.Rank;
+import org.junit.jupiter.api.Test;
+import players.DealerNpc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveBlackjackGameTest {
+	private static final int STARTING_CHIPS = 1_000;
+	private static final int BET = 100;
+	
+	@Test
+	void commandsDriveTheRoundAndWrongOnesAreRejected() {
+		GameEngine engine = new GameEngine();
+		Player player = new Player("Alice", STARTING_CHIPS);
+		// Player, dealer, player, dealer, the player's hit, the dealer's hit, then a player blackjack
+		ReactiveBlackjackGame game = new ReactiveBlackjackGame(player, new DealerNpc(), engine,
+				BlackjackGameTest.stackedShoe(engine, Rank.TEN, Rank.NINE, Rank.SIX, Rank.SEVEN, Rank.FOUR, Rank.TWO,
+						Rank.ACE, Rank.TEN, Rank.KING, Rank.NINE));
+		
+		assertRejected(game, GameState.WAITING_FOR_BET, GameCommand.HIT);
+		assertRejected(game, GameState.WAITING_FOR_BET, new GameCommand.Bet(STARTING_CHIPS + 1));
+		
+		// Only the dealer's up card is shown until the dealer's turn
+		List<TableEvent> events = step(game, new GameCommand.Bet(BET), GameState.PLAYER_TURN, 5);
+		assertEquals(new TableEvent.BetPlaced(BET, STARTING_CHIPS - BET), events.get(0));
+		assertDealt(events.get(1), TableEvent.Seat.PLAYER, Rank.TEN);
+		assertDealt(events.get(2), TableEvent.Seat.DEALER, Rank.NINE);
+		assertDealt(events.get(3), TableEvent.Seat.PLAYER, Rank.SIX);
+		assertInstanceOf(TableEvent.HoleCardDealt.class, events.get(4));
+		
+		assertRejected(game, GameState.PLAYER_TURN, GameCommand.CONTINUE);
+		
+		events = step(game, GameCommand.HIT, GameState.PLAYER_TURN, 1);
+		assertDealt(events.get(0), TableEvent.Seat.PLAYER, Rank.FOUR);
+		
+		// The hole card comes out before the dealer draws
+		events = step(game, GameCommand.STAND, GameState.ROUND_OVER, 5);
+		assertEquals(new TableEvent.Stood(TableEvent.Seat.PLAYER, 20), events.get(0));
+		assertRevealed(events.get(1), Rank.SEVEN);
+		assertDealt(events.get(2), TableEvent.Seat.DEALER, Rank.TWO);
+		assertEquals(new TableEvent.Stood(TableEvent.Seat.DEALER, 18), events.get(3));
+		assertEquals(new TableEvent.RoundSettled(engine.determineResult(player.getHand(), game.getDealer().getHand()),
+				BET, STARTING_CHIPS + BET), events.get(4));
+		assertEquals(STARTING_CHIPS + BET, player.getChipsAmount());
+		
+		assertRejected(game, GameState.ROUND_OVER, GameCommand.HIT);
+		step(game, GameCommand.CONTINUE, GameState.WAITING_FOR_BET, 0);
+		
+		// A natural is settled straight from the deal, revealing the hole card without a player turn
+		events = step(game, new GameCommand.Bet(BET), GameState.ROUND_OVER, 7);
+		assertDealt(events.get(1), TableEvent.Seat.PLAYER, Rank.ACE);
+		assertDealt(events.get(3), TableEvent.Seat.PLAYER, Rank.KING);
+		assertInstanceOf(TableEvent.HoleCardDealt.class, events.get(4));
+		assertRevealed(events.get(5), Rank.NINE);
+		int blackjackChips = STARTING_CHIPS + BET + engine.blackjackPayout(BET);
+		TableEvent.RoundSettled settled = assertInstanceOf(TableEvent.RoundSettled.class, events.get(6));
+		assertEquals(Player.PayoutType.BLACKJACK, settled.result().payoutType());
+		assertEquals(blackjackChips, settled.chipsAmount());
+		assertEquals(blackjackChips, player.getChipsAmount());
+		
+		step(game, GameCommand.CONTINUE, GameState.WAITING_FOR_BET, 0);
+		events = step(game, new GameCommand.Bet(0), GameState.GAME_OVER, 1);
+		assertEquals(new TableEvent.GameOver(blackjackChips), events.get(0));
+		assertRejected(game, GameState.GAME_OVER, GameCommand.CONTINUE);
+	}
+	
+	@Test
+	void theShoeHasToMatchTheRules() {
+		GameEngine engine = new GameEngine(RuleSet.standard().withDeckCount(2));
+		assertThrows(IllegalArgumentException.class, () -> new ReactiveBlackjackGame(new Player("Alice", 1),
+				new DealerNpc(), engine, BlackjackGameTest.stackedShoe(new GameEngine())));
+	}
+	
+	private static List<TableEvent> step(ReactiveBlackjackGame game, GameCommand command, GameState expectedState,
+										int expectedEvents) {
+		GameStep step = game.handle(command);
+		assertEquals(expectedState, step.state());
+		assertEquals(expectedState, game.getState());
+		assertEquals(expectedEvents, step.events().size(), () -> "Events " + step.events());
+		return step.events();
+	}
+	
+	private static void assertRejected(ReactiveBlackjackGame game, GameState state, GameCommand command) {
+		List<TableEvent> events = step(game, command, state, 1);
+		TableEvent.CommandRejected rejected = assertInstanceOf(TableEvent.CommandRejected.class, events.get(0));
+		assertEquals(command, rejected.command());
+	}
+	
+	private static void assertDealt(TableEvent event, TableEvent.Seat seat, Rank rank) {
+		TableEvent.CardDealt dealt = assertInstanceOf(TableEvent.CardDealt.class, event);
+		assertEquals(seat, dealt.seat());
+		assertEquals(rank, dealt.card().rank());
+	}
+	
+	private static void assertRevealed(TableEvent event, Rank rank) {
+		assertEquals(rank, assertInstanceOf(TableEvent.HoleCardRevealed.class, event).card().rank());
+	}
+}
@@ -0,0 +1,136 @@
+package history;
+
+import game.GameResult;
+import game.Winner;
+import models.Card;
+import models.Hand;
+import models.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandHistoryTest {
+	// Enough rounds to fill a few dozen blocks
+	private static final int ROUNDS = 100_000;
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void everyFieldOfEveryRoundReadsBackAsWritten() throws IOException {
+		Path file = directory.resolve("history.bjh");
+		try (HandHistoryWriter writer = new HandHistoryWriter(file)) {
+			for (int id = 0; id < ROUNDS; id++) {
+				write(writer, id);
+			}
+		}
+		
+		try (HandHistoryReader reader = new HandHistoryReader(file)) {
+			assertEquals(ROUNDS, reader.getRoundCount());
+			long[] nextId = {0};
+			reader.forEach(view -> {
+				assertEquals(nextId[0]++, view.getRoundId());
+				assertMatches(roundFor(view.getRoundId()), view);
+			});
+			assertEquals(ROUNDS, nextId[0]);
+			assertEquals(ROUNDS, reader.stats().getRounds());
+		}
+	}
+	
+	@Test
+	void reopeningCarriesOnFromTheLastRoundId() throws IOException {
+		Path file = directory.resolve("history.bjh");
+		try (HandHistoryWriter writer = new HandHistoryWriter(file)) {
+			assertEquals(0, writer.getNextRoundId());
+			for (int id = 0; id < 10; id++) {
+				write(writer, id);
+			}
+		}
+		
+		try (HandHistoryWriter writer = new HandHistoryWriter(file)) {
+			assertEquals(10, writer.getNextRoundId());
+			assertThrows(IllegalArgumentException.class, () -> write(writer, 3));
+			write(writer, 10);
+		}
+		
+		try (HandHistoryReader reader = new HandHistoryReader(file)) {
+			long[] nextId = {0};
+			reader.forEach(view -> assertEquals(nextId[0]++, view.getRoundId()));
+			assertEquals(11, nextId[0]);
+		}
+	}
+	
+	private static void write(HandHistoryWriter writer, long id) throws IOException {
+		Round round = roundFor(id);
+		writer.writeRound(id, round.player(), round.dealerHand(), round.results(), round.bets(), round.chipsDeltas());
+	}
+	
+	private static void assertMatches(Round round, RoundView view) {
+		Player player = round.player();
+		assertEquals(player.getHandCount(), view.getHandCount());
+		for (int hand = 0; hand < player.getHandCount(); hand++) {
+			Hand expected = player.getHand(hand);
+			assertEquals(expected.getCardCount(), view.getCardCount(hand));
+			for (int card = 0; card < expected.getCardCount(); card++) {
+				assertEquals(expected.getCardCode(card), view.getCardCode(hand, card));
+			}
+			assertEquals(round.results()[hand].winner(), view.getWinner(hand));
+			assertEquals(round.results()[hand].payoutType(), view.getPayoutType(hand));
+			assertEquals(round.bets()[hand], view.getBet(hand));
+			assertEquals(round.chipsDeltas()[hand], view.getChipsDelta(hand));
+		}
+		assertEquals(round.dealerHand().getCardCount(), view.getDealerCardCount());
+		for (int card = 0; card < view.getDealerCardCount(); card++) {
+			assertEquals(round.dealerHand().getCardCode(card), view.getDealerCardCode(card));
+		}
+		assertEquals(player.getChipsAmount(), view.getChipsAfter());
+	}
+	
+	/**
+	 * Made up but repeatable rounds, seeded by their id so the reading side can build the same one again.
+	 */
+	private static Round roundFor(long id) {
+		SplittableRandom random = new SplittableRandom(id);
+		Player player = new Player("Alice", random.nextInt(1_000_000));
+		player.getHand(0).addCardCode(random.nextInt(Card.DISTINCT_CARDS));
+		player.getHand(0).addCardCode(random.nextInt(Card.DISTINCT_CARDS));
+		if (random.nextInt(4) == 0) {
+			player.splitHand(0);
+		}
+		for (int hand = 0; hand < player.getHandCount(); hand++) {
+			dealCards(player.getHand(hand), random);
+		}
+		Hand dealerHand = new Hand();
+		dealCards(dealerHand, random);
+		
+		int hands = player.getHandCount();
+		GameResult[] results = new GameResult[hands];
+		int[] bets = new int[hands];
+		int[] chipsDeltas = new int[hands];
+		for (int hand = 0; hand < hands; hand++) {
+			results[hand] = new GameResult(Winner.values()[random.nextInt(Winner.values().length)],
+					Player.PayoutType.values()[random.nextInt(Player.PayoutType.values().length)]);
+			bets[hand] = 1 + random.nextInt(1_000);
+			chipsDeltas[hand] = random.nextInt(-bets[hand], bets[hand] * 3 / 2 + 1);
+		}
+		return new Round(player, dealerHand, results, bets, chipsDeltas);
+	}
+	
+	/**
+	 * Tops a hand up to somewhere between two and six cards.
+	 */
+	private static void dealCards(Hand hand, SplittableRandom random) {
+		for (int cards = 2 + random.nextInt(5); hand.getCardCount() < cards; ) {
+			hand.addCardCode(random.nextInt(Card.DISTINCT_CARDS));
+		}
+	}
+	
+	private record Round(Player player, Hand dealerHand, GameResult[] results, int[] bets, int[] chipsDeltas) {
+	}
+}
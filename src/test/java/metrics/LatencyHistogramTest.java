@@ -0,0 +1,57 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+	
+	@Test
+	void valuesBelowTwiceTheSubBucketsAreExact() {
+		for (int value = 0; value < 2 * LatencyHistogram.SUB_BUCKETS; value++) {
+			assertEquals(value, LatencyHistogram.bucketOf(value));
+			assertEquals(value, LatencyHistogram.highestValueIn(value));
+		}
+	}
+	
+	@Test
+	void bucketsFollowOnFromEachOtherUpToTheTop() {
+		for (int bucket = 1; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			long lowest = LatencyHistogram.highestValueIn(bucket - 1) + 1;
+			assertEquals(bucket, LatencyHistogram.bucketOf(lowest), "Lowest value of bucket " + bucket);
+			assertEquals(bucket, LatencyHistogram.bucketOf(LatencyHistogram.highestValueIn(bucket)),
+					"Highest value of bucket " + bucket);
+		}
+		assertEquals(LatencyHistogram.MAX_TRACKABLE, LatencyHistogram.highestValueIn(LatencyHistogram.BUCKETS - 1));
+	}
+	
+	@Test
+	void everyValueIsKnownToWithinAboutThreePercent() {
+		for (long value = 1; value <= LatencyHistogram.MAX_TRACKABLE; value += 1 + value / 7) {
+			long highest = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+			assertTrue(highest >= value, "Bucket for " + value + " tops out at " + highest);
+			assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS, "Bucket for " + value + " is too wide");
+		}
+	}
+	
+	@Test
+	void snapshotsReportPercentilesAsTheTopOfTheirBucket() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 1_000; nanos++) {
+			histogram.record(nanos);
+		}
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+		
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(1_002, snapshot.getCount());
+		assertEquals(500_500 + LatencyHistogram.MAX_TRACKABLE, snapshot.getTotalNanos());
+		assertEquals(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(500)),
+				snapshot.getValueAtPercentile(50));
+		assertEquals(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(1_000)),
+				snapshot.getValueAtPercentile(99.9));
+		assertEquals(LatencyHistogram.MAX_TRACKABLE, snapshot.getMaxNanos());
+		assertEquals(0, snapshot.getValueAtPercentile(0));
+	}
+}
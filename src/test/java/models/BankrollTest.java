@@ -0,0 +1,112 @@
+package models;
+
+import game.GameEngine;
+import game.GameResult;
+import game.Winner;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankrollTest {
+	private static final int TABLES = 1_000;
+	private static final int ROUNDS = 2_000;
+	private static final int PLAYERS = 8;
+	private static final int STARTING_CHIPS = 200;
+	private static final int MAX_BET = 50;
+	private static final int DEPOSIT = 100;
+	private static final int RESERVERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+	private static final int RESERVES = 200_000;
+	// Weighted towards the dealer so bankrolls keep running dry and reserves have to collect settled chips
+	private static final GameResult[] RESULTS = {
+			new GameResult(Winner.PLAYER, Player.PayoutType.STANDARD),
+			new GameResult(Winner.PLAYER, Player.PayoutType.BLACKJACK),
+			new GameResult(Winner.TIE, Player.PayoutType.TIE),
+			new GameResult(Winner.DEALER, Player.PayoutType.STANDARD),
+			new GameResult(Winner.DEALER, Player.PayoutType.STANDARD),
+			new GameResult(Winner.DEALER, Player.PayoutType.STANDARD),
+			new GameResult(Winner.DEALER, Player.PayoutType.SURRENDER)
+	};
+	
+	/**
+	 * Thousands of tables on virtual threads share a handful of bankrolls, betting, settling and topping up. Every
+	 * balance has to end up as what it started with plus every deposit and net result actually applied.
+	 */
+	@Test
+	void sharedBankrollsNeverCreateOrLoseChips() {
+		GameEngine engine = new GameEngine();
+		Bankroll[] bankrolls = new Bankroll[PLAYERS];
+		LongAdder[] expectedChanges = new LongAdder[PLAYERS];
+		for (int i = 0; i < PLAYERS; i++) {
+			bankrolls[i] = new Bankroll(STARTING_CHIPS);
+			expectedChanges[i] = new LongAdder();
+		}
+		LongAdder refused = new LongAdder();
+		
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int table = 0; table < TABLES; table++) {
+				int seat = table % PLAYERS;
+				Player player = new Player("Player " + seat, bankrolls[seat]);
+				executor.submit(() -> playTable(engine, player, expectedChanges[seat], refused));
+			}
+		}
+		
+		for (int i = 0; i < PLAYERS; i++) {
+			assertEquals(STARTING_CHIPS + expectedChanges[i].sum(), bankrolls[i].getBalance(), "Player " + i);
+			assertEquals(0, bankrolls[i].getReserved(), "Player " + i);
+		}
+		// Otherwise the deposits, and reserving against an empty bankroll, went untested
+		assertTrue(refused.sum() > 0);
+	}
+	
+	private static void playTable(GameEngine engine, Player player, LongAdder expectedChange, LongAdder refused) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int round = 0; round < ROUNDS; round++) {
+			int bet = 1 + random.nextInt(MAX_BET);
+			if (!player.tryBet(bet)) {
+				refused.increment();
+				player.getBankroll().deposit(DEPOSIT);
+				expectedChange.add(DEPOSIT);
+				continue;
+			}
+			
+			int chipsDelta = engine.chipsDelta(RESULTS[random.nextInt(RESULTS.length)], bet);
+			player.settleBet(bet, chipsDelta);
+			expectedChange.add(chipsDelta);
+		}
+	}
+	
+	/**
+	 * Every thread reserves one chip and settles it straight back, so a reserve can always be covered however the other
+	 * threads' chips are split between available and the stripes. Nearly every reserve has to collect first, which is
+	 * where one could catch another collect with the chips off the stripes but not yet available.
+	 */
+	@Test
+	void aReserveTheBalanceCoversIsNeverRefused() throws InterruptedException {
+		Bankroll bankroll = new Bankroll(RESERVERS);
+		LongAdder refused = new LongAdder();
+		Thread[] threads = new Thread[RESERVERS];
+		for (int i = 0; i < RESERVERS; i++) {
+			threads[i] = Thread.ofPlatform().start(() -> {
+				for (int reserve = 0; reserve < RESERVES; reserve++) {
+					if (bankroll.tryReserve(1)) {
+						bankroll.settle(1, 0);
+					} else {
+						refused.increment();
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertEquals(0, refused.sum());
+		assertEquals(RESERVERS, bankroll.getBalance());
+	}
+}
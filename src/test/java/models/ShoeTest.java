@@ -0,0 +1,67 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShoeTest {
+	
+	@Test
+	void runningOutMidRoundNeverDealsACardThatIsInPlay() {
+		Shoe shoe = new Shoe(1, 1.0, ShuffleSource.splittable(7));
+		shoe.shuffleIfNeeded();
+		for (int i = 0; i < 30; i++) {
+			shoe.dealCardCode();
+		}
+		
+		// The second round takes the last 22 cards and then needs 30 more, which can only be the first round's
+		assertFalse(shoe.shuffleIfNeeded());
+		Set<Integer> inPlay = new HashSet<>();
+		for (int i = 0; i < Card.DISTINCT_CARDS; i++) {
+			assertTrue(inPlay.add(shoe.dealCardCode()), "Card dealt twice in one round");
+		}
+		
+		assertEquals(0, shoe.getCardsRemaining());
+		assertThrows(IllegalStateException.class, shoe::dealCardCode);
+	}
+	
+	@Test
+	void runningOutMidRoundForcesAFullShuffleBeforeTheNextRound() {
+		Shoe shoe = new Shoe(1, 1.0, ShuffleSource.splittable(7));
+		shoe.shuffleIfNeeded();
+		for (int i = 0; i < 40; i++) {
+			shoe.dealCardCode();
+		}
+		shoe.shuffleIfNeeded();
+		for (int i = 0; i < 20; i++) {
+			shoe.dealCardCode();
+		}
+		
+		assertTrue(shoe.needsShuffle());
+		assertEquals(Card.DISTINCT_CARDS, shoe.getCardsDealt());
+		assertTrue(shoe.shuffleIfNeeded());
+		assertEquals(Card.DISTINCT_CARDS, shoe.getCardsRemaining());
+	}
+	
+	@Test
+	void restoringACheckpointDealsTheSameCards() {
+		Shoe shoe = new Shoe(2, 0.75, ShuffleSource.splittable(3));
+		for (int i = 0; i < 17; i++) {
+			shoe.dealCardCode();
+		}
+		byte[] codes = shoe.getCardCodes();
+		int dealt = shoe.getCardsDealt();
+		int next = shoe.dealCardCode();
+		
+		Shoe restored = new Shoe(2, 0.75, ShuffleSource.splittable(99));
+		restored.restore(codes, dealt);
+		assertEquals(next, restored.dealCardCode());
+		assertEquals(shoe.getCardsRemaining(), restored.getCardsRemaining());
+	}
+}
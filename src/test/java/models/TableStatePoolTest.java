@@ -0,0 +1,53 @@
+package models;
+
+import metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableStatePoolTest {
+	
+	@Test
+	void runningOutMidRoundNeverDealsACardThatIsInPlay() {
+		TableStatePool pool = new TableStatePool(1, 1, 1, 1, 1.0, new MetricsRegistry());
+		int slot = pool.allocate(7, 100);
+		pool.shuffleIfNeeded(slot);
+		for (int i = 0; i < 30; i++) {
+			pool.dealCardCode(slot);
+		}
+		
+		assertFalse(pool.shuffleIfNeeded(slot));
+		Set<Integer> inPlay = new HashSet<>();
+		for (int i = 0; i < Card.DISTINCT_CARDS; i++) {
+			assertTrue(inPlay.add(pool.dealCardCode(slot)), "Card dealt twice in one round");
+		}
+		
+		assertEquals(0, pool.getCardsRemaining(slot));
+		assertThrows(IllegalStateException.class, () -> pool.dealCardCode(slot));
+	}
+	
+	@Test
+	void dealsTheSameCardsAsAShoeSeededTheSameWay() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		TableStatePool pool = new TableStatePool(1, 1, 1, 1, 0.9, metrics);
+		int slot = pool.allocate(11, 100);
+		Shoe shoe = new Shoe(1, 0.9, ShuffleSource.splittable(11));
+		// Rounds of up to 20 cards, so some of them run off the end of the shoe
+		SplittableRandom roundSizes = new SplittableRandom(5);
+		for (int round = 0; round < 1_000; round++) {
+			assertEquals(shoe.shuffleIfNeeded(), pool.shuffleIfNeeded(slot));
+			for (int cards = 1 + roundSizes.nextInt(20); cards > 0; cards--) {
+				assertEquals(shoe.dealCardCode(), pool.dealCardCode(slot));
+				assertEquals(shoe.getCardsRemaining(), pool.getCardsRemaining(slot));
+			}
+		}
+		assertTrue(metrics.getShuffles() > 0);
+	}
+}
@@ -0,0 +1,127 @@
+package replay;
+
+import game.BlackjackGame;
+import game.GameEngine;
+import game.RuleSet;
+import models.SeekableShuffleSource;
+import models.Shoe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import players.DealerNpc;
+import players.HumanPlayer;
+import ui.GameDisplay;
+import ui.LineScreenRenderer;
+import ui.PlayerChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableReplayerTest {
+	private static final int ROUNDS = 2_000;
+	private static final int STARTING_CHIPS = 1_000_000;
+	
+	@TempDir
+	Path directory;
+	
+	private TableRecording recording;
+	// The player's chips after each round of the original game
+	private final int[] chipsAfter = new int[ROUNDS];
+	
+	@BeforeEach
+	void recordAGame() throws IOException {
+		Path file = directory.resolve("table.bjr");
+		RuleSet rules = RuleSet.standard().withLateSurrender(true);
+		Shoe shoe = new Shoe(rules.deckCount(), 0.75, new SeekableShuffleSource(7));
+		RandomPlayerChannel script = new RandomPlayerChannel();
+		try (TableRecorder recorder = new TableRecorder(file, script.getPlayerName(), rules, shoe)) {
+			PlayerChannel channel = recorder.record(script);
+			script.player = new HumanPlayer(script.getPlayerName(), STARTING_CHIPS, channel);
+			BlackjackGame game = new BlackjackGame(script.player, new DealerNpc(), channel, new GameEngine(rules),
+					false, shoe);
+			game.setRoundListener(recorder);
+			game.playGame();
+		}
+		recording = TableRecording.read(file);
+	}
+	
+	@Test
+	void replayingTheWholeRecordingEndsWhereTheGameDid() {
+		ReplayResult result = new TableReplayer(recording).verify();
+		
+		assertTrue(result.reachedEnd());
+		assertEquals(0, result.startRound());
+		assertEquals(ROUNDS, result.roundsPlayed());
+		// One every 100 rounds, the one at round 0 is where the replay starts rather than one it checks
+		assertEquals(ROUNDS / TableRecorder.DEFAULT_CHECKPOINT_INTERVAL - 1, result.checkpointsVerified());
+		assertEquals(chipsAfter[ROUNDS - 1], result.chips());
+	}
+	
+	@Test
+	void replayingFromTheMiddleEndsWithTheSameChipsAsTheGame() {
+		TableReplayer replayer = new TableReplayer(recording);
+		for (long round : new long[] {0, 99, 100, 1_234, ROUNDS - 3}) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ReplayResult result = replayer.replay(round, round + 1, out);
+			
+			assertFalse(result.reachedEnd());
+			assertEquals(round / TableRecorder.DEFAULT_CHECKPOINT_INTERVAL * TableRecorder.DEFAULT_CHECKPOINT_INTERVAL,
+					result.startRound());
+			assertEquals(chipsAfter[(int) round + 1], result.chips(), "Round " + round);
+			assertTrue(out.size() > 0);
+		}
+	}
+	
+	/**
+	 * Bets and answers at random, stopping after ROUNDS, and notes the chips at the end of every round.
+	 */
+	private final class RandomPlayerChannel implements PlayerChannel {
+		private final SplittableRandom random = new SplittableRandom(3);
+		private final GameDisplay display = new GameDisplay(new LineScreenRenderer(OutputStream.nullOutputStream()));
+		private HumanPlayer player;
+		private int round;
+		
+		@Override
+		public String getPlayerName() {
+			return "Sam";
+		}
+		
+		@Override
+		public String getPlayerChoice(String prompt, String... validChoices) {
+			if (prompt.startsWith("Play another")) {
+				chipsAfter[round] = player.getChipsAmount();
+				return ++round < ROUNDS ? "y" : "n";
+			}
+			return validChoices[random.nextInt(validChoices.length)].substring(0, 1);
+		}
+		
+		@Override
+		public int getIntegerInput(String prompt, int min, int max) {
+			return random.nextInt(min, Math.min(max, 50) + 1);
+		}
+		
+		@Override
+		public void displayMessage(String message) {
+		}
+		
+		@Override
+		public void waitForEnter(String message) {
+		}
+		
+		@Override
+		public GameDisplay getDisplay() {
+			return display;
+		}
+		
+		@Override
+		public void close() {
+		}
+	}
+}
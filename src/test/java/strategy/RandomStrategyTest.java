@@ -0,0 +1,35 @@
+package strategy;
+
+import models.Shoe;
+import models.ShuffleSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RandomStrategyTest {
+	private static final int BETS = 100;
+	
+	@Test
+	void aTableGetsTheSameGeneratorWhateverOrderTablesAreBoundIn() {
+		RandomStrategy strategy = new RandomStrategy(42, 1_000);
+		Shoe shoe = new Shoe(6, 0.75, ShuffleSource.splittable(42));
+		
+		int[] third = bets(strategy.bindTo(shoe, 3));
+		int[] first = bets(strategy.bindTo(shoe, 1));
+		
+		assertArrayEquals(third, bets(new RandomStrategy(42, 1_000).bindTo(shoe, 3)));
+		assertArrayEquals(first, bets(strategy.bindTo(shoe, 1)));
+		assertFalse(Arrays.equals(first, third));
+	}
+	
+	private static int[] bets(Strategy strategy) {
+		int[] bets = new int[BETS];
+		for (int i = 0; i < BETS; i++) {
+			bets[i] = strategy.getBetAmount(Integer.MAX_VALUE);
+		}
+		return bets;
+	}
+}